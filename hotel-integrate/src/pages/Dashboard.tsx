@@ -3,7 +3,7 @@ import { useAuth } from '../contexts/AuthContext';
 import { useNavigate } from 'react-router-dom';
 import { colors, spacing } from '../styles';
 import { getStaff } from '../services/inventoryService';
-import { getAllReservations, getAllRooms } from '../services/reservationService';
+import { getReservationStats } from '../services/reservationService';
 
 const Dashboard: React.FC = () => {
   const { user, logout, token } = useAuth();
@@ -18,16 +18,13 @@ const Dashboard: React.FC = () => {
     async function fetchStats() {
       setLoading(true);
       try {
-        const [rooms, staff, reservations] = await Promise.all([
-          getAllRooms(),
+        const [staff, stats] = await Promise.all([
           getStaff(),
-          token ? getAllReservations(token) : Promise.resolve([]),
+          token ? getReservationStats(token) : Promise.resolve(null),
         ]);
-        setRoomCount(rooms.length);
         setStaffCount(staff.length);
-        // Count unique guest emails
-        const uniqueGuests = new Set(reservations.map((r: any) => r.guestEmail));
-        setGuestCount(uniqueGuests.size);
+        setRoomCount(stats ? stats.totalRooms : null);
+        setGuestCount(stats ? stats.distinctGuests : null);
       } catch {
         setRoomCount(null);
         setStaffCount(null);
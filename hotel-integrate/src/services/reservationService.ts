@@ -28,6 +28,28 @@ export interface ReservationDetails {
   checkOutDate: string;
 }
 
+export interface Page<T> {
+  items: T[];
+  next: number | null;
+  size: number;
+}
+
+// Follows the keyset cursor of a paginated listing until the last page
+const fetchAllPages = async <T>(url: string, headers?: Record<string, string>): Promise<T[]> => {
+  const all: T[] = [];
+  let after: number | null = null;
+  do {
+    const params: Record<string, number> = { size: 500 };
+    if (after !== null) {
+      params.after = after;
+    }
+    const response: { data: Page<T> } = await axios.get(url, { headers, params });
+    all.push(...response.data.items);
+    after = response.data.next;
+  } while (after !== null);
+  return all;
+};
+
 export const fetchAvailableRooms = async (checkIn: string, checkOut: string): Promise<Room[]> => {
   try {
     const response = await axios.get(`${API_URL}/reservation-service/public/rooms/available`, {
@@ -67,7 +89,30 @@ export const bookRoom = async (
 
 export const getAllReservations = async (token: string): Promise<Reservation[]> => {
   try {
-    const response = await axios.get(`${API_URL}/reservation-service/reservation/all`, {
+    return await fetchAllPages<Reservation>(`${API_URL}/reservation-service/reservation/all`, {
+      Authorization: `Bearer ${token}`,
+    });
+  } catch (error: any) {
+    const backendMsg = error.response?.data?.error || error.message || 'Unknown error';
+    throw new Error(backendMsg);
+  }
+};
+
+export interface ReservationStats {
+  date: string;
+  totalRooms: number;
+  occupiedTonight: number;
+  occupancyRate: number;
+  arrivalsToday: number;
+  departuresToday: number;
+  totalReservations: number;
+  reservationsByStatus: Record<string, number>;
+  distinctGuests: number;
+}
+
+export const getReservationStats = async (token: string): Promise<ReservationStats> => {
+  try {
+    const response = await axios.get(`${API_URL}/reservation-service/reservation/stats`, {
       headers: { Authorization: `Bearer ${token}` },
     });
     return response.data;
@@ -135,8 +180,7 @@ export const deleteReservation = async (
 
 export const getAllRooms = async (): Promise<Room[]> => {
   try {
-    const response = await axios.get(`${API_URL}/reservation-service/rooms/all`);
-    return response.data;
+    return await fetchAllPages<Room>(`${API_URL}/reservation-service/rooms/all`);
   } catch (error: any) {
     const backendMsg = error.response?.data?.error || error.message || 'Unknown error';
     throw new Error(backendMsg);
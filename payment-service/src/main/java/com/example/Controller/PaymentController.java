@@ -1,7 +1,9 @@
 package com.example.Controller;
 
 import com.example.Model.Payment;
+import com.example.Service.IdempotencyStore;
 import com.example.Service.PaymentService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,15 +19,20 @@ import java.util.Map;
 @RequestMapping("/payment")
 public class PaymentController {
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
+    private static final TypeReference<Map<String, Object>> RESPONSE_BODY = new TypeReference<>() {};
+
     @Autowired
     private PaymentService paymentService;
+    @Autowired
+    private IdempotencyStore idempotencyStore;
 
     @PostMapping("/process")
     public ResponseEntity<Map<String, Object>> processPayment(
             @RequestBody Map<String, Long> request,
             @RequestHeader("X-User-Role") String role,
             @RequestHeader("X-User-Email") String email,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestHeader("Authorization") String authHeader,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         logger.info("Processing payment request for reservationId: {}, role: {}, email: {}", 
             request.get("reservationId"), role, email);
 
@@ -41,6 +48,12 @@ public class PaymentController {
             return new ResponseEntity<>(Map.of("message", "Reservation ID is required"), HttpStatus.BAD_REQUEST);
         }
 
+        // a retried request with the same Idempotency-Key gets the first outcome instead of a second charge attempt
+        return idempotencyStore.execute(idempotencyKey, "pay:" + email, request, RESPONSE_BODY,
+            () -> charge(reservationId, role, email, authHeader));
+    }
+
+    private ResponseEntity<Map<String, Object>> charge(Long reservationId, String role, String email, String authHeader) {
         try {
             Payment payment = paymentService.processPayment(reservationId, role, email, authHeader);
             logger.info("Payment processed successfully: paymentId={}, reservationId={}", payment.getId(), reservationId);
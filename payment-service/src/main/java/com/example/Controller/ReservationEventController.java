@@ -0,0 +1,40 @@
+package com.example.Controller;
+
+import com.example.Service.ReservationReadModel;
+import com.example.client.ReservationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Receives reservation-service's event batches; called by that service, not by users
+@RestController
+@RequestMapping("/payment")
+public class ReservationEventController {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationEventController.class);
+
+    @Autowired
+    private ReservationReadModel reservationReadModel;
+
+    // shared with reservation-service; while blank the endpoint accepts nothing
+    @Value("${payment.reservation-events.token:}")
+    private String token;
+
+    @PostMapping("/reservation-events")
+    public ResponseEntity<Map<String, Object>> receive(
+            @RequestBody List<ReservationEvent> events,
+            @RequestHeader(value = "X-Event-Token", required = false) String eventToken) {
+        if (token.isBlank() || !token.equals(eventToken)) {
+            logger.warn("Rejected reservation events with a missing or wrong token");
+            return new ResponseEntity<>(Map.of("message", "Invalid event token"), HttpStatus.FORBIDDEN);
+        }
+        int applied = reservationReadModel.apply(events);
+        return ResponseEntity.ok(Map.of("received", events.size(), "applied", applied));
+    }
+}
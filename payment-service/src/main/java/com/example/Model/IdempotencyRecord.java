@@ -0,0 +1,66 @@
+package com.example.Model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// First response to a request sent with an Idempotency-Key, kept so retries can be replayed
+// after the in-memory copy has been evicted or the service restarted. The row is inserted as a
+// PENDING claim before the request runs, so instances agree on which of them runs it.
+@Entity
+@Table(indexes = {
+    // serves the purge of expired records
+    @Index(name = "idx_idempotency_created", columnList = "createdAt")
+})
+public class IdempotencyRecord {
+    // status of a claim whose request is still running
+    public static final int PENDING = 0;
+
+    // endpoint scope, caller and client-supplied key
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+    // SHA-256 of the request body, to reject a key reused for a different request
+    @Column(length = 64)
+    private String fingerprint;
+    private int status;
+    @Lob
+    private String body;
+    private Instant createdAt;
+
+    // No-args constructor required by JPA
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String idempotencyKey, String fingerprint, int status, String body, Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.fingerprint = fingerprint;
+        this.status = status;
+        this.body = body;
+        this.createdAt = createdAt;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isPending() {
+        return status == PENDING;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
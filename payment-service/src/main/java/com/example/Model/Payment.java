@@ -11,7 +11,7 @@ import lombok.Data;
 })
 public class Payment {
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     private Long reservationId;
     private String guestName;
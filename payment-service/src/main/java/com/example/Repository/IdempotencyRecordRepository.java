@@ -0,0 +1,49 @@
+package com.example.Repository;
+
+import com.example.Model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claim a key before its request runs. A plain insert, so a key already claimed by this or another
+    // instance fails with a unique-key violation instead of being merged over.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_record (idempotency_key, fingerprint, status, created_at) " +
+                   "VALUES (:key, :fingerprint, " + IdempotencyRecord.PENDING + ", :createdAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("createdAt") Instant createdAt);
+
+    // Store the response of a claimed key
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.body = :body, r.createdAt = :createdAt " +
+           "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body,
+                 @Param("createdAt") Instant createdAt);
+
+    // Give up a claim whose request failed, so a retry runs it for real
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.status = " + IdempotencyRecord.PENDING)
+    int releaseClaim(@Param("key") String key);
+
+    // Drop an expired record or abandoned claim, only if it is still the one that was read
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.createdAt = :createdAt")
+    int deleteIfUnchanged(@Param("key") String key, @Param("createdAt") Instant createdAt);
+
+    // Drop records stored before the cutoff
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
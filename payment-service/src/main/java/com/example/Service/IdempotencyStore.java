@@ -0,0 +1,337 @@
+package com.example.Service;
+
+import com.example.Model.IdempotencyRecord;
+import com.example.Repository.IdempotencyRecordRepository;
+import com.example.exception.AppExceptions;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Makes a write endpoint safe to retry: the first response for an Idempotency-Key is kept and
+// later requests with the same key get that response back without running the action again.
+// Responses live in a bounded in-memory LRU with a TTL, backed by the idempotency_record table
+// for retries that arrive after eviction or a restart. Before the action runs the key is claimed
+// with a PENDING row in that table, so a duplicate that arrives while the first request is still
+// running waits for its result instead of racing it, whichever instance it lands on.
+// 5xx responses and exceptions are not kept, so those requests can be retried for real.
+// reservation-service carries a copy of this class (and of IdempotencyRecord and its repository) that
+// differs only in packages and property prefix; there is no shared module, so change both together.
+@Component
+public class IdempotencyStore {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 200;
+    // how often a duplicate checks whether the instance holding the claim has finished
+    private static final long CLAIM_POLL_MILLIS = 50;
+
+    private record StoredResponse(String fingerprint, int status, String body, long storedAtMillis) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long retentionMillis;
+    private final long waitMillis;
+    private final LongSupplier clockMillis;
+
+    private final LinkedHashMap<String, StoredResponse> completed = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private ScheduledExecutorService purger;
+
+    @Autowired
+    public IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                            @Value("${payment.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${payment.idempotency.ttl-ms:600000}") long ttlMillis,
+                            @Value("${payment.idempotency.retention-ms:86400000}") long retentionMillis,
+                            @Value("${payment.idempotency.wait-ms:10000}") long waitMillis) {
+        this(repository, objectMapper, maxEntries, ttlMillis, retentionMillis, waitMillis, System::currentTimeMillis);
+    }
+
+    IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper, int maxEntries, long ttlMillis,
+                     long retentionMillis, long waitMillis, LongSupplier clockMillis) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.retentionMillis = retentionMillis;
+        this.waitMillis = waitMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    // Drop expired durable records once an hour
+    @PostConstruct
+    public void startPurger() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    // Run the action once per (scope, key); the request is fingerprinted so a key cannot be reused
+    // for a different request. Without a key the action simply runs.
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String scope, Object request,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new AppExceptions.IdempotencyKeyReusedException(
+                "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        StoredResponse stored = lookup(id);
+        if (stored != null) {
+            return replay(id, stored, fingerprint, bodyType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            logger.debug("Waiting for in-flight request with idempotency key {}", id);
+            return replay(id, await(running), fingerprint, bodyType);
+        }
+        try {
+            // the first request may have finished, here or on another instance, since the lookup
+            stored = claim(id, fingerprint);
+            if (stored != null) {
+                mine.complete(stored);
+                return replay(id, stored, fingerprint, bodyType);
+            }
+            ResponseEntity<T> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException e) {
+                releaseClaim(id);
+                throw e;
+            }
+            StoredResponse result = new StoredResponse(fingerprint, response.getStatusCode().value(),
+                toJson(response.getBody()), clockMillis.getAsLong());
+            if (result.status() < 500) {
+                remember(id, result);
+            } else {
+                releaseClaim(id);
+            }
+            mine.complete(result);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    public synchronized int size() {
+        return completed.size();
+    }
+
+    void purgeExpired() {
+        try {
+            int purged = repository.deleteCreatedBefore(Instant.ofEpochMilli(clockMillis.getAsLong() - retentionMillis));
+            logger.debug("Purged {} expired idempotency records", purged);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to purge idempotency records: {}", e.getMessage());
+        }
+    }
+
+    private StoredResponse lookup(String id) {
+        long now = clockMillis.getAsLong();
+        synchronized (this) {
+            StoredResponse cached = completed.get(id);
+            if (cached != null && now - cached.storedAtMillis() < ttlMillis) {
+                return cached;
+            }
+            if (cached != null) {
+                completed.remove(id);
+            }
+        }
+        IdempotencyRecord record = repository.findById(id).orElse(null);
+        if (record == null || record.isPending() || now - record.getCreatedAt().toEpochMilli() >= retentionMillis) {
+            return null;
+        }
+        return cacheDurable(id, record);
+    }
+
+    // Claim the key in the idempotency_record table. Returns null once the claim is ours, or the
+    // response of the request that held it, waiting up to waitMillis for that request to finish.
+    private StoredResponse claim(String id, String fingerprint) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        while (true) {
+            long now = clockMillis.getAsLong();
+            try {
+                repository.claim(id, fingerprint, Instant.ofEpochMilli(now));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("Idempotency key {} is already claimed", id);
+            } catch (RuntimeException e) {
+                // without the table only this instance's in-flight check protects the key
+                logger.warn("Failed to claim idempotency key {}: {}", id, e.getMessage());
+                return null;
+            }
+            IdempotencyRecord record = repository.findById(id).orElse(null);
+            if (record == null) {
+                // the claim was given up in the meantime; try again
+                continue;
+            }
+            long age = now - record.getCreatedAt().toEpochMilli();
+            if (!record.isPending() && age < retentionMillis) {
+                return cacheDurable(id, record);
+            }
+            if (!record.isPending() || age >= ttlMillis) {
+                // an expired response not purged yet, or the claim of an instance that died mid-request
+                logger.info("Taking over stale idempotency record {}", id);
+                repository.deleteIfUnchanged(id, record.getCreatedAt());
+                continue;
+            }
+            if (!record.getFingerprint().equals(fingerprint)) {
+                logger.warn("Idempotency key {} reused for a different request", id);
+                throw new AppExceptions.IdempotencyKeyReusedException(
+                    "Idempotency-Key was already used for a different request");
+            }
+            if (System.nanoTime() > deadline) {
+                throw new AppExceptions.IdempotencyKeyInProgressException(
+                    "A request with this Idempotency-Key is still being processed");
+            }
+            logger.debug("Waiting for idempotency key {} claimed by another instance", id);
+            try {
+                Thread.sleep(CLAIM_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AppExceptions.IdempotencyKeyInProgressException(
+                    "A request with this Idempotency-Key is still being processed");
+            }
+        }
+    }
+
+    private void releaseClaim(String id) {
+        try {
+            repository.releaseClaim(id);
+        } catch (RuntimeException e) {
+            // the claim goes stale after ttlMillis and is taken over then
+            logger.warn("Failed to release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    private StoredResponse cacheDurable(String id, IdempotencyRecord record) {
+        StoredResponse durable = new StoredResponse(record.getFingerprint(), record.getStatus(), record.getBody(),
+            record.getCreatedAt().toEpochMilli());
+        cache(id, durable);
+        return durable;
+    }
+
+    private void remember(String id, StoredResponse response) {
+        cache(id, response);
+        try {
+            Instant storedAt = Instant.ofEpochMilli(response.storedAtMillis());
+            if (repository.complete(id, response.status(), response.body(), storedAt) == 0) {
+                // the key could not be claimed up front
+                repository.save(new IdempotencyRecord(id, response.fingerprint(), response.status(), response.body(),
+                    storedAt));
+            }
+        } catch (RuntimeException e) {
+            // the in-memory copy still covers retries to this instance
+            logger.warn("Failed to persist idempotency record {}: {}", id, e.getMessage());
+        }
+    }
+
+    private synchronized void cache(String id, StoredResponse response) {
+        completed.put(id, response);
+        Iterator<Map.Entry<String, StoredResponse>> eldest = completed.entrySet().iterator();
+        while (completed.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new AppExceptions.IdempotencyKeyInProgressException(
+                "A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppExceptions.IdempotencyKeyInProgressException(
+                "A request with this Idempotency-Key is still being processed");
+        } catch (ExecutionException e) {
+            // the duplicate fails the same way the original did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(String id, StoredResponse stored, String fingerprint, TypeReference<T> bodyType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            logger.warn("Idempotency key {} reused for a different request", id);
+            throw new AppExceptions.IdempotencyKeyReusedException(
+                "Idempotency-Key was already used for a different request");
+        }
+        logger.info("Replaying stored response for idempotency key {}", id);
+        try {
+            T body = objectMapper.readValue(stored.body(), bodyType);
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for " + id + " is not readable", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response body cannot be stored", e);
+        }
+    }
+
+    String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
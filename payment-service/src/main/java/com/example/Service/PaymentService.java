@@ -21,14 +21,17 @@ public class PaymentService {
     private ReservationClient reservationClient;
     @Autowired
     private PaymentRepository paymentRepository;
+    @Autowired
+    private ReservationReadModel reservationReadModel;
 
     public Payment processPayment(Long reservationId, String role, String email, String authHeader) {
         String processedBy = role + " " + email;
         
-        // First check if reservation exists
+        // First check if reservation exists; the local copy answers when it knows the reservation
         Map<String, Object> reservationDetails = null;
         try {
-            reservationDetails = reservationClient.getReservationDetails(reservationId, authHeader, role, email);
+            reservationDetails = reservationReadModel.findDetails(reservationId)
+                .orElseGet(() -> reservationClient.getReservationDetails(reservationId, authHeader, role, email));
             if (reservationDetails == null || reservationDetails.isEmpty()) {
                 logger.error("Reservation not found for ID: {}", reservationId);
                 throw new AppExceptions.ReservationNotFoundException("Reservation not found. Cannot process payment.");
@@ -0,0 +1,62 @@
+package com.example.Service;
+
+import com.example.client.ReservationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local copy of the reservations, fed by reservation-service's events, so a payment can be checked
+// and priced without a call to reservation-service. Events may arrive twice or late: per reservation
+// only the one with the highest event id counts, and a cancellation is kept as a tombstone so an older
+// event cannot bring the reservation back. Reservations not seen since startup are not here; callers
+// fall back to asking reservation-service.
+@Component
+public class ReservationReadModel {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationReadModel.class);
+
+    private final ConcurrentHashMap<Long, ReservationEvent> latest = new ConcurrentHashMap<>();
+
+    // Apply a batch of events; returns how many were newer than what was already known
+    public int apply(List<ReservationEvent> events) {
+        AtomicInteger applied = new AtomicInteger();
+        for (ReservationEvent event : events) {
+            if (event.getReservationId() == null || event.getEventId() == null) {
+                logger.warn("Ignoring reservation event without ids: type={}", event.getType());
+                continue;
+            }
+            latest.compute(event.getReservationId(), (id, current) -> {
+                if (current != null && current.getEventId() >= event.getEventId()) {
+                    return current;
+                }
+                applied.incrementAndGet();
+                return event;
+            });
+        }
+        logger.debug("Applied {} of {} reservation events", applied.get(), events.size());
+        return applied.get();
+    }
+
+    // The reservation in the shape of reservation-service's details response, if it is known and not cancelled
+    public Optional<Map<String, Object>> findDetails(Long reservationId) {
+        ReservationEvent event = latest.get(reservationId);
+        if (event == null || ReservationEvent.CANCELLED.equals(event.getType())) {
+            return Optional.empty();
+        }
+        Map<String, Object> details = new HashMap<>();
+        details.put("reservationId", event.getReservationId());
+        details.put("guestName", event.getGuestName());
+        details.put("roomId", event.getRoomId());
+        details.put("roomNumber", event.getRoomNumber());
+        details.put("checkInDate", event.getCheckInDate());
+        details.put("checkOutDate", event.getCheckOutDate());
+        details.put("totalPrice", event.getTotalPrice());
+        return Optional.of(details);
+    }
+}
@@ -3,8 +3,11 @@ package com.example.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "reservation-service")
@@ -21,4 +24,14 @@ public interface ReservationClient {
     Map<String, Object> getReservationById(
         @PathVariable("reservationId") Long reservationId
     );
+
+    // Details of up to 1000 reservations in one call, body {"reservationIds": [...]}. One entry per distinct id
+    // in request order: guestName, roomNumber, checkInDate, checkOutDate and Price, or an error for that id.
+    @PostMapping("/reservation/details/batch")
+    List<Map<String, Object>> getReservationDetailsBatch(
+        @RequestBody Map<String, List<Long>> request,
+        @RequestHeader("Authorization") String authHeader,
+        @RequestHeader("X-User-Role") String role,
+        @RequestHeader("X-User-Email") String email
+    );
 }
\ No newline at end of file
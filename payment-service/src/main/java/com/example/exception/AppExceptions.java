@@ -10,4 +10,10 @@ public class AppExceptions {
     public static class PaymentVerificationException extends RuntimeException {
         public PaymentVerificationException(String message) { super(message); }
     }
+    public static class IdempotencyKeyReusedException extends RuntimeException {
+        public IdempotencyKeyReusedException(String message) { super(message); }
+    }
+    public static class IdempotencyKeyInProgressException extends RuntimeException {
+        public IdempotencyKeyInProgressException(String message) { super(message); }
+    }
 } 
\ No newline at end of file
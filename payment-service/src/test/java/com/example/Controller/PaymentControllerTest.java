@@ -1,6 +1,8 @@
 package com.example.Controller;
 
 import com.example.Model.Payment;
+import com.example.Repository.IdempotencyRecordRepository;
+import com.example.Service.IdempotencyStore;
 import com.example.Service.PaymentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -17,11 +20,14 @@ import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PaymentController.class)
+@Import(IdempotencyStore.class)
 class PaymentControllerTest {
 
     @Autowired
@@ -33,6 +39,9 @@ class PaymentControllerTest {
     @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     private Payment payment;
     private Map<String, Long> requestBody;
     private final Long RESERVATION_ID = 1L;
@@ -124,4 +133,51 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.message", is("Payment processing failed")))
                 .andExpect(jsonPath("$.status", is("FAILED")));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void processPayment_RetryWithIdempotencyKeyIsReplayed() throws Exception {
+        // Arrange
+        when(paymentService.processPayment(eq(RESERVATION_ID), eq(ROLE), eq(EMAIL), eq(AUTH_HEADER)))
+                .thenReturn(payment);
+
+        // Act & Assert
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/payment/process")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestBody))
+                    .header("X-User-Role", ROLE)
+                    .header("X-User-Email", EMAIL)
+                    .header("Authorization", AUTH_HEADER)
+                    .header("Idempotency-Key", "checkout-7"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.paymentId", is(1)))
+                    .andExpect(jsonPath("$.status", is("SUCCESS")));
+        }
+        verify(paymentService, times(1)).processPayment(eq(RESERVATION_ID), eq(ROLE), eq(EMAIL), eq(AUTH_HEADER));
+    }
+
+    @Test
+    void processPayment_IdempotencyKeyReusedForOtherReservation() throws Exception {
+        // Arrange
+        when(paymentService.processPayment(anyLong(), eq(ROLE), eq(EMAIL), eq(AUTH_HEADER)))
+                .thenReturn(payment);
+        mockMvc.perform(post("/payment/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requestBody))
+                .header("X-User-Role", ROLE)
+                .header("X-User-Email", EMAIL)
+                .header("Authorization", AUTH_HEADER)
+                .header("Idempotency-Key", "checkout-8"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(post("/payment/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("reservationId", 2L)))
+                .header("X-User-Role", ROLE)
+                .header("X-User-Email", EMAIL)
+                .header("Authorization", AUTH_HEADER)
+                .header("Idempotency-Key", "checkout-8"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Controller;
+
+import com.example.Service.ReservationReadModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(value = ReservationEventController.class, properties = "payment.reservation-events.token=secret")
+@Import(ReservationReadModel.class)
+class ReservationEventControllerTest {
+
+    private static final String EVENTS = "[{\"eventId\":5,\"type\":\"ReservationCreated\",\"reservationId\":1,"
+        + "\"guestName\":\"John Doe\",\"checkInDate\":\"2025-12-01\",\"totalPrice\":150.0}]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationReadModel reservationReadModel;
+
+    @Test
+    void receive_AppliesEventsWithTheSharedToken() throws Exception {
+        mockMvc.perform(post("/payment/reservation-events")
+                .header("X-Event-Token", "secret")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(EVENTS))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied", is(1)));
+
+        assertEquals(150.0, reservationReadModel.findDetails(1L).orElseThrow().get("totalPrice"));
+    }
+
+    @Test
+    void receive_WrongToken() throws Exception {
+        mockMvc.perform(post("/payment/reservation-events")
+                .header("X-Event-Token", "guess")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(EVENTS))
+                .andExpect(status().isForbidden());
+    }
+}
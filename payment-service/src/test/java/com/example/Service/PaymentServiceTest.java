@@ -3,14 +3,17 @@ package com.example.Service;
 import com.example.Model.Payment;
 import com.example.Repository.PaymentRepository;
 import com.example.client.ReservationClient;
+import com.example.client.ReservationEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +29,9 @@ class PaymentServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
+    @Spy
+    private ReservationReadModel reservationReadModel = new ReservationReadModel();
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -75,5 +81,24 @@ class PaymentServiceTest {
         verify(paymentRepository).save(any(Payment.class));
     }
 
+    @Test
+    void processPayment_UsesTheLocalCopyOfAKnownReservation() {
+        ReservationEvent created = new ReservationEvent();
+        created.setEventId(10L);
+        created.setType(ReservationEvent.CREATED);
+        created.setReservationId(RESERVATION_ID);
+        created.setGuestName("John Doe");
+        created.setTotalPrice(150.0);
+        reservationReadModel.apply(List.of(created));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Payment result = paymentService.processPayment(RESERVATION_ID, ROLE, EMAIL, AUTH_HEADER);
+
+        assertEquals("John Doe", result.getGuestName());
+        assertEquals(150.0, result.getAmount());
+        assertEquals("SUCCESS", result.getStatus());
+        verifyNoInteractions(reservationClient);
+    }
+
    
 } 
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.Service;
+
+import com.example.client.ReservationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationReadModelTest {
+
+    private final ReservationReadModel readModel = new ReservationReadModel();
+
+    private ReservationEvent event(long eventId, String type, String guestName, double totalPrice) {
+        ReservationEvent event = new ReservationEvent();
+        event.setEventId(eventId);
+        event.setType(type);
+        event.setReservationId(7L);
+        event.setGuestName(guestName);
+        event.setTotalPrice(totalPrice);
+        return event;
+    }
+
+    @Test
+    void testTheNewestEventWinsWhateverOrderTheyArriveIn() {
+        ReservationEvent created = event(1, ReservationEvent.CREATED, "Ann", 160.0);
+        ReservationEvent updated = event(2, ReservationEvent.UPDATED, "Ann Lee", 240.0);
+
+        assertEquals(2, readModel.apply(List.of(created, updated)));
+        // a redelivered older batch changes nothing
+        assertEquals(0, readModel.apply(List.of(created, updated)));
+
+        assertEquals("Ann Lee", readModel.findDetails(7L).orElseThrow().get("guestName"));
+        assertEquals(240.0, readModel.findDetails(7L).orElseThrow().get("totalPrice"));
+        assertTrue(readModel.findDetails(8L).isEmpty());
+    }
+
+    @Test
+    void testCancelledReservationStaysGoneWhenOlderEventsArriveLate() {
+        readModel.apply(List.of(event(3, ReservationEvent.CANCELLED, "Ann", 160.0)));
+        readModel.apply(List.of(event(1, ReservationEvent.CREATED, "Ann", 160.0)));
+
+        assertTrue(readModel.findDetails(7L).isEmpty());
+    }
+}
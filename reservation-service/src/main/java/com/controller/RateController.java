@@ -0,0 +1,79 @@
+package com.controller;
+
+import com.dto.RateRequest;
+import com.service.RateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class RateController {
+    private static final Logger logger = LoggerFactory.getLogger(RateController.class);
+
+    private static final List<String> RATE_MANAGER_ROLES = List.of("OWNER", "MANAGER");
+
+    // dependency injection using constructor injection
+    private final RateService rateService;
+
+    public RateController(RateService rateService) {
+        this.rateService = rateService;
+    }
+
+    // Set the nightly price of a room type for a date range
+    @PutMapping("/rooms/rates/{type}")
+    public ResponseEntity<Map<String, Object>> setRate(
+            @PathVariable String type,
+            @Valid @RequestBody RateRequest request,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        logger.info("Attempting to set {} rate from {} to {}", type, request.getFrom(), request.getTo());
+
+        if (role == null || !RATE_MANAGER_ROLES.contains(role)) {
+            logger.warn("Unauthorized rate change attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER or MANAGER role"), HttpStatus.FORBIDDEN);
+        }
+            rateService.setRate(type, request);
+            logger.info("{} rate set successfully", type);
+            return ResponseEntity.ok(Map.of(
+                "roomType", type,
+                "from", request.getFrom(),
+                "to", request.getTo(),
+                "price", request.getPrice(),
+                "message", "Rate updated"
+            ));
+    }
+
+    // Remove the nightly price overrides of a room type for a date range
+    @DeleteMapping("/rooms/rates/{type}")
+    public ResponseEntity<Map<String, Object>> clearRate(
+            @PathVariable String type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        logger.info("Attempting to clear {} rates from {} to {}", type, from, to);
+
+        if (role == null || !RATE_MANAGER_ROLES.contains(role)) {
+            logger.warn("Unauthorized rate removal attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER or MANAGER role"), HttpStatus.FORBIDDEN);
+        }
+            rateService.clearRate(type, from, to);
+            return ResponseEntity.ok(Map.of("message", "Rates cleared"));
+    }
+
+    // Get the overridden nightly prices of a room type for a date range
+    @GetMapping("/rooms/rates/{type}")
+    public Map<LocalDate, Double> getRates(
+            @PathVariable String type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.debug("Fetching {} rates from {} to {}", type, from, to);
+        return rateService.getRates(type, from, to);
+    }
+}
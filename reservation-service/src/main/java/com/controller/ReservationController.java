@@ -1,39 +1,155 @@
 package com.controller;
 
+import com.dto.AvailableRoom;
+import com.dto.AvailableWindow;
+import com.dto.GroupBookingRequest;
+import com.dto.OccupancyGrid;
+import com.dto.PageResponse;
+import com.dto.Quote;
+import com.dto.QuoteBatchRequest;
+import com.dto.ReservationDetails;
+import com.dto.ReservationDetailsBatchRequest;
 import com.dto.ReservationRequest; 
 import com.dto.RoomRequest;
 import com.model.Reservation;
 import com.model.Room;
+import com.service.AvailabilityCache;
+import com.service.AvailabilityWindowService;
+import com.service.BookingGroupCommitter;
+import com.service.IdempotencyStore;
+import com.service.OccupancyGridService;
+import com.service.QuoteService;
+import com.service.ReservationExporter;
 import com.service.ReservationService;
+import com.service.RoomCacheTags;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @RestController
 public class ReservationController {
     private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
 
+    private static final TypeReference<Map<String, Object>> RESPONSE_BODY = new TypeReference<>() {
+    };
+
     // dependency injection using constructor injection 
     private final ReservationService reservationService;
+    private final BookingGroupCommitter bookingGroupCommitter;
+    private final ReservationExporter reservationExporter;
+    private final AvailabilityCache availabilityCache;
+    private final QuoteService quoteService;
+    private final AvailabilityWindowService availabilityWindowService;
+    private final OccupancyGridService occupancyGridService;
+    private final IdempotencyStore idempotencyStore;
+    private final RoomCacheTags roomCacheTags;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, BookingGroupCommitter bookingGroupCommitter,
+                                 ReservationExporter reservationExporter, AvailabilityCache availabilityCache,
+                                 QuoteService quoteService, AvailabilityWindowService availabilityWindowService,
+                                 OccupancyGridService occupancyGridService, IdempotencyStore idempotencyStore,
+                                 RoomCacheTags roomCacheTags) {
         this.reservationService = reservationService;
+        this.bookingGroupCommitter = bookingGroupCommitter;
+        this.reservationExporter = reservationExporter;
+        this.availabilityCache = availabilityCache;
+        this.quoteService = quoteService;
+        this.availabilityWindowService = availabilityWindowService;
+        this.occupancyGridService = occupancyGridService;
+        this.idempotencyStore = idempotencyStore;
+        this.roomCacheTags = roomCacheTags;
     }
 
     // Get all available rooms for a given date range 
     @GetMapping("/public/rooms/available")
-    public List<Room> getAvailableRooms(
+    public ResponseEntity<List<Room>> getAvailableRooms(
         @RequestParam LocalDate checkIn,
-        @RequestParam LocalDate checkOut) {
+        @RequestParam LocalDate checkOut,
+        WebRequest webRequest) {
         logger.debug("Fetching available rooms for check-in: {} and check-out: {}", checkIn, checkOut);
-        return reservationService.findAvailableRooms(checkIn, checkOut);
+        return conditionalGet(webRequest, roomCacheTags.availability(), roomCacheTags.publicCacheControl(),
+            () -> reservationService.findAvailableRooms(checkIn, checkOut));
+    }
+    
+    // Number of free rooms of each type for a date range, e.g. {"Double": 3, "Suite": 0}
+    @GetMapping("/public/rooms/availability-by-type")
+    public ResponseEntity<Map<String, Integer>> getAvailabilityByType(
+        @RequestParam LocalDate checkIn,
+        @RequestParam LocalDate checkOut,
+        WebRequest webRequest) {
+        logger.debug("Counting available rooms by type for check-in: {} and check-out: {}", checkIn, checkOut);
+        return conditionalGet(webRequest, roomCacheTags.availability(), roomCacheTags.publicCacheControl(),
+            () -> reservationService.findAvailabilityByType(checkIn, checkOut));
+    }
+    
+    // Search free rooms for a date range in the database, optionally filtered by type and price band
+    @GetMapping("/public/rooms/search")
+    public ResponseEntity<List<AvailableRoom>> searchAvailableRooms(
+        @RequestParam LocalDate checkIn,
+        @RequestParam LocalDate checkOut,
+        @RequestParam(required = false) String type,
+        @RequestParam(required = false) Double minPrice,
+        @RequestParam(required = false) Double maxPrice,
+        WebRequest webRequest) {
+        logger.debug("Searching available rooms for check-in: {} and check-out: {}", checkIn, checkOut);
+        return conditionalGet(webRequest, roomCacheTags.availability(), roomCacheTags.publicCacheControl(),
+            () -> reservationService.searchAvailableRooms(checkIn, checkOut, type, minPrice, maxPrice));
+    }
+    
+    // Earliest windows of the given number of consecutive free nights, e.g. the next 4-night gap in any Suite
+    @GetMapping("/public/rooms/next-available")
+    public ResponseEntity<List<AvailableWindow>> getNextAvailable(
+        @RequestParam(required = false) String type,
+        @RequestParam int nights,
+        @RequestParam(required = false) LocalDate from,
+        @RequestParam(defaultValue = "" + AvailabilityWindowService.DEFAULT_HORIZON_DAYS) int horizonDays,
+        @RequestParam(defaultValue = "" + AvailabilityWindowService.DEFAULT_LIMIT) int limit) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        logger.debug("Finding next available {} nights from {} (type: {})", nights, start, type);
+        // no ETag here: without a start date the answer also moves on with the calendar
+        return ResponseEntity.ok().cacheControl(roomCacheTags.publicCacheControl())
+            .body(availabilityWindowService.findNextAvailable(type, nights, start, horizonDays, limit));
+    }
+    
+    // Price many stays at once; each item names a roomId or a type (priced at its cheapest room).
+    // Items that cannot be priced come back with an error instead of failing the whole batch.
+    @PostMapping("/public/rooms/quotes")
+    public List<Quote> getQuotes(@Valid @RequestBody QuoteBatchRequest request) {
+        logger.debug("Pricing a batch of {} quotes", request.getQuotes().size());
+        return quoteService.quote(request.getQuotes());
+    }
+    
+    // Hit, miss and eviction counters of the availability cache, for sizing it
+    @GetMapping("/rooms/availability-cache/stats")
+    public ResponseEntity<Map<String, Object>> getAvailabilityCacheStats(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        List<String> allowedRoles = List.of("OWNER", "MANAGER");
+        if (role == null || !allowedRoles.contains(role)) {
+            logger.warn("Unauthorized access attempt to availability cache stats by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER or MANAGER role"), HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(availabilityCache.stats());
     }
     
     // Book a room for a guest
@@ -41,7 +157,8 @@ public class ReservationController {
     public ResponseEntity<Map<String, Object>> bookRoom(
             @Valid @RequestBody ReservationRequest request,
             @RequestHeader(value = "X-User-Email", required = false) String email,
-            @RequestHeader(value = "X-User-Role", required = false) String role) {
+            @RequestHeader(value = "X-User-Role", required = false) String role,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         logger.info("Attempting to book room with request: {}", request);
         
         if (email == null || role == null) {
@@ -54,8 +171,12 @@ public class ReservationController {
             logger.warn("Unauthorized booking attempt by role: {}", role);
             return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
         }
-            // create a new reservation object to store in the database
-            Reservation reservation = reservationService.createBooking(request, email);
+        // a retried request with the same Idempotency-Key gets the first response back instead of booking again
+        return idempotencyStore.execute(idempotencyKey, "book:" + email, request, RESPONSE_BODY, () -> {
+            // create a new reservation object to store in the database, group committed under burst load when enabled
+            Reservation reservation = bookingGroupCommitter.isEnabled()
+                ? bookingGroupCommitter.book(request, email)
+                : reservationService.createBooking(request, email);
             logger.info("Room successfully booked by {} (role: {})", email, role);
             return ResponseEntity.ok(Map.of(
                 "status", "BOOKED",
@@ -67,6 +188,51 @@ public class ReservationController {
                 "Price", reservationService.calculateTotalPrice(reservation),
                 "message", "Room booked by " + role + " " + email
             ));
+        });
+    }
+
+    // Book a block of rooms (weddings, conferences) in one all-or-nothing request
+    @PostMapping("/reservation/book/batch")
+    public ResponseEntity<Map<String, Object>> bookRooms(
+            @Valid @RequestBody GroupBookingRequest request,
+            @RequestHeader(value = "X-User-Email", required = false) String email,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        logger.info("Attempting group booking of {} rooms", request.getReservations().size());
+        
+        if (email == null || role == null) {
+            logger.warn("Missing user email or role in group booking request");
+            return new ResponseEntity<>(Map.of("message", "Missing user email or role"), HttpStatus.BAD_REQUEST);
+        }
+
+        List<String> allowedRoles = List.of("OWNER", "MANAGER", "RECEPTIONIST");
+        if (!allowedRoles.contains(role)) {
+            logger.warn("Unauthorized group booking attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
+        }
+            List<Reservation> reservations = reservationService.createGroupBooking(request.getReservations(), email);
+            
+            List<Map<String, Object>> booked = new ArrayList<>();
+            double totalPrice = 0;
+            for (Reservation reservation : reservations) {
+                double price = reservationService.calculateTotalPrice(reservation);
+                totalPrice += price;
+                // the block is already committed here, so a missing guest name must not turn into a 500
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("reservationId", reservation.getId());
+                entry.put("guestName", reservation.getGuestName());
+                entry.put("roomNumber", reservation.getRoom().getRoomNumber());
+                entry.put("checkInDate", reservation.getCheckInDate());
+                entry.put("checkOutDate", reservation.getCheckOutDate());
+                entry.put("Price", price);
+                booked.add(entry);
+            }
+            logger.info("{} rooms successfully booked by {} (role: {})", reservations.size(), email, role);
+            return ResponseEntity.ok(Map.of(
+                "status", "BOOKED",
+                "reservations", booked,
+                "totalPrice", totalPrice,
+                "message", reservations.size() + " rooms booked by " + role + " " + email
+            ));
     }
 
     // Add a new room to the database
@@ -85,9 +251,10 @@ public class ReservationController {
     
     // Get room details by ID
     @GetMapping("/rooms/{id}")
-    public ResponseEntity<RoomRequest> getRoomById(@PathVariable Long id) {
+    public ResponseEntity<RoomRequest> getRoomById(@PathVariable Long id, WebRequest webRequest) {
         logger.debug("Fetching room details for ID: {}", id);
-        return ResponseEntity.ok(reservationService.getRoomById(id));
+        return conditionalGet(webRequest, roomCacheTags.rooms(), roomCacheTags.staffCacheControl(),
+            () -> reservationService.getRoomById(id));
     }
     // Update room details 
     @PutMapping("/rooms/{id}")
@@ -109,7 +276,7 @@ public class ReservationController {
     
     // Update reservation details
     @PutMapping("/reservation/{id}")
-    public ResponseEntity<ReservationRequest> updateReservation(@PathVariable Long id, @RequestBody ReservationRequest request) {
+    public ResponseEntity<ReservationRequest> updateReservation(@PathVariable Long id, @Valid @RequestBody ReservationRequest request) {
         logger.info("Attempting to update reservation with ID: {}", id);
             ReservationRequest updatedReservation = reservationService.updateReservation(id, request);
             logger.info("Reservation successfully updated with ID: {}", id);
@@ -138,37 +305,188 @@ public class ReservationController {
             return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
         }
 
-            Reservation reservation = reservationService.findById(reservationId);
-            if (reservation == null) {
+            ReservationDetails details = reservationService.getReservationDetails(reservationId).orElse(null);
+            if (details == null) {
                 logger.warn("Reservation not found with ID: {}", reservationId);
                 return new ResponseEntity<>(Map.of("message", "Reservation not found"), HttpStatus.NOT_FOUND);
             }
 
-            if (reservation.getRoom() == null) {
+            if (details.getRoomId() == null) {
                 logger.warn("No room assigned to reservation with ID: {}", reservationId);
                 return new ResponseEntity<>(Map.of("message", "No room assigned to reservation"), HttpStatus.BAD_REQUEST);
             }
 
-            double price = reservationService.calculateTotalPrice(reservation);
+            double price = reservationService.calculateTotalPrice(details);
             logger.info("Successfully retrieved reservation details for ID: {}", reservationId);
             return ResponseEntity.ok(Map.of(
-                "guestName", reservation.getGuestName(),
-                "roomNumber", reservation.getRoom().getRoomNumber(),
+                "guestName", details.getGuestName(),
+                "roomNumber", details.getRoomNumber(),
                 "Price", price
             ));
     }
     
-    // Get all reservations
+    // Details of many reservations in one call, for settlement and reporting jobs. One entry per distinct id
+    // in request order; ids that are unknown or have no room come back with an error instead of failing the batch.
+    @PostMapping("/reservation/details/batch")
+    public ResponseEntity<?> getReservationDetailsBatch(
+            @Valid @RequestBody ReservationDetailsBatchRequest request,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        logger.info("Fetching reservation details for {} IDs", request.getReservationIds().size());
+        
+        List<String> allowedRoles = List.of("OWNER", "MANAGER", "RECEPTIONIST");
+        if (role == null || !allowedRoles.contains(role)) {
+            logger.warn("Unauthorized access attempt to reservation details by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
+        }
+        
+        Set<Long> ids = new LinkedHashSet<>(request.getReservationIds());
+        Map<Long, ReservationDetails> found = reservationService.getReservationDetails(ids).stream()
+            .collect(Collectors.toMap(ReservationDetails::getId, Function.identity()));
+        
+        List<Map<String, Object>> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ReservationDetails details = found.get(id);
+            if (details == null) {
+                results.add(Map.of("reservationId", id, "error", "Reservation not found"));
+            } else if (details.getRoomId() == null) {
+                results.add(Map.of("reservationId", id, "error", "No room assigned to reservation"));
+            } else {
+                // one reservation with a missing guest name must not fail the whole batch
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("reservationId", id);
+                entry.put("guestName", details.getGuestName());
+                entry.put("roomNumber", details.getRoomNumber());
+                entry.put("checkInDate", details.getCheckInDate());
+                entry.put("checkOutDate", details.getCheckOutDate());
+                entry.put("Price", reservationService.calculateTotalPrice(details));
+                results.add(entry);
+            }
+        }
+        logger.info("Returned details for {} of {} reservations", found.size(), ids.size());
+        return ResponseEntity.ok(results);
+    }
+    
+    // Get reservations a page at a time, or the whole table as one array when unpaged=true
     @GetMapping("/reservation/all")
-    public ResponseEntity<List<ReservationRequest>> getAllReservation() {
-        logger.debug("Fetching all reservations");
-        return ResponseEntity.ok(reservationService.getAllReservations());
+    public ResponseEntity<?> getAllReservation(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + ReservationService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            logger.debug("Fetching all reservations");
+            return ResponseEntity.ok(reservationService.getAllReservations());
+        }
+        logger.debug("Fetching {} reservations after id {}", size, after);
+        PageResponse<ReservationRequest> page = reservationService.getReservationsPage(after, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    // Dashboard totals: rooms, occupancy tonight, arrivals and departures today, reservations by status
+    @GetMapping("/reservation/stats")
+    public Map<String, Object> getStats() {
+        logger.debug("Fetching reservation stats");
+        return reservationService.getStats();
+    }
+    
+    // How far the database is behind the booking sequencer's journal, and how many entries it refused
+    @GetMapping("/reservation/sequencer/stats")
+    public ResponseEntity<Map<String, Object>> getSequencerStats(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        List<String> allowedRoles = List.of("OWNER", "MANAGER");
+        if (role == null || !allowedRoles.contains(role)) {
+            logger.warn("Unauthorized access attempt to sequencer stats by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER or MANAGER role"), HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(reservationService.getSequencerStats());
+    }
+    
+    // Recount the dashboard totals from the database, e.g. after rows were changed outside the service
+    @PostMapping("/reservation/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStats(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        List<String> allowedRoles = List.of("OWNER", "MANAGER");
+        if (role == null || !allowedRoles.contains(role)) {
+            logger.warn("Unauthorized stats rebuild attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER or MANAGER role"), HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(reservationService.rebuildStats());
+    }
+    
+    // Rooms-by-nights occupancy for the dashboard heatmap, one bitset (or run-length) row per room
+    @GetMapping("/reservation/occupancy-grid")
+    public ResponseEntity<?> getOccupancyGrid(
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(defaultValue = "" + OccupancyGridService.DEFAULT_DAYS) int days,
+            @RequestParam(defaultValue = OccupancyGrid.BITSET) String encoding,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        List<String> allowedRoles = List.of("OWNER", "MANAGER", "RECEPTIONIST");
+        if (role == null || !allowedRoles.contains(role)) {
+            logger.warn("Unauthorized occupancy grid request by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
+        }
+        LocalDate start = from != null ? from : LocalDate.now();
+        logger.debug("Fetching occupancy grid for {} days from {}", days, start);
+        return ResponseEntity.ok(occupancyGridService.buildGrid(start, days, encoding));
     }
     
-    // Get all rooms
+    // Stream reservations as newline-delimited JSON for audit and reporting jobs
+    @GetMapping("/reservation/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        logger.info("Reservation export requested by role {} (from: {}, to: {}, status: {})", role, from, to, status);
+        
+        List<String> allowedRoles = List.of("OWNER", "MANAGER", "RECEPTIONIST");
+        if (role == null || !allowedRoles.contains(role)) {
+            logger.warn("Unauthorized reservation export attempt by role: {}", role);
+            return messageResponse(HttpStatus.FORBIDDEN, "Requires OWNER, MANAGER, or RECEPTIONIST role");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            return messageResponse(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+
+        StreamingResponseBody body = out -> reservationExporter.writeNdjson(from, to, status, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
+    // Streaming endpoints cannot return a Map, so their error messages are written as JSON directly
+    private static ResponseEntity<StreamingResponseBody> messageResponse(HttpStatus status, String message) {
+        byte[] json = ("{\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> out.write(json));
+    }
+    
+    // Get rooms a page at a time, or the whole table as one array when unpaged=true
     @GetMapping("/rooms/all")
-    public List<Room> getAllRooms() {
-        logger.info("Fetching all rooms");
-        return reservationService.getAllRooms();
+    public ResponseEntity<?> getAllRooms(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + ReservationService.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            WebRequest webRequest) {
+        if (unpaged) {
+            logger.info("Fetching all rooms");
+            return conditionalGet(webRequest, roomCacheTags.rooms(), roomCacheTags.staffCacheControl(),
+                reservationService::getAllRooms);
+        }
+        logger.info("Fetching {} rooms after id {}", size, after);
+        return conditionalGet(webRequest, roomCacheTags.rooms(), roomCacheTags.staffCacheControl(),
+            () -> reservationService.getRoomsPage(after, size));
+    }
+    
+    // Answer 304 when the client already holds the response tagged etag, without building it;
+    // otherwise build it and send it with the tag. The tag is taken before the body is built, so a
+    // change in between only makes the client ask again.
+    private static <T> ResponseEntity<T> conditionalGet(WebRequest webRequest, String etag, CacheControl cacheControl,
+                                                        Supplier<T> body) {
+        if (webRequest.checkNotModified(etag)) {
+            logger.debug("Not modified since {}", etag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
     }
 }
\ No newline at end of file
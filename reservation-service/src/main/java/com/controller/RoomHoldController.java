@@ -0,0 +1,94 @@
+package com.controller;
+
+import com.dto.HoldRequest;
+import com.dto.ReservationRequest;
+import com.dto.RoomHold;
+import com.model.Reservation;
+import com.service.ReservationService;
+import com.service.RoomHoldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public class RoomHoldController {
+    private static final Logger logger = LoggerFactory.getLogger(RoomHoldController.class);
+
+    private static final List<String> BOOKING_ROLES = List.of("OWNER", "MANAGER", "RECEPTIONIST");
+
+    // dependency injection using constructor injection
+    private final RoomHoldService roomHoldService;
+    private final ReservationService reservationService;
+
+    public RoomHoldController(RoomHoldService roomHoldService, ReservationService reservationService) {
+        this.roomHoldService = roomHoldService;
+        this.reservationService = reservationService;
+    }
+
+    // Keep a room aside for a stay for a short time, e.g. while the guest pays
+    @PostMapping("/reservation/hold")
+    public ResponseEntity<?> placeHold(
+            @Valid @RequestBody HoldRequest request,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (role == null || !BOOKING_ROLES.contains(role)) {
+            logger.warn("Unauthorized hold attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
+        }
+        RoomHold hold = roomHoldService.placeHold(request);
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    // Look up a hold that has not expired yet
+    @GetMapping("/reservation/hold/{holdId}")
+    public RoomHold getHold(@PathVariable String holdId) {
+        return roomHoldService.getHold(holdId);
+    }
+
+    // Give a held room back before its hold runs out
+    @DeleteMapping("/reservation/hold/{holdId}")
+    public ResponseEntity<Map<String, String>> releaseHold(
+            @PathVariable String holdId,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (role == null || !BOOKING_ROLES.contains(role)) {
+            logger.warn("Unauthorized hold release attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
+        }
+        roomHoldService.releaseHold(holdId);
+        return ResponseEntity.ok(Map.of("message", "Hold released"));
+    }
+
+    // Book the held room for the guest; room and dates come from the hold
+    @PostMapping("/reservation/hold/{holdId}/book")
+    public ResponseEntity<Map<String, Object>> bookHold(
+            @PathVariable String holdId,
+            @Valid @RequestBody ReservationRequest guest,
+            @RequestHeader(value = "X-User-Email", required = false) String email,
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (email == null || role == null) {
+            logger.warn("Missing user email or role in hold booking request");
+            return new ResponseEntity<>(Map.of("message", "Missing user email or role"), HttpStatus.BAD_REQUEST);
+        }
+        if (!BOOKING_ROLES.contains(role)) {
+            logger.warn("Unauthorized hold booking attempt by role: {}", role);
+            return new ResponseEntity<>(Map.of("message", "Requires OWNER, MANAGER, or RECEPTIONIST role"), HttpStatus.FORBIDDEN);
+        }
+        Reservation reservation = roomHoldService.bookHold(holdId, guest, email);
+        logger.info("Hold {} booked by {} (role: {})", holdId, email, role);
+        return ResponseEntity.ok(Map.of(
+            "status", "BOOKED",
+            "reservationId", reservation.getId(),
+            "guestName", reservation.getGuestName(),
+            "roomNumber", reservation.getRoom().getRoomNumber(),
+            "checkInDate", reservation.getCheckInDate(),
+            "checkOutDate", reservation.getCheckOutDate(),
+            "Price", reservationService.calculateTotalPrice(reservation),
+            "message", "Room booked by " + role + " " + email
+        ));
+    }
+}
@@ -0,0 +1,36 @@
+package com.controller;
+
+import com.service.RoomStatusBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class RoomStreamController {
+    private static final Logger logger = LoggerFactory.getLogger(RoomStreamController.class);
+
+    // dependency injection using constructor injection
+    private final RoomStatusBroadcaster roomStatusBroadcaster;
+
+    public RoomStreamController(RoomStatusBroadcaster roomStatusBroadcaster) {
+        this.roomStatusBroadcaster = roomStatusBroadcaster;
+    }
+
+    // Live room board: a "snapshot" event with every room, then booked, released,
+    // room-updated and room-deleted events as they happen
+    @GetMapping(value = "/rooms/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRooms() {
+        logger.debug("Opening room status stream");
+        SseEmitter emitter = roomStatusBroadcaster.subscribe();
+        if (emitter == null) {
+            // an event stream has no room for an error body; clients back off and reconnect
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
@@ -0,0 +1,32 @@
+package com.dto;
+
+// Lightweight view of a free room returned by the availability search
+public class AvailableRoom {
+    private final Long id;
+    private final String roomNumber;
+    private final String type;
+    private final double price;
+
+    public AvailableRoom(Long id, String roomNumber, String type, double price) {
+        this.id = id;
+        this.roomNumber = roomNumber;
+        this.type = type;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
@@ -0,0 +1,40 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+// Earliest stay of the requested length that one room can take
+public class AvailableWindow {
+    private final Long roomId;
+    private final String roomNumber;
+    private final String type;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+
+    public AvailableWindow(Long roomId, String roomNumber, String type, LocalDate checkIn, LocalDate checkOut) {
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.type = type;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+}
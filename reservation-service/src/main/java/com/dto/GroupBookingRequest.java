@@ -0,0 +1,29 @@
+package com.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class GroupBookingRequest {
+    // one entry per room in the block
+    @NotEmpty
+    @Size(max = 500)
+    private List<@Valid ReservationRequest> reservations;
+
+    public GroupBookingRequest() {
+    }
+
+    public GroupBookingRequest(List<ReservationRequest> reservations) {
+        this.reservations = reservations;
+    }
+
+    public List<ReservationRequest> getReservations() {
+        return reservations;
+    }
+
+    public void setReservations(List<ReservationRequest> reservations) {
+        this.reservations = reservations;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class HoldRequest {
+    @NotNull
+    private Long roomId;
+    @NotNull
+    private LocalDate checkInDate;
+    @NotNull
+    private LocalDate checkOutDate;
+    // how long the hold lasts; the configured default when absent
+    @Positive
+    private Integer ttlSeconds;
+
+    public HoldRequest() {
+    }
+
+    public HoldRequest(Long roomId, LocalDate checkInDate, LocalDate checkOutDate, Integer ttlSeconds) {
+        this.roomId = roomId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(LocalDate checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(LocalDate checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public Integer getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Integer ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+}
@@ -0,0 +1,87 @@
+package com.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Rooms-by-nights occupancy for the dashboard heatmap.
+// Each row carries exactly one of:
+//  - bits: base64 of ceil(days / 8) bytes, byte k holding nights 8k..8k+7 with the lowest bit first,
+//    a set bit meaning the night is booked
+//  - runs: alternating free/booked run lengths starting with a (possibly empty) free run
+public class OccupancyGrid {
+    public static final String BITSET = "bitset";
+    public static final String RLE = "rle";
+
+    private final LocalDate from;
+    private final int days;
+    private final String encoding;
+    private final List<Row> rooms;
+
+    public OccupancyGrid(LocalDate from, int days, String encoding, List<Row> rooms) {
+        this.from = from;
+        this.days = days;
+        this.encoding = encoding;
+        this.rooms = rooms;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public List<Row> getRooms() {
+        return rooms;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Row {
+        private final Long id;
+        private final String roomNumber;
+        private final String type;
+        private final int bookedNights;
+        private final String bits;
+        private final int[] runs;
+
+        public Row(Long id, String roomNumber, String type, int bookedNights, String bits, int[] runs) {
+            this.id = id;
+            this.roomNumber = roomNumber;
+            this.type = type;
+            this.bookedNights = bookedNights;
+            this.bits = bits;
+            this.runs = runs;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getRoomNumber() {
+            return roomNumber;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getBookedNights() {
+            return bookedNights;
+        }
+
+        public String getBits() {
+            return bits;
+        }
+
+        public int[] getRuns() {
+            return runs;
+        }
+    }
+}
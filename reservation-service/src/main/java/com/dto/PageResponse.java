@@ -0,0 +1,44 @@
+package com.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated listing.
+// "next" is the cursor to pass back as "after" for the following page, or null on the last page.
+public class PageResponse<T> {
+    private List<T> items;
+    private Long next;
+    private int size;
+
+    public PageResponse() {
+    }
+
+    public PageResponse(List<T> items, Long next) {
+        this.items = items;
+        this.next = next;
+        this.size = items.size();
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public Long getNext() {
+        return next;
+    }
+
+    public void setNext(Long next) {
+        this.next = next;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,68 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Price answer for one QuoteRequest, in the same position as the question.
+// Either total is set, or error explains why the stay could not be priced.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Quote {
+    private final Long roomId;
+    private final String roomNumber;
+    private final String type;
+    private final LocalDate checkIn;
+    private final LocalDate checkOut;
+    private final Long nights;
+    private final Double total;
+    private final String error;
+
+    public Quote(Long roomId, String roomNumber, String type, LocalDate checkIn, LocalDate checkOut,
+                 Long nights, Double total, String error) {
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.type = type;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.nights = nights;
+        this.total = total;
+        this.error = error;
+    }
+
+    public static Quote error(QuoteRequest request, String error) {
+        return new Quote(request.getRoomId(), null, request.getType(), request.getCheckIn(), request.getCheckOut(),
+            null, null, error);
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    public Long getNights() {
+        return nights;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class QuoteBatchRequest {
+    // one entry per cell of the results grid
+    @NotEmpty
+    @Size(max = 10000)
+    private List<QuoteRequest> quotes;
+
+    public QuoteBatchRequest() {
+    }
+
+    public QuoteBatchRequest(List<QuoteRequest> quotes) {
+        this.quotes = quotes;
+    }
+
+    public List<QuoteRequest> getQuotes() {
+        return quotes;
+    }
+
+    public void setQuotes(List<QuoteRequest> quotes) {
+        this.quotes = quotes;
+    }
+}
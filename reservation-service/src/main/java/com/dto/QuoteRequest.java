@@ -0,0 +1,53 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+// One price question: a specific room, or the cheapest room of a type, for a stay
+public class QuoteRequest {
+    private Long roomId;
+    private String type;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    public QuoteRequest() {
+    }
+
+    public QuoteRequest(Long roomId, String type, LocalDate checkIn, LocalDate checkOut) {
+        this.roomId = roomId;
+        this.type = type;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(Long roomId) {
+        this.roomId = roomId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
+}
@@ -0,0 +1,49 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+// Nightly price for a room type over the nights [from, to)
+public class RateRequest {
+    @NotNull
+    private LocalDate from;
+    @NotNull
+    private LocalDate to;
+    @Positive
+    private double price;
+
+    public RateRequest() {
+    }
+
+    public RateRequest(LocalDate from, LocalDate to, double price) {
+        this.from = from;
+        this.to = to;
+        this.price = price;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,60 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+// What the details endpoint needs of a reservation and its room, read in one query.
+// The room columns are null when the reservation has no room.
+public class ReservationDetails {
+    private final Long id;
+    private final String guestName;
+    private final Long roomId;
+    private final String roomNumber;
+    private final String roomType;
+    private final Double pricePerNight;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
+    public ReservationDetails(Long id, String guestName, Long roomId, String roomNumber, String roomType,
+                              Double pricePerNight, LocalDate checkInDate, LocalDate checkOutDate) {
+        this.id = id;
+        this.guestName = guestName;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.roomType = roomType;
+        this.pricePerNight = pricePerNight;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getGuestName() {
+        return guestName;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public Double getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+}
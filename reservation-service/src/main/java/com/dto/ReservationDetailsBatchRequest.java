@@ -0,0 +1,29 @@
+package com.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class ReservationDetailsBatchRequest {
+    // looked up with a single IN query, hence the cap
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> reservationIds;
+
+    public ReservationDetailsBatchRequest() {
+    }
+
+    public ReservationDetailsBatchRequest(List<Long> reservationIds) {
+        this.reservationIds = reservationIds;
+    }
+
+    public List<Long> getReservationIds() {
+        return reservationIds;
+    }
+
+    public void setReservationIds(List<Long> reservationIds) {
+        this.reservationIds = reservationIds;
+    }
+}
@@ -0,0 +1,112 @@
+package com.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// A reservation lifecycle change as published from the outbox. Carries the reservation as it was
+// after the change (before it, for a cancellation), so consumers can keep their own copy.
+// eventId is the outbox id: it grows with every event and is repeated when a batch is redelivered.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationEvent {
+    public static final String CREATED = "ReservationCreated";
+    public static final String UPDATED = "ReservationUpdated";
+    public static final String CANCELLED = "ReservationCancelled";
+
+    private final Long eventId;
+    private final String type;
+    private final Long reservationId;
+    private final Long roomId;
+    private final String roomNumber;
+    private final String guestName;
+    private final String guestEmail;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final String status;
+    private final Double totalPrice;
+    private final Instant occurredAt;
+
+    @JsonCreator
+    public ReservationEvent(@JsonProperty("eventId") Long eventId,
+                            @JsonProperty("type") String type,
+                            @JsonProperty("reservationId") Long reservationId,
+                            @JsonProperty("roomId") Long roomId,
+                            @JsonProperty("roomNumber") String roomNumber,
+                            @JsonProperty("guestName") String guestName,
+                            @JsonProperty("guestEmail") String guestEmail,
+                            @JsonProperty("checkInDate") LocalDate checkInDate,
+                            @JsonProperty("checkOutDate") LocalDate checkOutDate,
+                            @JsonProperty("status") String status,
+                            @JsonProperty("totalPrice") Double totalPrice,
+                            @JsonProperty("occurredAt") Instant occurredAt) {
+        this.eventId = eventId;
+        this.type = type;
+        this.reservationId = reservationId;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.guestName = guestName;
+        this.guestEmail = guestEmail;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.status = status;
+        this.totalPrice = totalPrice;
+        this.occurredAt = occurredAt;
+    }
+
+    // The same event stamped with its outbox id
+    public ReservationEvent withEventId(Long eventId) {
+        return new ReservationEvent(eventId, type, reservationId, roomId, roomNumber, guestName, guestEmail,
+            checkInDate, checkOutDate, status, totalPrice, occurredAt);
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getGuestName() {
+        return guestName;
+    }
+
+    public String getGuestEmail() {
+        return guestEmail;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
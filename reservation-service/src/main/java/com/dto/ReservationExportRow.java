@@ -0,0 +1,59 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+// One line of the NDJSON reservation export, projected straight from the query
+public class ReservationExportRow {
+    private final Long id;
+    private final String guestName;
+    private final String guestEmail;
+    private final Long roomId;
+    private final String roomNumber;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final String status;
+
+    public ReservationExportRow(Long id, String guestName, String guestEmail, Long roomId, String roomNumber,
+                                LocalDate checkInDate, LocalDate checkOutDate, String status) {
+        this.id = id;
+        this.guestName = guestName;
+        this.guestEmail = guestEmail;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getGuestName() {
+        return guestName;
+    }
+
+    public String getGuestEmail() {
+        return guestEmail;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+}
@@ -1,5 +1,6 @@
 package com.dto;
 
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -61,7 +62,10 @@ public class ReservationRequest {
 		this.checkOutDate = checkOutDate;
 	}
 	private Long id;
+    // as long as the reservation table's columns allow
+    @Size(max = 255)
     private String guestName;
+    @Size(max = 255)
     private String guestEmail;
     private Long roomId;
     private LocalDate checkInDate;
@@ -0,0 +1,41 @@
+package com.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A room kept aside for a stay until expiresAt, e.g. while the guest pays
+public class RoomHold {
+    private final String holdId;
+    private final Long roomId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+    private final Instant expiresAt;
+
+    public RoomHold(String holdId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate, Instant expiresAt) {
+        this.holdId = holdId;
+        this.roomId = roomId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
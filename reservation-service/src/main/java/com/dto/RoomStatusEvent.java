@@ -0,0 +1,69 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One room's current status on the live room board.
+// change says what last happened to the room; from/to are the nights of the last booking change.
+// Events for the same room may be coalesced, in which case only the latest is delivered.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomStatusEvent {
+    public static final String BOOKED = "booked";
+    public static final String RELEASED = "released";
+    public static final String ROOM_UPDATED = "room-updated";
+    public static final String ROOM_DELETED = "room-deleted";
+
+    private final String change;
+    private final Long roomId;
+    private final String roomNumber;
+    private final String type;
+    private final Double price;
+    private final Boolean occupiedTonight;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    public RoomStatusEvent(String change, Long roomId, String roomNumber, String type, Double price,
+                           Boolean occupiedTonight, LocalDate from, LocalDate to) {
+        this.change = change;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.type = type;
+        this.price = price;
+        this.occupiedTonight = occupiedTonight;
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getChange() {
+        return change;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Boolean getOccupiedTonight() {
+        return occupiedTonight;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dto;
+
+import java.time.LocalDate;
+
+// The nights one room is taken by an existing reservation; all the overlap check reads
+public class StayPeriod {
+    private final Long roomId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
+    public StayPeriod(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        this.roomId = roomId;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+    }
+
+    public Long getRoomId() {
+        return roomId;
+    }
+
+    public LocalDate getCheckInDate() {
+        return checkInDate;
+    }
+
+    public LocalDate getCheckOutDate() {
+        return checkOutDate;
+    }
+}
@@ -16,4 +16,28 @@ public class AppExceptions {
     public static class ActiveReservationsException extends RuntimeException {
         public ActiveReservationsException(String message) { super(message); }
     }
-} 
\ No newline at end of file
+    public static class InvalidBookingException extends RuntimeException {
+        public InvalidBookingException(String message) { super(message); }
+    }
+    public static class InvalidPageRequestException extends RuntimeException {
+        public InvalidPageRequestException(String message) { super(message); }
+    }
+    public static class InvalidRateException extends RuntimeException {
+        public InvalidRateException(String message) { super(message); }
+    }
+    public static class HoldNotFoundException extends RuntimeException {
+        public HoldNotFoundException(String message) { super(message); }
+    }
+    public static class IdempotencyKeyReusedException extends RuntimeException {
+        public IdempotencyKeyReusedException(String message) { super(message); }
+    }
+    public static class IdempotencyKeyInProgressException extends RuntimeException {
+        public IdempotencyKeyInProgressException(String message) { super(message); }
+    }
+    public static class BookingQueueFullException extends RuntimeException {
+        public BookingQueueFullException(String message) { super(message); }
+    }
+    public static class BookingSequencerUnavailableException extends RuntimeException {
+        public BookingSequencerUnavailableException(String message) { super(message); }
+    }
+}
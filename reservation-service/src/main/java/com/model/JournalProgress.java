@@ -0,0 +1,34 @@
+package com.model;
+
+import jakarta.persistence.*;
+
+// How far a journal has been written to the database. Advanced in the same transaction as the
+// entries it covers, so after a restart exactly the entries past it still need applying.
+@Entity
+public class JournalProgress {
+    @Id
+    @Column(length = 40)
+    private String journal;
+    private long appliedSequence;
+
+    // No-args constructor required by JPA
+    public JournalProgress() {
+    }
+
+    public JournalProgress(String journal, long appliedSequence) {
+        this.journal = journal;
+        this.appliedSequence = appliedSequence;
+    }
+
+    public String getJournal() {
+        return journal;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    public void setAppliedSequence(long appliedSequence) {
+        this.appliedSequence = appliedSequence;
+    }
+}
@@ -0,0 +1,63 @@
+package com.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// A reservation event waiting in the outbox. It is written in the same transaction as the change
+// it describes, so it exists exactly when that change committed; the relay publishes it afterwards
+// and stamps publishedAt.
+@Entity
+@Table(indexes = {
+    // serves the relay's scan for unpublished events in id order, and the purge of published ones
+    @Index(name = "idx_outbox_published", columnList = "publishedAt, id")
+})
+public class OutboxEvent {
+    // time-ordered, so id order is the order the events were written in
+    @Id
+    @TimeOrderedId
+    private Long id;
+    @Column(length = 40)
+    private String eventType;
+    private Long reservationId;
+    // the ReservationEvent as JSON, without its id
+    @Lob
+    private String payload;
+    private Instant createdAt;
+    private Instant publishedAt;
+
+    // No-args constructor required by JPA
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String eventType, Long reservationId, String payload, Instant createdAt) {
+        this.eventType = eventType;
+        this.reservationId = reservationId;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+}
@@ -0,0 +1,62 @@
+package com.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Nightly price for every room of a type on one night, replacing the room's own price
+@Entity
+@Table(uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"roomType", "night"}, name = "unique_rate_type_night")
+})
+public class RateOverride {
+    @Id
+    @TimeOrderedId
+    private Long id;
+    private String roomType;
+    private LocalDate night;
+    private double price;
+
+    // No-args constructor required by JPA
+    public RateOverride() {
+    }
+
+    public RateOverride(Long id, String roomType, LocalDate night, double price) {
+        this.id = id;
+        this.roomType = roomType;
+        this.night = night;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRoomType() {
+        return roomType;
+    }
+
+    public void setRoomType(String roomType) {
+        this.roomType = roomType;
+    }
+
+    public LocalDate getNight() {
+        return night;
+    }
+
+    public void setNight(LocalDate night) {
+        this.night = night;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+}
@@ -5,14 +5,21 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+    // serves the per-room overlap check used when booking
+    @Index(name = "idx_reservation_room_dates", columnList = "room_id, checkInDate, checkOutDate"),
+    // serves date-range scans that are not tied to one room
+    @Index(name = "idx_reservation_dates", columnList = "checkInDate, checkOutDate")
+})
 public class Reservation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
     private String guestName;
     private String guestEmail;
     
-    @ManyToOne
+    // loaded on demand; queries that need the room fetch-join it
+    @ManyToOne(fetch = FetchType.LAZY)
     private Room room;
     
     private LocalDate checkInDate;
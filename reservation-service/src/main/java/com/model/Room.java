@@ -5,10 +5,13 @@ import lombok.Data;
 
 @Data
 @Entity
-
+@Table(indexes = {
+    // serves the availability search filtered by type and price band
+    @Index(name = "idx_room_type_price", columnList = "type, price")
+})
 public class Room {
 	@Id
-	@GeneratedValue(strategy  = GenerationType.IDENTITY)
+	@TimeOrderedId
 	private Long id;
 	
 	@Column(unique = true)
@@ -0,0 +1,17 @@
+package com.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+// Marks an entity id as assigned by TimeOrderedIdGenerator instead of a database IDENTITY column,
+// which lets Hibernate batch the entity's inserts. Switch an entity over by replacing
+// @GeneratedValue(strategy = GenerationType.IDENTITY) with this annotation.
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,120 @@
+package com.model;
+
+import java.lang.reflect.Member;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.hibernate.FlushMode;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Time-ordered 64-bit ids generated in the application (Snowflake/TSID style).
+//
+// Layout, most significant bit first:
+//   31 bits  seconds since 2025-01-01T00:00:00Z (about 68 years)
+//    8 bits  node id, from the "app.id.node-id" JPA property
+//   14 bits  sequence within the second (16,384 ids per second per node)
+//
+// The ids stay below 2^53 so browsers can read them as plain JSON numbers.
+// When a second's sequence is used up the generator borrows the next second,
+// so ids remain unique and increasing even under bursts or a clock that steps back.
+// Borrowed seconds only live in memory: a restart soon after a burst would hand out
+// the same ids again. So before its first id the generator is advanced past the
+// highest id already in the entity's table; writers that assign ids themselves
+// advance it past their own ids with advanceTo.
+public class TimeOrderedIdGenerator implements IdentifierGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(TimeOrderedIdGenerator.class);
+
+    public static final String NODE_ID_PROPERTY = "app.id.node-id";
+
+    static final long EPOCH_SECOND = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    static final int NODE_BITS = 8;
+    static final int SEQUENCE_BITS = 14;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clockMillis;
+
+    private long lastSecond = -1;
+    private long sequence;
+    private volatile boolean seeded;
+
+    // Called by Hibernate for each entity id annotated with @TimeOrderedId
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member idMember, CustomIdGeneratorCreationContext context) {
+        this(readNodeId(context), System::currentTimeMillis);
+        logger.debug("Time-ordered ids enabled for {}.{} on node {}",
+            idMember.getDeclaringClass().getSimpleName(), idMember.getName(), nodeId);
+    }
+
+    TimeOrderedIdGenerator(long nodeId, LongSupplier clockMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clockMillis = clockMillis;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        // an id taken from nextId() ahead of the insert is kept
+        EntityPersister persister = session.getEntityPersister(null, object);
+        Object assigned = persister.getIdentifier(object, session);
+        if (assigned != null) {
+            return assigned;
+        }
+        if (!seeded) {
+            seed(session, persister);
+        }
+        return nextId();
+    }
+
+    // Also used directly by writers that must know an entity's id before it is inserted
+    public synchronized long nextId() {
+        long second = Math.floorDiv(clockMillis.getAsLong(), 1000) - EPOCH_SECOND;
+        if (second > lastSecond) {
+            lastSecond = second;
+            sequence = 0;
+        } else if (++sequence > MAX_SEQUENCE) {
+            // borrow the next second rather than block or repeat an id
+            lastSecond++;
+            sequence = 0;
+        }
+        return (lastSecond << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    // Make every later id greater than the given one, e.g. the highest id issued before a restart
+    public synchronized void advanceTo(long id) {
+        long second = id >>> (NODE_BITS + SEQUENCE_BITS);
+        if (second >= lastSecond) {
+            // the rest of that second may already be taken, so the next id starts a new one
+            lastSecond = second;
+            sequence = MAX_SEQUENCE;
+        }
+    }
+
+    // Advance past the highest id in the entity's table, once, before the first generated id
+    private void seed(SharedSessionContractImplementor session, EntityPersister persister) {
+        Long highest = session.createSelectionQuery("select max(e." + persister.getIdentifierPropertyName() + ") from " +
+                persister.getEntityName() + " e", Long.class)
+            .setHibernateFlushMode(FlushMode.MANUAL)
+            .getSingleResult();
+        if (highest != null) {
+            advanceTo(highest);
+            logger.info("Time-ordered ids for {} continue after {}", persister.getEntityName(), highest);
+        }
+        seeded = true;
+    }
+
+    private static long readNodeId(CustomIdGeneratorCreationContext context) {
+        Map<String, Object> settings = context.getServiceRegistry().getService(ConfigurationService.class).getSettings();
+        Object value = settings.get(NODE_ID_PROPERTY);
+        return value == null ? 0 : Long.parseLong(value.toString().trim());
+    }
+}
@@ -0,0 +1,9 @@
+package com.repository;
+
+import com.model.JournalProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalProgressRepository extends JpaRepository<JournalProgress, String> {
+}
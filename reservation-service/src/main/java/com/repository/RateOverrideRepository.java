@@ -0,0 +1,21 @@
+package com.repository;
+
+import com.model.RateOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface RateOverrideRepository extends JpaRepository<RateOverride, Long> {
+
+    // Remove the overrides of a room type for the nights [from, to)
+    @Modifying
+    @Query("DELETE FROM RateOverride r WHERE r.roomType = :roomType AND r.night >= :from AND r.night < :to")
+    int deleteRange(@Param("roomType") String roomType,
+                    @Param("from") LocalDate from,
+                    @Param("to") LocalDate to);
+}
@@ -1,28 +1,115 @@
 package com.repository;
 
+import com.dto.ReservationDetails;
+import com.dto.ReservationExportRow;
+import com.dto.ReservationRequest;
+import com.dto.StayPeriod;
 import com.model.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
     // Existing method (assumed from your service)
-    @Query("SELECT r FROM Reservation r WHERE " +
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.room WHERE " +
            "(r.checkInDate < :checkOut AND r.checkOutDate > :checkIn)")
 
     // Find overlapping reservations
     List<Reservation> findOverlappingReservations(@Param("checkIn") LocalDate checkIn,
                                                   @Param("checkOut") LocalDate checkOut);
 
-    // New method to find reservations by room ID
-    @Query("SELECT r FROM Reservation r WHERE r.room.id = :roomId")
+    // Check whether one room already has a reservation overlapping the dates
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
+           "WHERE r.room.id = :roomId AND r.checkInDate < :checkOut AND r.checkOutDate > :checkIn")
+    boolean existsOverlappingReservation(@Param("roomId") Long roomId,
+                                         @Param("checkIn") LocalDate checkIn,
+                                         @Param("checkOut") LocalDate checkOut);
 
-    // Find reservations by roomID
-    List<Reservation> findByRoomId(@Param("roomId") Long roomId);
-}
\ No newline at end of file
+    // Same check, ignoring the reservation that is being updated
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
+           "WHERE r.room.id = :roomId AND r.checkInDate < :checkOut AND r.checkOutDate > :checkIn " +
+           "AND r.id <> :excludeId")
+    boolean existsOverlappingReservationExcluding(@Param("roomId") Long roomId,
+                                                  @Param("checkIn") LocalDate checkIn,
+                                                  @Param("checkOut") LocalDate checkOut,
+                                                  @Param("excludeId") Long excludeId);
+
+    // Stays of any of the given rooms overlapping the dates, read as bare date ranges
+    @Query("SELECT new com.dto.StayPeriod(r.room.id, r.checkInDate, r.checkOutDate) FROM Reservation r " +
+           "WHERE r.room.id IN :roomIds AND r.checkInDate < :checkOut AND r.checkOutDate > :checkIn")
+    List<StayPeriod> findOverlappingStaysForRooms(@Param("roomIds") Collection<Long> roomIds,
+                                                  @Param("checkIn") LocalDate checkIn,
+                                                  @Param("checkOut") LocalDate checkOut);
+
+    // Load a reservation together with its room, for the writes that change both
+    @Query("SELECT r FROM Reservation r LEFT JOIN FETCH r.room WHERE r.id = :id")
+    Optional<Reservation> findWithRoomById(@Param("id") Long id);
+
+    // Every reservation projected into DTOs, without loading the rooms
+    @Query("SELECT new com.dto.ReservationRequest(r.id, r.guestName, r.guestEmail, r.room.id, " +
+           "r.checkInDate, r.checkOutDate) FROM Reservation r ORDER BY r.id")
+    List<ReservationRequest> findAllAsRequests();
+
+    // The details lookup behind payment-service: reservation and room columns in one row
+    @Query("SELECT new com.dto.ReservationDetails(r.id, r.guestName, rm.id, rm.roomNumber, rm.type, rm.price, " +
+           "r.checkInDate, r.checkOutDate) FROM Reservation r LEFT JOIN r.room rm WHERE r.id = :id")
+    Optional<ReservationDetails> findDetailsById(@Param("id") Long id);
+
+    // The same row for many reservations at once, for the batch details endpoint
+    @Query("SELECT new com.dto.ReservationDetails(r.id, r.guestName, rm.id, rm.roomNumber, rm.type, rm.price, " +
+           "r.checkInDate, r.checkOutDate) FROM Reservation r LEFT JOIN r.room rm WHERE r.id IN :ids ORDER BY r.id")
+    List<ReservationDetails> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset page of reservations after the cursor, projected straight into DTOs
+    @Query("SELECT new com.dto.ReservationRequest(r.id, r.guestName, r.guestEmail, r.room.id, " +
+           "r.checkInDate, r.checkOutDate) FROM Reservation r WHERE r.id > :afterId ORDER BY r.id")
+    List<ReservationRequest> findReservationPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Stream reservations for the export, optionally limited to stays overlapping [from, to) and to one status.
+    // Rows are read-only DTOs fetched in chunks, so the persistence context does not grow with the table.
+    // The room is outer joined so reservations without one are exported too.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.dto.ReservationExportRow(r.id, r.guestName, r.guestEmail, rm.id, rm.roomNumber, " +
+           "r.checkInDate, r.checkOutDate, r.status) FROM Reservation r LEFT JOIN r.room rm " +
+           "WHERE (:from IS NULL OR r.checkOutDate > :from) AND (:to IS NULL OR r.checkInDate < :to) " +
+           "AND (:status IS NULL OR r.status = :status) ORDER BY r.id")
+    Stream<ReservationExportRow> streamForExport(@Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to,
+                                                 @Param("status") String status);
+
+    // Check whether any reservation still points at the room
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r WHERE r.room.id = :roomId")
+    boolean existsByRoomId(@Param("roomId") Long roomId);
+
+    // Insert a reservation whose id was assigned up front. A plain insert, so an id that is already
+    // taken fails with a unique-key violation instead of being merged over the other reservation.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO reservation (id, guest_name, guest_email, room_id, check_in_date, check_out_date, status) " +
+                   "VALUES (:id, :guestName, :guestEmail, :roomId, :checkIn, :checkOut, :status)", nativeQuery = true)
+    int insert(@Param("id") Long id, @Param("guestName") String guestName, @Param("guestEmail") String guestEmail,
+               @Param("roomId") Long roomId, @Param("checkIn") LocalDate checkIn, @Param("checkOut") LocalDate checkOut,
+               @Param("status") String status);
+
+    // Highest reservation id in the table, if there are any
+    @Query("SELECT MAX(r.id) FROM Reservation r")
+    Optional<Long> findMaxId();
+}
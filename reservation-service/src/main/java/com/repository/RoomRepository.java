@@ -1,12 +1,20 @@
 package com.repository;
 
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.dto.AvailableRoom;
 import com.model.Room;
 
 @Repository
@@ -17,4 +25,34 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
     
     // check if a room exists by room number
     boolean existsByRoomNumber(String roomNumber);
+
+    // Set only the booked flag: no read of the room first, and no stale copy of its other columns
+    // written over a concurrent room edit
+    @Modifying
+    @Transactional
+    @Query("UPDATE Room r SET r.available = :available WHERE r.id = :id")
+    int updateAvailability(@Param("id") Long id, @Param("available") boolean available);
+
+    // The same for a block of rooms in one statement
+    @Modifying
+    @Transactional
+    @Query("UPDATE Room r SET r.available = :available WHERE r.id IN :ids")
+    int updateAvailabilityForRooms(@Param("ids") Collection<Long> ids, @Param("available") boolean available);
+
+    // Keyset page of rooms: the next rooms by id after the cursor
+    List<Room> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Free rooms for the dates in one round trip: an anti-join against overlapping reservations,
+    // with optional type and price-band filters, projected to the few columns the search shows
+    @Query("SELECT new com.dto.AvailableRoom(r.id, r.roomNumber, r.type, r.price) FROM Room r " +
+           "WHERE (:type IS NULL OR r.type = :type) " +
+           "AND (:minPrice IS NULL OR r.price >= :minPrice) AND (:maxPrice IS NULL OR r.price <= :maxPrice) " +
+           "AND NOT EXISTS (SELECT 1 FROM Reservation res WHERE res.room = r " +
+           "AND res.checkInDate < :checkOut AND res.checkOutDate > :checkIn) " +
+           "ORDER BY r.price, r.roomNumber")
+    List<AvailableRoom> findAvailableRooms(@Param("checkIn") LocalDate checkIn,
+                                           @Param("checkOut") LocalDate checkOut,
+                                           @Param("type") String type,
+                                           @Param("minPrice") Double minPrice,
+                                           @Param("maxPrice") Double maxPrice);
 }
@@ -0,0 +1,186 @@
+package com.service;
+
+import com.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Bounded LRU cache of availability answers, keyed by date range and search filters.
+// Entries expire after a TTL and are dropped as soon as a booking, update or cancellation touches
+// an overlapping date range, or any room is added, edited or deleted.
+@Component
+public class AvailabilityCache implements OccupancyListener {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCache.class);
+
+    // One cached question: which view was asked for, for which dates, with which filters
+    public record Key(String view, LocalDate checkIn, LocalDate checkOut, String type, Double minPrice, Double maxPrice) {
+
+        public static Key rooms(LocalDate checkIn, LocalDate checkOut) {
+            return new Key("rooms", checkIn, checkOut, null, null, null);
+        }
+
+        public static Key search(LocalDate checkIn, LocalDate checkOut, String type, Double minPrice, Double maxPrice) {
+            return new Key("search", checkIn, checkOut, type, minPrice, maxPrice);
+        }
+
+        boolean overlaps(LocalDate from, LocalDate to) {
+            return checkIn.isBefore(to) && checkOut.isAfter(from);
+        }
+    }
+
+    private record Entry(List<?> value, long expiresAtMillis) {
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clockMillis;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // bumped by every invalidation, so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public AvailabilityCache(@Value("${reservation.availability-cache.enabled:true}") boolean enabled,
+                             @Value("${reservation.availability-cache.max-entries:1000}") int maxEntries,
+                             @Value("${reservation.availability-cache.ttl-ms:30000}") long ttlMillis) {
+        this(enabled, maxEntries, ttlMillis, System::currentTimeMillis);
+    }
+
+    AvailabilityCache(boolean enabled, int maxEntries, long ttlMillis, LongSupplier clockMillis) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clockMillis = clockMillis;
+        logger.debug("AvailabilityCache enabled={}, max entries={}, ttl={}ms", enabled, maxEntries, ttlMillis);
+    }
+
+    // Return the cached answer for the key, or load, cache and return it
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Key key, Supplier<List<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long now = clockMillis.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                hits.incrementAndGet();
+                return (List<T>) entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
+        long loadedAtGeneration = generation.get();
+        List<T> value = List.copyOf(loader.get());
+        synchronized (entries) {
+            if (generation.get() == loadedAtGeneration) {
+                entries.put(key, new Entry(value, now + ttlMillis));
+                evictOverflow();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void onRoomChanged(Long roomId, LocalDate from, LocalDate to) {
+        invalidate(from, to);
+        // database-backed answers only see the change once it commits, so drop them again then
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(from, to);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onRebuild(List<Room> rooms) {
+        invalidate(null, null);
+    }
+
+    // Drop the answers for dates overlapping [from, to), or every answer when the range is null
+    public void invalidate(LocalDate from, LocalDate to) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            int before = entries.size();
+            if (from == null || to == null) {
+                entries.clear();
+            } else {
+                entries.keySet().removeIf(key -> key.overlaps(from, to));
+            }
+            invalidations.addAndGet(before - entries.size());
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Counters for sizing the cache
+    public Map<String, Object> stats() {
+        long hitCount = getHitCount();
+        long requests = hitCount + getMissCount();
+        return Map.of(
+            "size", size(),
+            "maxEntries", maxEntries,
+            "hits", hitCount,
+            "misses", getMissCount(),
+            "evictions", getEvictionCount(),
+            "invalidations", getInvalidationCount(),
+            "hitRate", requests == 0 ? 0.0 : (double) hitCount / requests
+        );
+    }
+
+    // Remove least recently used entries beyond the size limit
+    private void evictOverflow() {
+        Iterator<Key> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.service;
+
+import com.dto.AvailableWindow;
+import com.exception.AppExceptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Answers "when is the next time a room of this type is free for N nights?" from the in-memory
+// occupancy calendars, one run-length scan per candidate room instead of one probe per day.
+@Service
+public class AvailabilityWindowService {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityWindowService.class);
+
+    public static final int DEFAULT_HORIZON_DAYS = 90;
+    public static final int MAX_HORIZON_DAYS = 366;
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private final RoomCatalog roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+
+    public AvailabilityWindowService(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    // Earliest window per room (optionally of one type) starting on or after from and ending within
+    // the horizon, soonest first; at most limit windows are returned
+    public List<AvailableWindow> findNextAvailable(String type, int nights, LocalDate from, int horizonDays, int limit) {
+        logger.info("Finding next {} free nights from {} within {} days (type: {})", nights, from, horizonDays, type);
+        if (nights < 1) {
+            throw new AppExceptions.InvalidBookingException("nights must be at least 1");
+        }
+        if (horizonDays < nights || horizonDays > MAX_HORIZON_DAYS) {
+            throw new AppExceptions.InvalidBookingException(
+                "horizonDays must be between nights and " + MAX_HORIZON_DAYS);
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new AppExceptions.InvalidBookingException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        LocalDate until = from.plusDays(horizonDays);
+        List<AvailableWindow> windows = new ArrayList<>();
+        for (RoomCatalog.Entry room : roomCatalog.all()) {
+            if (type != null && !type.equals(room.type())) {
+                continue;
+            }
+            occupancyIndex.earliestFreeWindow(room.id(), from, until, nights).ifPresent(checkIn ->
+                windows.add(new AvailableWindow(room.id(), room.roomNumber(), room.type(), checkIn, checkIn.plusDays(nights))));
+        }
+        windows.sort(Comparator.comparing(AvailableWindow::getCheckIn)
+            .thenComparing(AvailableWindow::getRoomNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        logger.info("Found {} rooms with a free window", windows.size());
+        return windows.size() > limit ? List.copyOf(windows.subList(0, limit)) : windows;
+    }
+}
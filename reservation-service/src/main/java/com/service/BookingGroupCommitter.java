@@ -0,0 +1,194 @@
+package com.service;
+
+import com.dto.ReservationRequest;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Optional group-commit mode for bookings.
+// Requests arriving within a few milliseconds of each other are booked by one flusher thread
+// inside a single transaction, so a burst pays for one commit instead of one per booking.
+@Component
+public class BookingGroupCommitter {
+    private static final Logger logger = LoggerFactory.getLogger(BookingGroupCommitter.class);
+
+    private final ReservationService reservationService;
+    private final TransactionOperations transactionOperations;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitMillis;
+
+    private final BlockingQueue<PendingBooking> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public BookingGroupCommitter(ReservationService reservationService,
+                                 TransactionOperations transactionOperations,
+                                 @Value("${reservation.booking.group-commit.enabled:false}") boolean enabled,
+                                 @Value("${reservation.booking.group-commit.max-batch-size:64}") int maxBatchSize,
+                                 @Value("${reservation.booking.group-commit.max-wait-ms:5}") long maxWaitMillis) {
+        this.reservationService = reservationService;
+        this.transactionOperations = transactionOperations;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.debug("Booking group commit is disabled");
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::runFlusher, "booking-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Booking group commit started: max batch size={}, max wait={}ms", maxBatchSize, maxWaitMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Queue a booking for the next group commit
+    public CompletableFuture<Reservation> submit(ReservationRequest request, String receptionistEmail) {
+        PendingBooking pending = new PendingBooking(request, receptionistEmail);
+        if (!running) {
+            pending.future.completeExceptionally(new IllegalStateException("Booking group commit is not running"));
+            return pending.future;
+        }
+        queue.add(pending);
+        return pending.future;
+    }
+
+    // Queue a booking and wait for its outcome, rethrowing booking failures unchanged
+    public Reservation book(ReservationRequest request, String receptionistEmail) {
+        try {
+            return submit(request, receptionistEmail).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runFlusher() {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingBooking first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingBooking next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in booking group commit: {}", e.getMessage(), e);
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        // fail whatever is still waiting so callers are not left hanging
+        PendingBooking leftover;
+        while ((leftover = queue.poll()) != null) {
+            leftover.future.completeExceptionally(new IllegalStateException("Booking group commit stopped"));
+        }
+    }
+
+    // Book the whole batch in one transaction; conflicts fail only their own booking
+    void flush(List<PendingBooking> batch) {
+        logger.debug("Group committing {} bookings", batch.size());
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                for (PendingBooking pending : batch) {
+                    pending.reset();
+                    try {
+                        pending.result = reservationService.createBooking(pending.request, pending.receptionistEmail);
+                    } catch (AppExceptions.RoomAlreadyBookedException | AppExceptions.RoomNotFoundException e) {
+                        pending.failure = e;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // one bad booking must not sink the others, so retry them one transaction each
+            logger.warn("Group commit of {} bookings failed ({}), retrying individually", batch.size(), e.getMessage());
+            batch.forEach(this::flushSingle);
+            return;
+        }
+        batch.forEach(PendingBooking::complete);
+    }
+
+    private void flushSingle(PendingBooking pending) {
+        pending.reset();
+        try {
+            pending.result = transactionOperations.execute(
+                status -> reservationService.createBooking(pending.request, pending.receptionistEmail));
+        } catch (RuntimeException e) {
+            pending.failure = e;
+        }
+        pending.complete();
+    }
+
+    static final class PendingBooking {
+        private final ReservationRequest request;
+        private final String receptionistEmail;
+        private final CompletableFuture<Reservation> future = new CompletableFuture<>();
+        private Reservation result;
+        private RuntimeException failure;
+
+        PendingBooking(ReservationRequest request, String receptionistEmail) {
+            this.request = request;
+            this.receptionistEmail = receptionistEmail;
+        }
+
+        void reset() {
+            result = null;
+            failure = null;
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
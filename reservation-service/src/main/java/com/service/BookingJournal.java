@@ -0,0 +1,318 @@
+package com.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+// Append-only, memory-mapped journal of the booking sequencer's commands, plus the snapshot
+// the journal is cut back to. Only the sequencer thread writes to it.
+//
+// Journal layout: an 8-byte header (magic, format version) followed by records of
+//   int length, int CRC32 of the body, body = long sequence, byte type, int stay count, stays.
+// Replay stops at the first record that is empty, torn (bad checksum) or not newer than the one
+// before it, which is how the tail left over from before the last reset is ignored. Compacting
+// rewrites the journal to a new file and swaps it in, like the snapshot.
+final class BookingJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(BookingJournal.class);
+
+    static final byte BOOK = 1;
+    static final byte UPDATE = 2;
+    static final byte CANCEL = 3;
+
+    private static final int JOURNAL_MAGIC = 0x424B4A4E;
+    private static final int SNAPSHOT_MAGIC = 0x424B534E;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_OVERHEAD = 8;
+
+    // One reservation as the sequencer knows it
+    record Stay(long id, long roomId, LocalDate checkIn, LocalDate checkOut,
+                String guestName, String guestEmail, String status) {
+    }
+
+    // One sequenced command: BOOK carries the new stays, UPDATE the stay before and after,
+    // CANCEL the stay that was removed
+    record Entry(long sequence, byte type, List<Stay> stays) {
+    }
+
+    record Snapshot(long sequence, List<Stay> stays) {
+    }
+
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private final int initialCapacity;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    BookingJournal(Path directory, int initialCapacity) throws IOException {
+        Files.createDirectories(directory);
+        this.journalPath = directory.resolve("bookings.journal");
+        this.snapshotPath = directory.resolve("bookings.snapshot");
+        this.initialCapacity = initialCapacity;
+        this.channel = open(journalPath);
+        boolean fresh = channel.size() < HEADER_BYTES;
+        map(Math.max(initialCapacity, channel.size()));
+        if (fresh) {
+            buffer.putInt(0, JOURNAL_MAGIC).putInt(4, FORMAT_VERSION);
+        } else if (buffer.getInt(0) != JOURNAL_MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException(journalPath + " is not a booking journal");
+        }
+        buffer.position(HEADER_BYTES);
+    }
+
+    // Read every intact record and leave the write position right after the last one
+    List<Entry> replay() {
+        List<Entry> entries = new ArrayList<>();
+        int position = HEADER_BYTES;
+        long previous = Long.MIN_VALUE;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_OVERHEAD + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + RECORD_OVERHEAD, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                logger.warn("Booking journal ends in a torn record at offset {}", position);
+                break;
+            }
+            Entry entry = decode(body);
+            if (entry.sequence() <= previous) {
+                break;
+            }
+            entries.add(entry);
+            previous = entry.sequence();
+            position += RECORD_OVERHEAD + length;
+        }
+        buffer.position(position);
+        logger.info("Read {} entries from booking journal {}", entries.size(), journalPath);
+        return entries;
+    }
+
+    // Write the entry at the end of the journal; it is durable once force() returns
+    void append(Entry entry) throws IOException {
+        byte[] body = encode(entry);
+        if (buffer.remaining() < RECORD_OVERHEAD + body.length + 4) {
+            map(Math.max(2L * buffer.capacity(), buffer.position() + RECORD_OVERHEAD + body.length + 4L));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        int start = buffer.position();
+        buffer.position(start + 4);
+        buffer.putInt((int) crc.getValue()).put(body);
+        // mark the end before publishing the length, so a reader never runs into stale bytes
+        buffer.putInt(buffer.position(), 0);
+        buffer.putInt(start, body.length);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    int size() {
+        return buffer.position();
+    }
+
+    // Start the journal over; only safe once a snapshot covers everything in it
+    void reset() {
+        buffer.putInt(HEADER_BYTES, 0);
+        buffer.position(HEADER_BYTES);
+        buffer.force();
+    }
+
+    // Drop the records written from the given position (a size() taken earlier) on; they are
+    // overwritten by the next append
+    void truncate(int position) {
+        buffer.putInt(position, 0);
+        buffer.position(position);
+    }
+
+    // Start the journal over with only the given entries, once a snapshot covers everything before
+    // them. The entries are written to a new file that replaces the journal, so a crash leaves either
+    // the old journal or the new one.
+    void compact(List<Entry> kept) throws IOException {
+        if (kept.isEmpty()) {
+            reset();
+            return;
+        }
+        List<byte[]> bodies = new ArrayList<>(kept.size());
+        long size = HEADER_BYTES + 4L;
+        for (Entry entry : kept) {
+            byte[] body = encode(entry);
+            bodies.add(body);
+            size += RECORD_OVERHEAD + body.length;
+        }
+        Path temporary = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        try (FileChannel file = open(temporary)) {
+            MappedByteBuffer compacted = file.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(initialCapacity, size));
+            compacted.putInt(JOURNAL_MAGIC).putInt(FORMAT_VERSION);
+            CRC32 crc = new CRC32();
+            for (byte[] body : bodies) {
+                crc.reset();
+                crc.update(body);
+                compacted.putInt(body.length).putInt((int) crc.getValue()).put(body);
+            }
+            compacted.putInt(compacted.position(), 0);
+            compacted.force();
+        }
+        Files.move(temporary, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        channel = open(journalPath);
+        buffer = null;
+        map(channel.size());
+        buffer.position((int) (size - 4));
+        logger.info("Compacted booking journal {} to {} entries", journalPath, kept.size());
+    }
+
+    Optional<Snapshot> readSnapshot() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return Optional.empty();
+        }
+        try (InputStream file = Files.newInputStream(snapshotPath);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(snapshotPath + " is not a booking snapshot");
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            List<Stay> stays = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                stays.add(new Stay(in.readLong(), in.readLong(), LocalDate.ofEpochDay(in.readLong()),
+                    LocalDate.ofEpochDay(in.readLong()), readString(in), readString(in), readString(in)));
+            }
+            logger.info("Read booking snapshot {} at sequence {} with {} stays", snapshotPath, sequence, count);
+            return Optional.of(new Snapshot(sequence, stays));
+        }
+    }
+
+    // Write the snapshot next to the old one and swap it in, so a crash leaves one of the two intact
+    void writeSnapshot(long sequence, Collection<Stay> stays) throws IOException {
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(sequence);
+            out.writeInt(stays.size());
+            for (Stay stay : stays) {
+                out.writeLong(stay.id());
+                out.writeLong(stay.roomId());
+                out.writeLong(stay.checkIn().toEpochDay());
+                out.writeLong(stay.checkOut().toEpochDay());
+                writeString(out, stay.guestName());
+                writeString(out, stay.guestEmail());
+                writeString(out, stay.status());
+            }
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Wrote booking snapshot at sequence {} with {} stays", sequence, stays.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void map(long capacity) throws IOException {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Booking journal is full; take a snapshot to start it over");
+        }
+        int position = buffer == null ? 0 : buffer.position();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        buffer.position(position);
+    }
+
+    private static byte[] encode(Entry entry) {
+        List<byte[]> strings = new ArrayList<>();
+        int size = 8 + 1 + 4;
+        for (Stay stay : entry.stays()) {
+            size += 4 * 8;
+            for (String value : new String[] {stay.guestName(), stay.guestEmail(), stay.status()}) {
+                byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                size += 4 + (bytes == null ? 0 : bytes.length);
+            }
+        }
+        ByteBuffer body = ByteBuffer.allocate(size);
+        body.putLong(entry.sequence()).put(entry.type()).putInt(entry.stays().size());
+        int next = 0;
+        for (Stay stay : entry.stays()) {
+            body.putLong(stay.id()).putLong(stay.roomId())
+                .putLong(stay.checkIn().toEpochDay()).putLong(stay.checkOut().toEpochDay());
+            for (int i = 0; i < 3; i++) {
+                byte[] bytes = strings.get(next++);
+                body.putInt(bytes == null ? -1 : bytes.length);
+                if (bytes != null) {
+                    body.put(bytes);
+                }
+            }
+        }
+        return body.array();
+    }
+
+    private static Entry decode(ByteBuffer body) {
+        long sequence = body.getLong();
+        byte type = body.get();
+        int count = body.getInt();
+        List<Stay> stays = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stays.add(new Stay(body.getLong(), body.getLong(), LocalDate.ofEpochDay(body.getLong()),
+                LocalDate.ofEpochDay(body.getLong()), readString(body), readString(body), readString(body)));
+        }
+        return new Entry(sequence, type, stays);
+    }
+
+    private static String readString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
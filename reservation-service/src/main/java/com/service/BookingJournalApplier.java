@@ -0,0 +1,134 @@
+package com.service;
+
+import com.model.JournalProgress;
+import com.model.Reservation;
+import com.repository.JournalProgressRepository;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes the booking sequencer's journal entries to the database, a batch per transaction.
+// The transaction also records the last sequence written, and entries at or below it are
+// skipped, so the journal tail can be handed over again after a restart without anything being
+// written twice. Bookings are plain inserts: a reservation id that is already taken fails the
+// entry rather than overwriting someone else's stay. Each entry's reservation events go to the
+// outbox in the same transaction.
+@Component
+public class BookingJournalApplier {
+    private static final Logger logger = LoggerFactory.getLogger(BookingJournalApplier.class);
+
+    static final String JOURNAL = "booking-journal";
+
+    private final ReservationRepository reservationRepo;
+    private final RoomRepository roomRepo;
+    private final JournalProgressRepository progressRepo;
+    private final RoomCatalog roomCatalog;
+    private final ReservationOutbox outbox;
+    private final TransactionOperations transactionOperations;
+
+    public BookingJournalApplier(ReservationRepository reservationRepo, RoomRepository roomRepo,
+                                 JournalProgressRepository progressRepo, RoomCatalog roomCatalog,
+                                 ReservationOutbox outbox, TransactionOperations transactionOperations) {
+        this.reservationRepo = reservationRepo;
+        this.roomRepo = roomRepo;
+        this.progressRepo = progressRepo;
+        this.roomCatalog = roomCatalog;
+        this.outbox = outbox;
+        this.transactionOperations = transactionOperations;
+    }
+
+    // Every reservation in the database, for a sequencer starting without a snapshot
+    List<BookingJournal.Stay> loadAll() {
+        return reservationRepo.findAll().stream()
+            .map(r -> new BookingJournal.Stay(r.getId(), r.getRoom().getId(), r.getCheckInDate(), r.getCheckOutDate(),
+                r.getGuestName(), r.getGuestEmail(), r.getStatus()))
+            .toList();
+    }
+
+    // Last journal sequence the database has
+    long appliedSequence() {
+        return progressRepo.findById(JOURNAL).map(JournalProgress::getAppliedSequence).orElse(0L);
+    }
+
+    long maxReservationId() {
+        return reservationRepo.findMaxId().orElse(0L);
+    }
+
+    void apply(List<BookingJournal.Entry> entries) {
+        logger.debug("Writing {} journal entries to the database", entries.size());
+        Map<Long, Boolean> availability = new LinkedHashMap<>();
+        transactionOperations.executeWithoutResult(status -> {
+            JournalProgress progress = progressRepo.findById(JOURNAL).orElseGet(() -> new JournalProgress(JOURNAL, 0));
+            for (BookingJournal.Entry entry : entries) {
+                if (entry.sequence() > progress.getAppliedSequence()) {
+                    applyEntry(entry, availability);
+                    progress.setAppliedSequence(entry.sequence());
+                }
+            }
+            progressRepo.save(progress);
+        });
+        // the catalog shows the booked flags once they are committed
+        availability.forEach(roomCatalog::availabilityChanged);
+    }
+
+    // Move the database past an entry it refused, without writing the entry
+    void skip(long sequence) {
+        transactionOperations.executeWithoutResult(status -> {
+            JournalProgress progress = progressRepo.findById(JOURNAL).orElseGet(() -> new JournalProgress(JOURNAL, 0));
+            progress.setAppliedSequence(Math.max(progress.getAppliedSequence(), sequence));
+            progressRepo.save(progress);
+        });
+    }
+
+    private void applyEntry(BookingJournal.Entry entry, Map<Long, Boolean> availability) {
+        switch (entry.type()) {
+            case BookingJournal.BOOK -> entry.stays().forEach(stay -> {
+                outbox.reservationCreated(insert(stay));
+                markRoom(stay.roomId(), false, availability);
+            });
+            case BookingJournal.UPDATE -> {
+                BookingJournal.Stay before = entry.stays().get(0);
+                BookingJournal.Stay after = entry.stays().get(1);
+                outbox.reservationUpdated(save(after));
+                if (before.roomId() != after.roomId()) {
+                    markRoom(before.roomId(), true, availability);
+                    markRoom(after.roomId(), false, availability);
+                }
+            }
+            case BookingJournal.CANCEL -> entry.stays().forEach(stay -> {
+                reservationRepo.deleteById(stay.id());
+                outbox.reservationCancelled(toReservation(stay));
+                markRoom(stay.roomId(), true, availability);
+            });
+            default -> throw new IllegalStateException("Unknown journal entry type " + entry.type());
+        }
+    }
+
+    private Reservation insert(BookingJournal.Stay stay) {
+        reservationRepo.insert(stay.id(), stay.guestName(), stay.guestEmail(), stay.roomId(), stay.checkIn(),
+            stay.checkOut(), stay.status());
+        return toReservation(stay);
+    }
+
+    // The reservation was inserted by an earlier entry, so this overwrites it with the new state
+    private Reservation save(BookingJournal.Stay stay) {
+        return reservationRepo.save(toReservation(stay));
+    }
+
+    private Reservation toReservation(BookingJournal.Stay stay) {
+        return new Reservation(stay.id(), stay.guestName(), stay.guestEmail(),
+            roomRepo.getReferenceById(stay.roomId()), stay.checkIn(), stay.checkOut(), stay.status());
+    }
+
+    private void markRoom(long roomId, boolean available, Map<Long, Boolean> availability) {
+        roomRepo.updateAvailability(roomId, available);
+        availability.put(roomId, available);
+    }
+}
@@ -0,0 +1,741 @@
+package com.service;
+
+import com.dto.ReservationRequest;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import com.model.Room;
+import com.model.TimeOrderedIdGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Optional single-writer booking engine for flash sales.
+// Bookings, updates and cancellations are queued on a bounded ring and run one after another by a
+// single sequencer thread, which owns the stays and takes nights in the occupancy index with atomic
+// check-and-occupy calls, so commands never wait on room locks or the database. Each command is
+// appended to a memory-mapped journal, and a drained batch is forced to disk once before its callers
+// are answered; if that fails the whole batch is undone and its callers get the error. A caller waits
+// at most submit-timeout-ms for its command to start, and if the sequencer thread itself fails it
+// stops taking commands, so callers get an error instead of hanging. Another thread
+// writes the journal to the database in the background; an entry the database refuses outright is
+// set aside in bookings.rejected next to the journal, logged and counted, so it cannot hold up the rest.
+// On start the stays come from the last snapshot plus the journal after it, and reservation ids
+// continue past the highest one the snapshot, the journal or the database has seen. Every snapshot-every
+// entries the stays are snapshotted as of the last entry the database has, and the journal is cut
+// back to the entries after it.
+@Component
+public class BookingSequencer {
+    private static final Logger logger = LoggerFactory.getLogger(BookingSequencer.class);
+
+    private static final String CONFIRMED = "CONFIRMED";
+    private static final long APPLY_RETRY_MILLIS = 1000;
+    // column length of the guest name and email in the reservation table
+    private static final int MAX_GUEST_FIELD_LENGTH = 255;
+
+    private final RoomCatalog roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final ReservationStats stats;
+    private final RoomStatusBroadcaster roomStatusBroadcaster;
+    private final BookingJournalApplier applier;
+    private final LongFunction<LongSupplier> idSource;
+    private final boolean enabled;
+    private final Path directory;
+    private final int batchSize;
+    private final int snapshotEvery;
+    private final int journalCapacity;
+    private final boolean syncEachBatch;
+    private final long submitTimeoutMillis;
+
+    private final BlockingQueue<Command<?>> ring;
+    private final BlockingQueue<BookingJournal.Entry> unapplied = new LinkedBlockingQueue<>();
+    // written by the sequencer thread only, read by anyone
+    private final ConcurrentHashMap<Long, BookingJournal.Stay> stays = new ConcurrentHashMap<>();
+
+    // owned by the sequencer thread once started
+    private BookingJournal journal;
+    private LongSupplier reservationIds;
+    private long lastSequence;
+    private long snapshotSequence;
+    // entries after the last snapshot, to roll the stays back to the applied sequence for the next one
+    private final Deque<BookingJournal.Entry> sinceSnapshot = new ArrayDeque<>();
+    private final List<BookingJournal.Entry> batchEntries = new ArrayList<>();
+    // undone in reverse if the batch cannot be forced to disk
+    private final List<Runnable> batchUndo = new ArrayList<>();
+    // stats and broadcasts, only published once the batch is durable
+    private final List<Runnable> batchEffects = new ArrayList<>();
+
+    private final AtomicLong rejectedEntries = new AtomicLong();
+    private volatile long appliedSequence;
+    private volatile boolean running;
+    // the sequencer thread died on an unexpected error, leaving the stays in an unknown state
+    private volatile boolean failed;
+    private volatile boolean applying;
+    private Thread sequencer;
+    private Thread applierThread;
+
+    @Autowired
+    public BookingSequencer(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, ReservationStats stats,
+                            RoomStatusBroadcaster roomStatusBroadcaster, BookingJournalApplier applier,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${reservation.sequencer.enabled:false}") boolean enabled,
+                            @Value("${reservation.sequencer.dir:data/booking-journal}") String directory,
+                            @Value("${reservation.sequencer.ring-size:65536}") int ringSize,
+                            @Value("${reservation.sequencer.batch-size:1024}") int batchSize,
+                            @Value("${reservation.sequencer.snapshot-every:100000}") int snapshotEvery,
+                            @Value("${reservation.sequencer.journal-capacity-bytes:67108864}") int journalCapacity,
+                            @Value("${reservation.sequencer.sync:true}") boolean syncEachBatch,
+                            @Value("${reservation.sequencer.submit-timeout-ms:10000}") long submitTimeoutMillis) {
+        this(roomCatalog, occupancyIndex, stats, roomStatusBroadcaster, applier,
+            floor -> reservationIds(entityManagerFactory, floor), enabled, Path.of(directory), ringSize, batchSize,
+            snapshotEvery, journalCapacity, syncEachBatch, submitTimeoutMillis);
+    }
+
+    BookingSequencer(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, ReservationStats stats,
+                     RoomStatusBroadcaster roomStatusBroadcaster, BookingJournalApplier applier,
+                     LongFunction<LongSupplier> idSource, boolean enabled, Path directory, int ringSize, int batchSize,
+                     int snapshotEvery, int journalCapacity, boolean syncEachBatch, long submitTimeoutMillis) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.stats = stats;
+        this.roomStatusBroadcaster = roomStatusBroadcaster;
+        this.applier = applier;
+        this.idSource = idSource;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.snapshotEvery = snapshotEvery;
+        this.journalCapacity = journalCapacity;
+        this.syncEachBatch = syncEachBatch;
+        this.submitTimeoutMillis = submitTimeoutMillis;
+        this.ring = new ArrayBlockingQueue<>(ringSize);
+    }
+
+    // Sequenced reservations get their ids from the same generator Hibernate uses for the table,
+    // moved past the highest id already handed out
+    static LongSupplier reservationIds(EntityManagerFactory entityManagerFactory, long floor) {
+        TimeOrderedIdGenerator generator = (TimeOrderedIdGenerator) entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+            .getEntityDescriptor(Reservation.class).getGenerator();
+        generator.advanceTo(floor);
+        return generator::nextId;
+    }
+
+    BookingJournal openJournal(Path directory, int capacity) throws IOException {
+        return new BookingJournal(directory, capacity);
+    }
+
+    // Recover the stays, bring the database up to date with the journal and start both threads
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            logger.debug("Booking sequencer is disabled");
+            return;
+        }
+        journal = openJournal(directory, journalCapacity);
+        Optional<BookingJournal.Snapshot> snapshot = journal.readSnapshot();
+        long base = snapshot.map(BookingJournal.Snapshot::sequence).orElse(0L);
+        List<BookingJournal.Stay> initial = snapshot.map(BookingJournal.Snapshot::stays).orElseGet(applier::loadAll);
+        initial.forEach(stay -> stays.put(stay.id(), stay));
+
+        List<BookingJournal.Entry> journaled = journal.replay();
+        List<BookingJournal.Entry> tail = journaled.stream().filter(entry -> entry.sequence() > base).toList();
+        tail.forEach(this::replay);
+        sinceSnapshot.addAll(tail);
+        lastSequence = journaled.isEmpty() ? base : Math.max(base, journaled.get(journaled.size() - 1).sequence());
+        // a new journal directory carries on after the entries the database already has, so its
+        // entries are not mistaken for ones written before
+        lastSequence = Math.max(lastSequence, applier.appliedSequence());
+        reservationIds = idSource.apply(highestReservationId(journaled));
+        if (!tail.isEmpty()) {
+            logger.info("Writing {} journal entries after sequence {} to the database", tail.size(), base);
+            applier.apply(tail);
+        }
+        appliedSequence = lastSequence;
+        takeSnapshot();
+
+        running = true;
+        applying = true;
+        sequencer = new Thread(this::runSequencer, "booking-sequencer");
+        applierThread = new Thread(this::runApplier, "booking-journal-apply");
+        sequencer.setDaemon(true);
+        applierThread.setDaemon(true);
+        sequencer.start();
+        applierThread.start();
+        logger.info("Booking sequencer started at sequence {} with {} stays", lastSequence, stays.size());
+    }
+
+    // Finish queued commands, let the database catch up and leave a snapshot behind
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (sequencer == null) {
+            return;
+        }
+        running = false;
+        sequencer.join(TimeUnit.SECONDS.toMillis(10));
+        applying = false;
+        applierThread.join(TimeUnit.SECONDS.toMillis(10));
+        if (appliedSequence != lastSequence) {
+            logger.warn("Database is behind the booking journal ({} of {}); the rest is replayed on next start",
+                appliedSequence, lastSequence);
+        }
+        if (failed) {
+            // the journal is the only trustworthy copy now; the next start rebuilds the stays from it
+            logger.warn("Booking sequencer failed earlier, leaving the last snapshot in place");
+        } else {
+            takeSnapshot();
+        }
+        journal.close();
+        sequencer = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Book every stay or none of them; stays taken by an earlier request in the list count as booked
+    public List<Reservation> book(List<ReservationRequest> requests) {
+        return submit(() -> bookAll(requests, false));
+    }
+
+    // Book nights the caller already occupies in the index, i.e. a room hold being converted
+    public Reservation bookHeld(ReservationRequest request) {
+        return submit(() -> bookAll(List.of(request), true)).get(0);
+    }
+
+    public ReservationRequest update(Long id, ReservationRequest request) {
+        return submit(() -> updateStay(id, request));
+    }
+
+    public void cancel(Long id) {
+        submit(() -> cancelStay(id));
+    }
+
+    // Latest state of a sequenced reservation, which the database may not have caught up with yet
+    public Optional<Reservation> find(Long id) {
+        return Optional.ofNullable(stays.get(id)).map(this::toReservation);
+    }
+
+    public boolean hasReservationsForRoom(Long roomId) {
+        return stays.values().stream().anyMatch(stay -> stay.roomId() == roomId);
+    }
+
+    long appliedSequence() {
+        return appliedSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    long rejectedEntries() {
+        return rejectedEntries.get();
+    }
+
+    // How far the database is behind the journal, and how many entries it refused
+    public Map<String, Object> stats() {
+        return Map.of(
+            "enabled", enabled,
+            "lastSequence", lastSequence,
+            "appliedSequence", appliedSequence,
+            "rejectedEntries", rejectedEntries.get()
+        );
+    }
+
+    private <T> T submit(Supplier<T> action) {
+        if (!enabled) {
+            throw new IllegalStateException("Booking sequencer is not enabled");
+        }
+        if (!running) {
+            throw new AppExceptions.BookingSequencerUnavailableException("Booking sequencer is not running");
+        }
+        Command<T> command = new Command<>(action);
+        if (!ring.offer(command)) {
+            logger.warn("Booking sequencer ring is full, rejecting command");
+            throw new AppExceptions.BookingQueueFullException("Too many bookings in flight, please retry");
+        }
+        try {
+            return command.future.get(submitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (command.abandon()) {
+                logger.warn("Booking sequencer did not start a command within {} ms, dropping it", submitTimeoutMillis);
+                throw new AppExceptions.BookingSequencerUnavailableException("Booking sequencer is busy, please retry");
+            }
+            // already running, and its batch is answered either way
+            return unwrap(command.future::join);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            command.abandon();
+            throw new AppExceptions.BookingSequencerUnavailableException("Interrupted waiting for the booking sequencer");
+        }
+    }
+
+    private static <T> T unwrap(Supplier<T> join) {
+        try {
+            return join.get();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runSequencer() {
+        List<Command<?>> batch = new ArrayList<>(batchSize);
+        while (running || !ring.isEmpty()) {
+            try {
+                Command<?> first = ring.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                ring.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // stop taking commands rather than carry on from stays that may be half-changed
+                logger.error("Booking sequencer failed, failing {} commands and stopping: {}", batch.size(), e.getMessage(), e);
+                failed = true;
+                running = false;
+                batch.forEach(command -> command.future.completeExceptionally(e));
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        Command<?> leftover;
+        while ((leftover = ring.poll()) != null) {
+            leftover.future.completeExceptionally(
+                new AppExceptions.BookingSequencerUnavailableException("Booking sequencer stopped"));
+        }
+    }
+
+    // Run the batch, force its journal records once, then answer every caller
+    void process(List<Command<?>> batch) {
+        long batchSequence = lastSequence;
+        int batchStart = journal.size();
+        for (Command<?> command : batch) {
+            command.run();
+        }
+        if (!batchEntries.isEmpty()) {
+            try {
+                if (syncEachBatch) {
+                    journal.force();
+                }
+                unapplied.addAll(batchEntries);
+                sinceSnapshot.addAll(batchEntries);
+                batchEffects.forEach(Runnable::run);
+            } catch (UncheckedIOException e) {
+                // nothing of the batch is known to be on disk, so none of it may be acknowledged
+                logger.error("Failed to sync booking journal, failing {} commands: {}", batch.size(), e.getMessage(), e);
+                for (int i = batchUndo.size() - 1; i >= 0; i--) {
+                    batchUndo.get(i).run();
+                }
+                journal.truncate(batchStart);
+                lastSequence = batchSequence;
+                batch.forEach(command -> command.fail(e));
+            } finally {
+                batchEntries.clear();
+                batchUndo.clear();
+                batchEffects.clear();
+            }
+        }
+        batch.forEach(Command::complete);
+        if (sinceSnapshot.size() >= snapshotEvery && appliedSequence > snapshotSequence) {
+            takeSnapshot();
+        }
+    }
+
+    private List<Reservation> bookAll(List<ReservationRequest> requests, boolean held) {
+        List<BookingJournal.Stay> booked = new ArrayList<>(requests.size());
+        try {
+            for (ReservationRequest request : requests) {
+                RoomCatalog.Entry room = requireRoom(request.getRoomId());
+                validate(request);
+                if (!held && !occupancyIndex.tryOccupy(room.id(), request.getCheckInDate(), request.getCheckOutDate())) {
+                    logger.warn("Room {} is already booked for dates between {} and {}",
+                        room.roomNumber(), request.getCheckInDate(), request.getCheckOutDate());
+                    throw new AppExceptions.RoomAlreadyBookedException("Room is already booked for these dates");
+                }
+                long id = reservationIds.getAsLong();
+                if (stays.containsKey(id)) {
+                    throw new IllegalStateException("Reservation id " + id + " is already in use");
+                }
+                booked.add(new BookingJournal.Stay(id, room.id(), request.getCheckInDate(),
+                    request.getCheckOutDate(), request.getGuestName(), request.getGuestEmail(), CONFIRMED));
+            }
+            append(BookingJournal.BOOK, booked);
+        } catch (RuntimeException e) {
+            if (!held) {
+                booked.forEach(stay -> occupancyIndex.release(stay.roomId(), stay.checkIn(), stay.checkOut()));
+            }
+            throw e;
+        }
+        List<Reservation> reservations = new ArrayList<>(booked.size());
+        for (BookingJournal.Stay stay : booked) {
+            stays.put(stay.id(), stay);
+            batchUndo.add(() -> {
+                stays.remove(stay.id());
+                if (!held) {
+                    occupancyIndex.release(stay.roomId(), stay.checkIn(), stay.checkOut());
+                }
+            });
+            batchEffects.add(() -> {
+                stats.reservationAdded(stay.guestEmail(), stay.checkIn(), stay.checkOut(), stay.status());
+                roomStatusBroadcaster.roomBooked(stay.roomId(), stay.checkIn(), stay.checkOut());
+            });
+            reservations.add(toReservation(stay));
+        }
+        return reservations;
+    }
+
+    private ReservationRequest updateStay(Long id, ReservationRequest request) {
+        BookingJournal.Stay before = requireStay(id);
+        RoomCatalog.Entry room = requireRoom(request.getRoomId());
+        validate(request);
+        BookingJournal.Stay after = new BookingJournal.Stay(id, room.id(), request.getCheckInDate(),
+            request.getCheckOutDate(), request.getGuestName(), request.getGuestEmail(), before.status());
+        boolean moved = before.roomId() != after.roomId() || !before.checkIn().equals(after.checkIn()) ||
+            !before.checkOut().equals(after.checkOut());
+        if (moved && !occupancyIndex.tryMove(before.roomId(), before.checkIn(), before.checkOut(),
+            after.roomId(), after.checkIn(), after.checkOut())) {
+            logger.warn("Room {} is already booked for dates between {} and {}",
+                room.roomNumber(), request.getCheckInDate(), request.getCheckOutDate());
+            throw new AppExceptions.RoomAlreadyBookedException("Room is already booked for these dates");
+        }
+        try {
+            append(BookingJournal.UPDATE, List.of(before, after));
+        } catch (RuntimeException e) {
+            if (moved) {
+                occupancyIndex.tryMove(after.roomId(), after.checkIn(), after.checkOut(),
+                    before.roomId(), before.checkIn(), before.checkOut());
+            }
+            throw e;
+        }
+        stays.put(id, after);
+        batchUndo.add(() -> {
+            stays.put(id, before);
+            if (moved) {
+                occupancyIndex.tryMove(after.roomId(), after.checkIn(), after.checkOut(),
+                    before.roomId(), before.checkIn(), before.checkOut());
+            }
+        });
+        batchEffects.add(() -> {
+            stats.reservationRemoved(before.guestEmail(), before.checkIn(), before.checkOut(), before.status());
+            stats.reservationAdded(after.guestEmail(), after.checkIn(), after.checkOut(), after.status());
+            if (moved) {
+                roomStatusBroadcaster.roomReleased(before.roomId(), before.checkIn(), before.checkOut());
+                roomStatusBroadcaster.roomBooked(after.roomId(), after.checkIn(), after.checkOut());
+            }
+        });
+        request.setId(id);
+        return request;
+    }
+
+    private Void cancelStay(Long id) {
+        BookingJournal.Stay stay = requireStay(id);
+        append(BookingJournal.CANCEL, List.of(stay));
+        stays.remove(id);
+        occupancyIndex.release(stay.roomId(), stay.checkIn(), stay.checkOut());
+        batchUndo.add(() -> {
+            stays.put(id, stay);
+            occupancyIndex.tryOccupy(stay.roomId(), stay.checkIn(), stay.checkOut());
+        });
+        batchEffects.add(() -> {
+            stats.reservationRemoved(stay.guestEmail(), stay.checkIn(), stay.checkOut(), stay.status());
+            roomStatusBroadcaster.roomReleased(stay.roomId(), stay.checkIn(), stay.checkOut());
+        });
+        return null;
+    }
+
+    private void append(byte type, List<BookingJournal.Stay> changed) {
+        BookingJournal.Entry entry = new BookingJournal.Entry(lastSequence + 1, type, List.copyOf(changed));
+        try {
+            journal.append(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write booking journal", e);
+        }
+        lastSequence = entry.sequence();
+        batchEntries.add(entry);
+    }
+
+    // Highest reservation id in the stays, the journal (cancelled stays included) and the database
+    private long highestReservationId(List<BookingJournal.Entry> journaled) {
+        long highest = applier.maxReservationId();
+        for (Long id : stays.keySet()) {
+            highest = Math.max(highest, id);
+        }
+        for (BookingJournal.Entry entry : journaled) {
+            for (BookingJournal.Stay stay : entry.stays()) {
+                highest = Math.max(highest, stay.id());
+            }
+        }
+        return highest;
+    }
+
+    // Apply a recovered journal entry to the stays
+    private void replay(BookingJournal.Entry entry) {
+        switch (entry.type()) {
+            case BookingJournal.BOOK -> entry.stays().forEach(stay -> stays.put(stay.id(), stay));
+            case BookingJournal.UPDATE -> {
+                BookingJournal.Stay after = entry.stays().get(1);
+                stays.put(after.id(), after);
+            }
+            case BookingJournal.CANCEL -> entry.stays().forEach(stay -> stays.remove(stay.id()));
+            default -> throw new IllegalStateException("Unknown journal entry type " + entry.type());
+        }
+    }
+
+    // Take a journal entry back out of a copy of the stays
+    private static void undo(BookingJournal.Entry entry, Map<Long, BookingJournal.Stay> copy) {
+        switch (entry.type()) {
+            case BookingJournal.BOOK -> entry.stays().forEach(stay -> copy.remove(stay.id()));
+            case BookingJournal.UPDATE -> {
+                BookingJournal.Stay before = entry.stays().get(0);
+                copy.put(before.id(), before);
+            }
+            case BookingJournal.CANCEL -> entry.stays().forEach(stay -> copy.put(stay.id(), stay));
+            default -> throw new IllegalStateException("Unknown journal entry type " + entry.type());
+        }
+    }
+
+    // Snapshot the stays as of the last entry the database has and keep only the entries after it,
+    // so the journal stays short even when the database never quite catches up
+    private void takeSnapshot() {
+        long applied = appliedSequence;
+        Map<Long, BookingJournal.Stay> copy = new HashMap<>(stays);
+        List<BookingJournal.Entry> kept = new ArrayList<>();
+        sinceSnapshot.descendingIterator().forEachRemaining(entry -> {
+            if (entry.sequence() > applied) {
+                undo(entry, copy);
+                kept.add(entry);
+            }
+        });
+        Collections.reverse(kept);
+        try {
+            journal.writeSnapshot(applied, copy.values());
+            journal.compact(kept);
+            sinceSnapshot.clear();
+            sinceSnapshot.addAll(kept);
+            snapshotSequence = applied;
+        } catch (IOException e) {
+            logger.error("Failed to write booking snapshot, keeping the journal: {}", e.getMessage(), e);
+        }
+    }
+
+    private void runApplier() {
+        List<BookingJournal.Entry> batch = new ArrayList<>();
+        while (applying || !unapplied.isEmpty()) {
+            try {
+                BookingJournal.Entry first = unapplied.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                unapplied.drainTo(batch, 511);
+                while (!applyBatch(batch) && applying) {
+                    Thread.sleep(APPLY_RETRY_MILLIS);
+                }
+                if (!applying && appliedSequence != batch.get(batch.size() - 1).sequence()) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean applyBatch(List<BookingJournal.Entry> batch) {
+        try {
+            applier.apply(batch);
+            appliedSequence = batch.get(batch.size() - 1).sequence();
+            return true;
+        } catch (NonTransientDataAccessException e) {
+            // retrying the batch would fail the same way, so find the entry the database refuses
+            logger.warn("Database refused a batch of {} journal entries, writing them one by one: {}",
+                batch.size(), e.getMessage());
+            return applyEach(batch);
+        } catch (RuntimeException e) {
+            // keep the entries; they stay in the journal until the database has them
+            logger.error("Failed to write {} journal entries to the database, retrying: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean applyEach(List<BookingJournal.Entry> batch) {
+        for (BookingJournal.Entry entry : batch) {
+            if (entry.sequence() <= appliedSequence) {
+                continue;
+            }
+            try {
+                applyOrReject(entry);
+            } catch (RuntimeException e) {
+                logger.error("Failed to write journal entry {} to the database, retrying: {}", entry.sequence(), e.getMessage());
+                return false;
+            }
+            appliedSequence = entry.sequence();
+        }
+        return true;
+    }
+
+    private void applyOrReject(BookingJournal.Entry entry) {
+        try {
+            applier.apply(List.of(entry));
+        } catch (NonTransientDataAccessException e) {
+            reject(entry, e);
+        }
+    }
+
+    // Set an entry the database refuses aside and move the database past it
+    private void reject(BookingJournal.Entry entry, NonTransientDataAccessException cause) {
+        rejectedEntries.incrementAndGet();
+        Path rejected = directory.resolve("bookings.rejected");
+        logger.error("Database refused booking journal entry {}, moved it to {}: {}", entry, rejected, cause.getMessage(), cause);
+        try {
+            Files.writeString(rejected, Instant.now() + " " + entry + " " + cause.getMostSpecificCause().getMessage()
+                + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Failed to write rejected journal entry {} to {}: {}", entry.sequence(), rejected, e.getMessage());
+        }
+        applier.skip(entry.sequence());
+    }
+
+    private RoomCatalog.Entry requireRoom(Long roomId) {
+        return roomCatalog.get(roomId).orElseThrow(() -> {
+            logger.error("Room not found with ID: {}", roomId);
+            return new AppExceptions.RoomNotFoundException("Room not found");
+        });
+    }
+
+    private BookingJournal.Stay requireStay(Long id) {
+        BookingJournal.Stay stay = stays.get(id);
+        if (stay == null) {
+            logger.error("Reservation not found with ID: {}", id);
+            throw new AppExceptions.ReservationNotFoundException("Reservation not found");
+        }
+        return stay;
+    }
+
+    // Everything the reservation table enforces, checked before the command is journaled
+    private static void validate(ReservationRequest request) {
+        if (request.getCheckInDate() == null || request.getCheckOutDate() == null ||
+            !request.getCheckInDate().isBefore(request.getCheckOutDate())) {
+            throw new AppExceptions.InvalidBookingException("Check-in date must be before check-out date");
+        }
+        if (tooLong(request.getGuestName()) || tooLong(request.getGuestEmail())) {
+            throw new AppExceptions.InvalidBookingException(
+                "Guest name and email must be at most " + MAX_GUEST_FIELD_LENGTH + " characters");
+        }
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_GUEST_FIELD_LENGTH;
+    }
+
+    private Reservation toReservation(BookingJournal.Stay stay) {
+        Room room = roomCatalog.get(stay.roomId())
+            .map(entry -> new Room(entry.id(), entry.roomNumber(), entry.type(), entry.price(), false))
+            .orElseGet(() -> {
+                Room unknown = new Room();
+                unknown.setId(stay.roomId());
+                return unknown;
+            });
+        return new Reservation(stay.id(), stay.guestName(), stay.guestEmail(), room,
+            stay.checkIn(), stay.checkOut(), stay.status());
+    }
+
+    static final class Command<T> {
+        private final Supplier<T> action;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        // claimed by whichever comes first: the sequencer starting it or the caller giving up on it
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private T result;
+        private RuntimeException failure;
+
+        Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        // the caller stopped waiting; false if the command has already started
+        boolean abandon() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            future.completeExceptionally(
+                new AppExceptions.BookingSequencerUnavailableException("Booking sequencer is busy, please retry"));
+            return true;
+        }
+
+        void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                result = action.get();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        // the command ran, but its batch could not be made durable
+        void fail(RuntimeException cause) {
+            if (failure == null) {
+                failure = cause;
+            }
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hashed timing wheel: each timeout is hashed by its expiry tick into one of wheelSize buckets,
+// and a tick only visits its own bucket. Scheduling and cancelling are O(1), and expiring costs
+// O(1) per timeout in the bucket, however many timeouts are pending in total. Timeouts more
+// than one revolution away wait out the extra rounds in their bucket.
+// Not thread-safe on its own; callers synchronize.
+final class HashedTimingWheel<T> {
+
+    // Handle of a scheduled timeout, used to cancel it
+    static final class Timeout<T> {
+        private final T item;
+        private final int bucket;
+        private long rounds;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean linked = true;
+
+        private Timeout(T item, int bucket, long rounds) {
+            this.item = item;
+            this.bucket = bucket;
+            this.rounds = rounds;
+        }
+
+        T item() {
+            return item;
+        }
+    }
+
+    private final long startMs;
+    private final long tickMs;
+    private final int mask;
+    private final Timeout<T>[] heads;
+    // next tick to be processed, counted from startMs
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(long startMs, long tickMs, int wheelSize) {
+        int buckets = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.startMs = startMs;
+        this.tickMs = tickMs;
+        this.mask = buckets - 1;
+        this.heads = new Timeout[buckets];
+    }
+
+    // Fire the item once the clock reaches deadlineMs (at the first tick after it)
+    Timeout<T> schedule(T item, long deadlineMs) {
+        long deadlineTick = Math.max(currentTick, Math.floorDiv(deadlineMs - startMs + tickMs - 1, tickMs));
+        long ticks = deadlineTick - currentTick;
+        Timeout<T> timeout = new Timeout<>(item, (int) (deadlineTick & mask), ticks / heads.length);
+        timeout.next = heads[timeout.bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        heads[timeout.bucket] = timeout;
+        size++;
+        return timeout;
+    }
+
+    // Remove a timeout that has not fired yet; returns false when it already fired or was cancelled
+    boolean cancel(Timeout<T> timeout) {
+        if (!timeout.linked) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    // Process every tick up to nowMs and return the items whose deadline has passed
+    List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMs - startMs, tickMs);
+        while (currentTick <= targetTick) {
+            Timeout<T> timeout = heads[(int) (currentTick & mask)];
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.rounds <= 0) {
+                    unlink(timeout);
+                    expired.add(timeout.item);
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            heads[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.linked = false;
+        size--;
+    }
+}
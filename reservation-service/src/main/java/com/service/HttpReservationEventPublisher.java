@@ -0,0 +1,57 @@
+package com.service;
+
+import com.dto.ReservationEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+// Pushes each batch of reservation events to the subscriber URLs as a JSON array. Subscribers
+// authenticate the call with the shared token in X-Event-Token. Any error or non-2xx answer fails
+// the batch, which the relay then offers again to every subscriber.
+@Component
+public class HttpReservationEventPublisher implements ReservationEventPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(HttpReservationEventPublisher.class);
+
+    public static final String TOKEN_HEADER = "X-Event-Token";
+
+    private final RestTemplate restTemplate;
+    private final List<String> subscribers;
+    private final String token;
+
+    public HttpReservationEventPublisher(RestTemplateBuilder restTemplateBuilder,
+                                         @Value("${reservation.outbox.subscribers:}") List<String> subscribers,
+                                         @Value("${reservation.outbox.subscriber-token:}") String token,
+                                         @Value("${reservation.outbox.subscriber-timeout-ms:5000}") long timeoutMillis) {
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofMillis(timeoutMillis))
+            .setReadTimeout(Duration.ofMillis(timeoutMillis))
+            .build();
+        this.subscribers = subscribers.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        this.token = token;
+        logger.info("Reservation events go to {} subscribers", this.subscribers.size());
+    }
+
+    @Override
+    public void publish(List<ReservationEvent> events) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(TOKEN_HEADER, token);
+        HttpEntity<List<ReservationEvent>> request = new HttpEntity<>(events, headers);
+        for (String url : subscribers) {
+            restTemplate.postForEntity(url, request, Void.class);
+            logger.debug("Sent {} reservation events to {}", events.size(), url);
+        }
+    }
+}
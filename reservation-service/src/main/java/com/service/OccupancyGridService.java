@@ -0,0 +1,142 @@
+package com.service;
+
+import com.dto.OccupancyGrid;
+import com.exception.AppExceptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Builds the rooms-by-nights occupancy grid from the in-memory calendars.
+// Rows are encoded in parallel on the common fork-join pool, a slice of rooms per task.
+@Service
+public class OccupancyGridService {
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyGridService.class);
+
+    public static final int DEFAULT_DAYS = 90;
+    public static final int MAX_DAYS = 366;
+
+    // rooms encoded per task before the work is split further
+    static final int ROOMS_PER_TASK = 64;
+
+    private final RoomCatalog roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+
+    public OccupancyGridService(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+    }
+
+    // Occupancy of every room for the nights [from, from + days), rows ordered by room number
+    public OccupancyGrid buildGrid(LocalDate from, int days, String encoding) {
+        logger.info("Building {} occupancy grid for {} days from {}", encoding, days, from);
+        if (days < 1 || days > MAX_DAYS) {
+            throw new AppExceptions.InvalidBookingException("days must be between 1 and " + MAX_DAYS);
+        }
+        if (!OccupancyGrid.BITSET.equals(encoding) && !OccupancyGrid.RLE.equals(encoding)) {
+            throw new AppExceptions.InvalidBookingException("encoding must be bitset or rle");
+        }
+
+        List<RoomCatalog.Entry> rooms = new ArrayList<>(roomCatalog.all());
+        rooms.sort(Comparator.comparing(RoomCatalog.Entry::roomNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        OccupancyGrid.Row[] rows = new OccupancyGrid.Row[rooms.size()];
+        RowTask task = new RowTask(rooms, rows, from, days, OccupancyGrid.RLE.equals(encoding), 0, rows.length);
+        if (rows.length <= ROOMS_PER_TASK) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return new OccupancyGrid(from, days, encoding, Arrays.asList(rows));
+    }
+
+    private OccupancyGrid.Row encodeRow(RoomCatalog.Entry room, LocalDate from, int days, boolean runLength) {
+        long[] bits = occupancyIndex.occupancyBits(room.id(), from, days);
+        int booked = 0;
+        for (long word : bits) {
+            booked += Long.bitCount(word);
+        }
+        if (runLength) {
+            return new OccupancyGrid.Row(room.id(), room.roomNumber(), room.type(), booked, null, runLengths(bits, days));
+        }
+        return new OccupancyGrid.Row(room.id(), room.roomNumber(), room.type(), booked, toBase64(bits, days), null);
+    }
+
+    // little-endian bytes of the bitmap, trimmed to ceil(days / 8)
+    static String toBase64(long[] bits, int days) {
+        byte[] bytes = new byte[(days + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (bits[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    // alternating free/booked run lengths, found by counting trailing zeros of the bitmap or its complement
+    static int[] runLengths(long[] bits, int days) {
+        List<Integer> runs = new ArrayList<>();
+        boolean booked = false;
+        int position = 0;
+        while (position < days) {
+            int end = nextFlip(bits, position, booked, days);
+            runs.add(end - position);
+            position = end;
+            booked = !booked;
+        }
+        return runs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // first position at or after position whose bit differs from booked, or days
+    private static int nextFlip(long[] bits, int position, boolean booked, int days) {
+        int index = position >>> 6;
+        long word = (booked ? ~bits[index] : bits[index]) & (-1L << (position & 63));
+        while (word == 0) {
+            if (++index == bits.length) {
+                return days;
+            }
+            word = booked ? ~bits[index] : bits[index];
+        }
+        return Math.min(days, (index << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    // Encodes rows[from, to), halving the range until it is small enough to loop over
+    private final class RowTask extends RecursiveAction {
+        private final List<RoomCatalog.Entry> rooms;
+        private final OccupancyGrid.Row[] rows;
+        private final LocalDate start;
+        private final int days;
+        private final boolean runLength;
+        private final int from;
+        private final int to;
+
+        RowTask(List<RoomCatalog.Entry> rooms, OccupancyGrid.Row[] rows, LocalDate start, int days, boolean runLength,
+                int from, int to) {
+            this.rooms = rooms;
+            this.rows = rows;
+            this.start = start;
+            this.days = days;
+            this.runLength = runLength;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROOMS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    rows[i] = encodeRow(rooms.get(i), start, days, runLength);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowTask(rooms, rows, start, days, runLength, from, middle),
+                new RowTask(rooms, rows, start, days, runLength, middle, to));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.service;
+
+import com.model.Room;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Notified by RoomOccupancyIndex whenever a room or its availability may have changed.
+// Calls happen on the writing thread, inside the room lock and usually inside the booking transaction.
+public interface OccupancyListener {
+
+    // The nights [from, to) of the room changed; both dates are null when the room itself was
+    // added, edited or removed and any of its dates may be affected
+    void onRoomChanged(Long roomId, LocalDate from, LocalDate to);
+
+    // A room was added or edited; called before onRoomChanged for the same room
+    default void onRoomSaved(Room room) {
+    }
+
+    // A room was deleted; called before onRoomChanged for the same room
+    default void onRoomRemoved(Long roomId) {
+    }
+
+    // The whole index was rebuilt from the database with these rooms
+    default void onRebuild(List<Room> rooms) {
+    }
+}
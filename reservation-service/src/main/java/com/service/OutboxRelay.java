@@ -0,0 +1,148 @@
+package com.service;
+
+import com.dto.ReservationEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.OutboxEvent;
+import com.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Moves committed reservation events from the outbox to the subscribers: a background thread reads
+// the oldest unpublished rows in batches, hands each batch to every publisher and then marks it
+// published. A failed publish leaves the batch where it is for the next poll, so events are
+// delivered at least once and in the order they were written. Published rows are kept for a while
+// and then purged.
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final List<ReservationEventPublisher> publishers;
+    private final boolean enabled;
+    private final long pollMillis;
+    private final int batchSize;
+    private final long retentionMillis;
+    private final LongSupplier clockMillis;
+
+    private ScheduledExecutorService relay;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository repository, ObjectMapper objectMapper,
+                       List<ReservationEventPublisher> publishers,
+                       @Value("${reservation.outbox.enabled:true}") boolean enabled,
+                       @Value("${reservation.outbox.poll-ms:500}") long pollMillis,
+                       @Value("${reservation.outbox.batch-size:100}") int batchSize,
+                       @Value("${reservation.outbox.retention-ms:86400000}") long retentionMillis) {
+        this(repository, objectMapper, publishers, enabled, pollMillis, batchSize, retentionMillis,
+            System::currentTimeMillis);
+    }
+
+    OutboxRelay(OutboxEventRepository repository, ObjectMapper objectMapper, List<ReservationEventPublisher> publishers,
+                boolean enabled, long pollMillis, int batchSize, long retentionMillis, LongSupplier clockMillis) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.publishers = publishers;
+        this.enabled = enabled;
+        this.pollMillis = pollMillis;
+        this.batchSize = batchSize;
+        this.retentionMillis = retentionMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            logger.info("Reservation outbox relay is disabled");
+            return;
+        }
+        relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relay.scheduleWithFixedDelay(this::drain, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::purgePublished, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (relay != null) {
+            relay.shutdownNow();
+        }
+    }
+
+    // Publish batches until the outbox is empty or a publish fails
+    private void drain() {
+        try {
+            int published;
+            do {
+                // a full batch means more may be waiting
+                published = relayOnce();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Reservation events not published, retrying in {} ms: {}", pollMillis, e.getMessage());
+        }
+    }
+
+    // Publish the oldest unpublished batch and mark it published; returns the batch size
+    int relayOnce() {
+        List<OutboxEvent> batch = repository.findUnpublished(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<ReservationEvent> events = new ArrayList<>(batch.size());
+        for (OutboxEvent row : batch) {
+            ReservationEvent event = decode(row);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        if (!events.isEmpty()) {
+            publishers.forEach(publisher -> publisher.publish(events));
+        }
+        repository.markPublished(batch.stream().map(OutboxEvent::getId).toList(),
+            Instant.ofEpochMilli(clockMillis.getAsLong()));
+        logger.debug("Published {} reservation events", events.size());
+        return batch.size();
+    }
+
+    // Drop rows published longer than the retention ago
+    int purgePublished() {
+        try {
+            int purged = repository.deletePublishedBefore(Instant.ofEpochMilli(clockMillis.getAsLong() - retentionMillis));
+            if (purged > 0) {
+                logger.debug("Purged {} published outbox events", purged);
+            }
+            return purged;
+        } catch (RuntimeException e) {
+            logger.warn("Could not purge published outbox events: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    // A row that cannot be read would block the outbox forever, so it is logged and skipped
+    private ReservationEvent decode(OutboxEvent row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), ReservationEvent.class).withEventId(row.getId());
+        } catch (JsonProcessingException e) {
+            logger.error("Skipping unreadable outbox event {}: {}", row.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.service;
+
+import com.dto.Quote;
+import com.dto.QuoteRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Prices many (room or type, stay) questions in one call from the in-memory room catalog and
+// rate calendar. Large batches are split across the common fork-join pool.
+@Service
+public class QuoteService {
+    private static final Logger logger = LoggerFactory.getLogger(QuoteService.class);
+
+    // below this many quotes per task the work is done in a plain loop on the current thread
+    static final int SPLIT_THRESHOLD = 512;
+
+    private final RoomCatalog roomCatalog;
+    private final RateCalendar rateCalendar;
+
+    public QuoteService(RoomCatalog roomCatalog, RateCalendar rateCalendar) {
+        this.roomCatalog = roomCatalog;
+        this.rateCalendar = rateCalendar;
+    }
+
+    // Answer every request, keeping the order of the input
+    public List<Quote> quote(List<QuoteRequest> requests) {
+        logger.info("Pricing {} quotes", requests.size());
+        // cheapest room of each type, taken once so every type quote is a map lookup
+        Map<String, RoomCatalog.Entry> cheapestByType = new HashMap<>();
+        for (RoomCatalog.Entry room : roomCatalog.all()) {
+            if (room.type() != null) {
+                cheapestByType.merge(room.type(), room, (a, b) -> a.price() <= b.price() ? a : b);
+            }
+        }
+
+        Quote[] quotes = new Quote[requests.size()];
+        QuoteTask task = new QuoteTask(requests, quotes, cheapestByType, 0, quotes.length);
+        if (quotes.length <= SPLIT_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        return Arrays.asList(quotes);
+    }
+
+    private Quote quoteOne(QuoteRequest request, Map<String, RoomCatalog.Entry> cheapestByType) {
+        if (request.getCheckIn() == null || request.getCheckOut() == null
+                || !request.getCheckIn().isBefore(request.getCheckOut())) {
+            return Quote.error(request, "Check-in date must be before check-out date");
+        }
+        RoomCatalog.Entry room;
+        if (request.getRoomId() != null) {
+            room = roomCatalog.get(request.getRoomId()).orElse(null);
+            if (room == null) {
+                return Quote.error(request, "Room not found");
+            }
+        } else if (request.getType() != null) {
+            room = cheapestByType.get(request.getType());
+            if (room == null) {
+                return Quote.error(request, "No rooms of type " + request.getType());
+            }
+        } else {
+            return Quote.error(request, "Either roomId or type is required");
+        }
+        long nights = request.getCheckOut().toEpochDay() - request.getCheckIn().toEpochDay();
+        double total = rateCalendar.stayTotal(room.type(), room.price(), request.getCheckIn(), request.getCheckOut());
+        return new Quote(room.id(), room.roomNumber(), room.type(), request.getCheckIn(), request.getCheckOut(),
+            nights, total, null);
+    }
+
+    // Fills quotes[from, to), halving the range until it is small enough to loop over
+    private final class QuoteTask extends RecursiveAction {
+        private final List<QuoteRequest> requests;
+        private final Quote[] quotes;
+        private final Map<String, RoomCatalog.Entry> cheapestByType;
+        private final int from;
+        private final int to;
+
+        QuoteTask(List<QuoteRequest> requests, Quote[] quotes, Map<String, RoomCatalog.Entry> cheapestByType,
+                  int from, int to) {
+            this.requests = requests;
+            this.quotes = quotes;
+            this.cheapestByType = cheapestByType;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    quotes[i] = quoteOne(requests.get(i), cheapestByType);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new QuoteTask(requests, quotes, cheapestByType, from, middle),
+                new QuoteTask(requests, quotes, cheapestByType, middle, to));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.service;
+
+import com.model.RateOverride;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Per room type, per night price overrides (weekends, seasons, events) with O(1) stay totals.
+// For every type the overridden nights are folded into two prefix-sum arrays over one dense span:
+// the sum of override prices and the number of overridden nights. A stay then costs
+//   basePrice * (nights - overriddenNights) + overridePriceSum
+// where both terms are a difference of two array entries. Readers use the latest immutable
+// snapshot without locking; writers rebuild the snapshot of the one type they changed.
+@Component
+public class RateCalendar {
+    private static final Logger logger = LoggerFactory.getLogger(RateCalendar.class);
+
+    // Prefix sums over the nights [originDay, originDay + span), index i covering nights before originDay + i
+    private record Snapshot(long originDay, double[] priceSums, int[] nightCounts) {
+
+        static final Snapshot EMPTY = new Snapshot(0, new double[1], new int[1]);
+
+        int span() {
+            return nightCounts.length - 1;
+        }
+
+        int index(long day) {
+            return (int) (Math.min(Math.max(day, originDay), originDay + span()) - originDay);
+        }
+    }
+
+    // source of truth for each type, epoch day -> price, guarded by the map itself
+    private final ConcurrentHashMap<String, NavigableMap<Long, Double>> overrides = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Replace every override with the given ones
+    public void load(List<RateOverride> rows) {
+        logger.info("Loading {} nightly rate overrides", rows.size());
+        overrides.clear();
+        snapshots.clear();
+        for (RateOverride row : rows) {
+            overrides.computeIfAbsent(row.getRoomType(), type -> new TreeMap<>()).put(row.getNight().toEpochDay(), row.getPrice());
+        }
+        overrides.forEach((type, nights) -> snapshots.put(type, snapshotOf(nights)));
+    }
+
+    // Price every night in [from, to) of the room type at the given rate
+    public void setRate(String roomType, LocalDate from, LocalDate to, double price) {
+        update(roomType, nights -> {
+            for (long day = from.toEpochDay(); day < to.toEpochDay(); day++) {
+                nights.put(day, price);
+            }
+        });
+    }
+
+    // Drop the overrides of the room type in [from, to), falling back to each room's own price
+    public void clearRate(String roomType, LocalDate from, LocalDate to) {
+        update(roomType, nights -> nights.subMap(from.toEpochDay(), to.toEpochDay()).clear());
+    }
+
+    // Total price of a stay in a room of the given type and base price
+    public double stayTotal(String roomType, double basePrice, LocalDate checkIn, LocalDate checkOut) {
+        long fromDay = checkIn.toEpochDay();
+        long toDay = checkOut.toEpochDay();
+        long nights = Math.max(0, toDay - fromDay);
+        Snapshot snapshot = roomType == null ? null : snapshots.get(roomType);
+        if (snapshot == null || nights == 0) {
+            return nights * basePrice;
+        }
+        int lo = snapshot.index(fromDay);
+        int hi = snapshot.index(toDay);
+        int overridden = snapshot.nightCounts()[hi] - snapshot.nightCounts()[lo];
+        double overrideSum = snapshot.priceSums()[hi] - snapshot.priceSums()[lo];
+        return (nights - overridden) * basePrice + overrideSum;
+    }
+
+    // Overridden nights of the room type in [from, to)
+    public Map<LocalDate, Double> overridesFor(String roomType, LocalDate from, LocalDate to) {
+        Map<LocalDate, Double> result = new TreeMap<>();
+        NavigableMap<Long, Double> nights = overrides.get(roomType);
+        if (nights != null) {
+            synchronized (nights) {
+                nights.subMap(from.toEpochDay(), to.toEpochDay())
+                    .forEach((day, price) -> result.put(LocalDate.ofEpochDay(day), price));
+            }
+        }
+        return result;
+    }
+
+    private void update(String roomType, Consumer<NavigableMap<Long, Double>> change) {
+        NavigableMap<Long, Double> nights = overrides.computeIfAbsent(roomType, type -> new TreeMap<>());
+        synchronized (nights) {
+            change.accept(nights);
+            snapshots.put(roomType, snapshotOf(nights));
+        }
+        logger.debug("Rate calendar for {} now has {} overridden nights", roomType, nights.size());
+    }
+
+    private static Snapshot snapshotOf(NavigableMap<Long, Double> nights) {
+        if (nights.isEmpty()) {
+            return Snapshot.EMPTY;
+        }
+        long origin = nights.firstKey();
+        int span = (int) (nights.lastKey() - origin + 1);
+        double[] priceSums = new double[span + 1];
+        int[] nightCounts = new int[span + 1];
+        for (int i = 0; i < span; i++) {
+            Double price = nights.get(origin + i);
+            priceSums[i + 1] = priceSums[i] + (price == null ? 0 : price);
+            nightCounts[i + 1] = nightCounts[i] + (price == null ? 0 : 1);
+        }
+        return new Snapshot(origin, priceSums, nightCounts);
+    }
+}
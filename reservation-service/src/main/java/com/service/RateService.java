@@ -0,0 +1,99 @@
+package com.service;
+
+import com.dto.RateRequest;
+import com.exception.AppExceptions;
+import com.model.RateOverride;
+import com.repository.RateOverrideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Manages nightly rate overrides: stores them in the database and keeps the RateCalendar in step
+@Service
+public class RateService {
+    private static final Logger logger = LoggerFactory.getLogger(RateService.class);
+
+    // longest range one request may price, to keep a typo from writing decades of rows
+    static final int MAX_NIGHTS_PER_REQUEST = 366;
+
+    private final RateOverrideRepository rateRepo;
+    private final RateCalendar rateCalendar;
+
+    public RateService(RateOverrideRepository rateRepo, RateCalendar rateCalendar) {
+        this.rateRepo = rateRepo;
+        this.rateCalendar = rateCalendar;
+    }
+
+    // Load the rate calendar from the database once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRateCalendar() {
+        logger.info("Loading rate calendar");
+        rateCalendar.load(rateRepo.findAll());
+    }
+
+    // Price every night in [from, to) of the room type at the requested rate
+    @Transactional
+    public void setRate(String roomType, RateRequest request) {
+        validateRange(request.getFrom(), request.getTo());
+        logger.info("Setting {} rate to {} from {} to {}", roomType, request.getPrice(), request.getFrom(), request.getTo());
+
+        rateRepo.deleteRange(roomType, request.getFrom(), request.getTo());
+        List<RateOverride> rows = new ArrayList<>();
+        for (LocalDate night = request.getFrom(); night.isBefore(request.getTo()); night = night.plusDays(1)) {
+            rows.add(new RateOverride(null, roomType, night, request.getPrice()));
+        }
+        rateRepo.saveAll(rows);
+        afterCommit(() -> rateCalendar.setRate(roomType, request.getFrom(), request.getTo(), request.getPrice()));
+    }
+
+    // Remove the overrides of the room type in [from, to)
+    @Transactional
+    public void clearRate(String roomType, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        logger.info("Clearing {} rates from {} to {}", roomType, from, to);
+
+        int removed = rateRepo.deleteRange(roomType, from, to);
+        logger.debug("Removed {} rate overrides", removed);
+        afterCommit(() -> rateCalendar.clearRate(roomType, from, to));
+    }
+
+    // Overridden nightly prices of the room type in [from, to)
+    public Map<LocalDate, Double> getRates(String roomType, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return rateCalendar.overridesFor(roomType, from, to);
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new AppExceptions.InvalidRateException("Rate range needs a from date before its to date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_NIGHTS_PER_REQUEST) {
+            throw new AppExceptions.InvalidRateException("Rate range may cover at most " + MAX_NIGHTS_PER_REQUEST + " nights");
+        }
+    }
+
+    // Prices only change in memory once the rows are committed
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
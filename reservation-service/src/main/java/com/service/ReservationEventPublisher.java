@@ -0,0 +1,14 @@
+package com.service;
+
+import com.dto.ReservationEvent;
+
+import java.util.List;
+
+// Receives batches of reservation events from the outbox relay. A batch counts as delivered once
+// publish returns; throwing leaves it in the outbox to be offered again, so delivery is at least
+// once and subscribers must tolerate repeats (the event id identifies them).
+public interface ReservationEventPublisher {
+
+    // Events of one batch, oldest first
+    void publish(List<ReservationEvent> events);
+}
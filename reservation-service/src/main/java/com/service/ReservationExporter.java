@@ -0,0 +1,64 @@
+package com.service;
+
+import com.dto.ReservationExportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes reservations as newline-delimited JSON straight from a database cursor.
+// Only one row is held at a time, so memory use does not depend on the size of the table.
+@Component
+public class ReservationExporter {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExporter.class);
+
+    // flush often enough that the client sees progress, rarely enough not to cost a packet per row
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final ReservationRepository reservationRepo;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public ReservationExporter(ReservationRepository reservationRepo, ObjectMapper objectMapper) {
+        this.reservationRepo = reservationRepo;
+        this.objectMapper = objectMapper;
+        // flushing is done here in chunks, not by Jackson after every row
+        this.rowWriter = objectMapper.writerFor(ReservationExportRow.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Export the matching reservations to the stream, one JSON object per line; returns the row count
+    @Transactional(readOnly = true)
+    public long writeNdjson(LocalDate from, LocalDate to, String status, OutputStream out) throws IOException {
+        logger.info("Exporting reservations from {} to {} with status {}", from, to, status);
+        long rows = 0;
+        try (Stream<ReservationExportRow> stream = reservationRepo.streamForExport(from, to, status);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<ReservationExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                // the first row goes out at once, then in chunks
+                if (++rows == 1 || rows % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        logger.info("Exported {} reservations", rows);
+        return rows;
+    }
+}
@@ -0,0 +1,81 @@
+package com.service;
+
+import com.dto.ReservationEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.OutboxEvent;
+import com.model.Reservation;
+import com.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+
+// Records reservation changes as outbox rows. Callers run inside the transaction that writes the
+// reservation, so the event commits or rolls back together with the change; OutboxRelay publishes
+// it afterwards. Consumers get the whole reservation, room and price included, so they can keep
+// their own copy instead of asking for it. With the outbox disabled nothing is recorded, since
+// the relay would never publish or purge it.
+@Component
+public class ReservationOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationOutbox.class);
+
+    private final OutboxEventRepository repository;
+    private final RoomCatalog roomCatalog;
+    private final RateCalendar rateCalendar;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ReservationOutbox(OutboxEventRepository repository, RoomCatalog roomCatalog, RateCalendar rateCalendar,
+                             ObjectMapper objectMapper,
+                             @Value("${reservation.outbox.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.roomCatalog = roomCatalog;
+        this.rateCalendar = rateCalendar;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public void reservationCreated(Reservation reservation) {
+        record(ReservationEvent.CREATED, reservation);
+    }
+
+    public void reservationUpdated(Reservation reservation) {
+        record(ReservationEvent.UPDATED, reservation);
+    }
+
+    // Called with the reservation as it was before the delete
+    public void reservationCancelled(Reservation reservation) {
+        record(ReservationEvent.CANCELLED, reservation);
+    }
+
+    private void record(String type, Reservation reservation) {
+        if (!enabled) {
+            return;
+        }
+        // only the room's id is read, so a lazy reference is never initialized here
+        Long roomId = reservation.getRoom() == null ? null : reservation.getRoom().getId();
+        Optional<RoomCatalog.Entry> room = roomId == null ? Optional.empty() : roomCatalog.get(roomId);
+        Double totalPrice = room
+            .map(entry -> rateCalendar.stayTotal(entry.type(), entry.price(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate()))
+            .orElse(null);
+        Instant now = Instant.now();
+        ReservationEvent event = new ReservationEvent(null, type, reservation.getId(), roomId,
+            room.map(RoomCatalog.Entry::roomNumber).orElse(null), reservation.getGuestName(), reservation.getGuestEmail(),
+            reservation.getCheckInDate(), reservation.getCheckOutDate(), reservation.getStatus(), totalPrice, now);
+        repository.save(new OutboxEvent(type, reservation.getId(), toJson(event), now));
+        logger.debug("Recorded {} for reservation {} in the outbox", type, reservation.getId());
+    }
+
+    private String toJson(ReservationEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reservation event", e);
+        }
+    }
+}
@@ -1,126 +1,446 @@
 package com.service;
 
+import com.dto.AvailableRoom;
+import com.dto.PageResponse;
+import com.dto.ReservationDetails;
 import com.dto.ReservationRequest;
 import com.dto.RoomRequest;
+import com.dto.StayPeriod;
 import com.model.Reservation;
 import com.model.Room;
 import com.repository.ReservationRepository;
 import com.repository.RoomRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import com.exception.AppExceptions;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class ReservationService {
     // Initilize logger for logging messages
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
+
+    // bounds for the keyset-paginated listings
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
     
     // Dependency injection for reservation and room repositories
     private final ReservationRepository reservationRepo;
     private final RoomRepository roomRepo;
     
-    public ReservationService(ReservationRepository reservationRepo, RoomRepository roomRepo) {
+    // Versioned in-memory snapshot of the room table that answers room lookups
+    private final RoomCatalog roomCatalog;
+    
+    // In-memory per-room occupancy used for availability checks
+    private final RoomOccupancyIndex occupancyIndex;
+    
+    // Per-room locks that serialize bookings of the same room
+    private final RoomLockStripes lockStripes;
+    
+    // Recent availability answers, invalidated through the occupancy index
+    private final AvailabilityCache availabilityCache;
+    
+    // Per-night prices by room type, used for every stay total
+    private final RateCalendar rateCalendar;
+    
+    // Dashboard counters, adjusted by every write below
+    private final ReservationStats stats;
+    
+    // Live room board subscribers, told about every booking and room change
+    private final RoomStatusBroadcaster roomStatusBroadcaster;
+    
+    // Single-writer booking engine that takes over bookings, updates and cancellations when enabled
+    private final BookingSequencer bookingSequencer;
+    
+    // Reservation events written in the same transaction as the change they describe
+    private final ReservationOutbox outbox;
+    
+    // Transactions for the database path of the writes, which the sequencer path does without
+    private final TransactionOperations transactionOperations;
+    
+    public ReservationService(ReservationRepository reservationRepo, RoomRepository roomRepo,
+                              RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, RoomLockStripes lockStripes,
+                              AvailabilityCache availabilityCache, RateCalendar rateCalendar,
+                              ReservationStats stats, RoomStatusBroadcaster roomStatusBroadcaster,
+                              BookingSequencer bookingSequencer, ReservationOutbox outbox,
+                              TransactionOperations transactionOperations) {
         this.reservationRepo = reservationRepo;
         this.roomRepo = roomRepo;
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.lockStripes = lockStripes;
+        this.availabilityCache = availabilityCache;
+        this.rateCalendar = rateCalendar;
+        this.stats = stats;
+        this.roomStatusBroadcaster = roomStatusBroadcaster;
+        this.bookingSequencer = bookingSequencer;
+        this.outbox = outbox;
+        this.transactionOperations = transactionOperations;
         logger.debug("ReservationService initialized");
     }
     
+    // Load the occupancy index and the stats counters from the database once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOccupancyIndex() {
+        logger.info("Loading room occupancy index");
+        List<Room> rooms = roomRepo.findAll();
+        List<Reservation> reservations = reservationRepo.findAll();
+        occupancyIndex.rebuild(rooms, reservations);
+        stats.rebuild(rooms.size(), reservations);
+    }
+    
+    // Recount the stats counters from the database
+    public Map<String, Object> rebuildStats() {
+        logger.info("Rebuilding reservation stats");
+        stats.rebuild((int) roomRepo.count(), reservationRepo.findAll());
+        return stats.snapshot();
+    }
+    
+    // Dashboard totals, served from the incrementally maintained counters
+    public Map<String, Object> getStats() {
+        return stats.snapshot();
+    }
+    
+    // Journal progress of the booking sequencer, including the entries the database refused
+    public Map<String, Object> getSequencerStats() {
+        return bookingSequencer.stats();
+    }
+    
     // Find available rooms 
     public List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
         logger.info("Finding available rooms between {} and {}", checkIn, checkOut);
         
-        List<Reservation> overlapping = reservationRepo.findOverlappingReservations(checkIn, checkOut);
-        logger.debug("Found {} overlapping reservations", overlapping.size());
+        List<Room> availableRooms = availabilityCache.get(AvailabilityCache.Key.rooms(checkIn, checkOut),
+            () -> roomCatalog.all().stream()
+                .filter(room -> occupancyIndex.isFree(room.id(), checkIn, checkOut))
+                .map(RoomCatalog.Entry::toRoom)
+                .toList());
         
-        List<Long> bookedRoomIds = overlapping.stream()
-            .map(res -> res.getRoom().getId())
-            .toList();
-        logger.debug("Booked room IDs: {}", bookedRoomIds);
+        logger.info("Found {} available rooms", availableRooms.size());
+        return availableRooms;
+    }
+    
+    // Count free rooms of each type for the stay from the in-memory per-type nightly counters
+    public Map<String, Integer> findAvailabilityByType(LocalDate checkIn, LocalDate checkOut) {
+        logger.info("Counting available rooms by type between {} and {}", checkIn, checkOut);
+        if (!checkIn.isBefore(checkOut)) {
+            throw new AppExceptions.InvalidBookingException("Check-in date must be before check-out date");
+        }
+        return occupancyIndex.availableByType(checkIn, checkOut);
+    }
+    
+    // Search free rooms in the database, optionally by type and price band
+    public List<AvailableRoom> searchAvailableRooms(LocalDate checkIn, LocalDate checkOut, String type,
+                                                    Double minPrice, Double maxPrice) {
+        logger.info("Searching available rooms between {} and {} (type: {}, price: {} - {})",
+            checkIn, checkOut, type, minPrice, maxPrice);
+        if (!checkIn.isBefore(checkOut)) {
+            throw new AppExceptions.InvalidBookingException("Check-in date must be before check-out date");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new AppExceptions.InvalidBookingException("Minimum price must not exceed maximum price");
+        }
         
-        List<Room> availableRooms = roomRepo.findAll().stream()
-            .filter(room -> !bookedRoomIds.contains(room.getId()))
-            .toList();
+        List<AvailableRoom> availableRooms = availabilityCache.get(
+            AvailabilityCache.Key.search(checkIn, checkOut, type, minPrice, maxPrice),
+            // room holds live only in the occupancy index, so the database answer is filtered through it
+            () -> roomRepo.findAvailableRooms(checkIn, checkOut, type, minPrice, maxPrice).stream()
+                .filter(room -> occupancyIndex.isFree(room.getId(), checkIn, checkOut))
+                .toList());
         
         logger.info("Found {} available rooms", availableRooms.size());
         return availableRooms;
     }
     
-    // Create a new reservation
+    // Create a new reservation. Conflicts are found before anything is written, so they do not doom a
+    // surrounding transaction (the group committer keeps the rest of its batch).
     public Reservation createBooking(ReservationRequest request, String receptionistEmail) {
         logger.info("Creating booking for guest {} requested by {}", request.getGuestName(), receptionistEmail);
         logger.debug("Booking details: room ID={}, check-in={}, check-out={}", 
                  request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
         
-        Room room = roomRepo.findById(request.getRoomId())
-                .orElseThrow(() -> {
-                    logger.error("Room not found with ID: {}", request.getRoomId());
-                    return new AppExceptions.RoomNotFoundException("Room not found");
-                });
+        if (bookingSequencer.isEnabled()) {
+            return bookingSequencer.book(List.of(request)).get(0);
+        }
         
-        logger.debug("Found room: {}, type={}", room.getRoomNumber(), room.getType());
+        Room room = requireRoom(request.getRoomId());
         
-        List<Reservation> overlapping = reservationRepo.findOverlappingReservations(
-            request.getCheckInDate(), request.getCheckOutDate());
+        logger.debug("Found room: {}, type={}", room.getRoomNumber(), room.getType());
         
-        if (overlapping.stream().anyMatch(r -> r.getRoom().getId().equals(room.getId()))) {
+        // check-then-insert runs under the room's lock so two bookings for the same room cannot both pass the check
+        return inTransaction(() -> lockStripes.withRoomLock(room.getId(), () -> bookRoom(room, request)));
+    }
+    
+    // Book the room for the request; caller must hold the room's lock
+    private Reservation bookRoom(Room room, ReservationRequest request) {
+        if (!occupancyIndex.isFree(room.getId(), request.getCheckInDate(), request.getCheckOutDate()) ||
+            reservationRepo.existsOverlappingReservation(
+                room.getId(), request.getCheckInDate(), request.getCheckOutDate())) {
             logger.warn("Room {} is already booked for dates between {} and {}", 
                      room.getRoomNumber(), request.getCheckInDate(), request.getCheckOutDate());
             throw new AppExceptions.RoomAlreadyBookedException("Room is already booked for these dates");
         }
        
         // create a new reservation object to store in the database
-       Reservation reservation = new Reservation();
-       
-       reservation.setGuestName(request.getGuestName());
-       reservation.setGuestEmail(request.getGuestEmail());
-       reservation.setRoom(room);
-       reservation.setCheckInDate(request.getCheckInDate());
-       reservation.setCheckOutDate(request.getCheckOutDate());
-       reservation.setStatus("CONFIRMED");
+        Reservation reservation = newReservation(request, room);
         
         room.setIsAvailable(false);
-        roomRepo.save(room);
+        saveAvailability(room.getId(), false);
         logger.debug("Room availability updated to false");
         
         Reservation savedReservation = reservationRepo.save(reservation);
+        outbox.reservationCreated(savedReservation);
+        occupancyIndex.occupy(room.getId(), request.getCheckInDate(), request.getCheckOutDate());
+        stats.reservationAdded(reservation.getGuestEmail(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+            reservation.getStatus());
+        undoOnRollback(reservation, room.getId());
+        afterCommit(() -> roomStatusBroadcaster.roomBooked(room.getId(), reservation.getCheckInDate(),
+            reservation.getCheckOutDate()));
         logger.info("Reservation created successfully with ID: {}", savedReservation.getId());
         
         return savedReservation;
     }
     
+    // Whether bookings go through the single-writer sequencer
+    public boolean isSequencerEnabled() {
+        return bookingSequencer.isEnabled();
+    }
+    
+    // Book nights a room hold already occupies in the index; only used in sequencer mode, where the
+    // hold's nights are handed over as they are instead of being freed and taken again
+    public Reservation createBookingFromHold(ReservationRequest request, String receptionistEmail) {
+        logger.info("Booking held room {} for guest {} requested by {}", request.getRoomId(), request.getGuestName(),
+            receptionistEmail);
+        return bookingSequencer.bookHeld(request);
+    }
+    
+    // Book a block of rooms at once; either every room is booked or none is
+    public List<Reservation> createGroupBooking(List<ReservationRequest> requests, String receptionistEmail) {
+        logger.info("Creating group booking of {} rooms requested by {}", requests.size(), receptionistEmail);
+        
+        LocalDate earliestCheckIn = null;
+        LocalDate latestCheckOut = null;
+        for (ReservationRequest request : requests) {
+            if (request.getRoomId() == null || request.getCheckInDate() == null || request.getCheckOutDate() == null ||
+                !request.getCheckInDate().isBefore(request.getCheckOutDate())) {
+                logger.warn("Invalid entry in group booking: {}", request);
+                throw new AppExceptions.InvalidBookingException(
+                    "Each booking needs a room ID and a check-in date before its check-out date");
+            }
+            if (earliestCheckIn == null || request.getCheckInDate().isBefore(earliestCheckIn)) {
+                earliestCheckIn = request.getCheckInDate();
+            }
+            if (latestCheckOut == null || request.getCheckOutDate().isAfter(latestCheckOut)) {
+                latestCheckOut = request.getCheckOutDate();
+            }
+        }
+        
+        Set<Long> roomIds = requests.stream().map(ReservationRequest::getRoomId).collect(Collectors.toSet());
+        Map<Long, Room> rooms = roomIds.stream()
+            .map(roomCatalog::get)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toMap(RoomCatalog.Entry::id, RoomCatalog.Entry::toRoom));
+        if (rooms.size() != roomIds.size()) {
+            List<Long> missing = roomIds.stream().filter(id -> !rooms.containsKey(id)).sorted().toList();
+            logger.error("Rooms not found for group booking: {}", missing);
+            throw new AppExceptions.RoomNotFoundException("Room not found: " + missing);
+        }
+        
+        if (bookingSequencer.isEnabled()) {
+            return bookingSequencer.book(requests);
+        }
+        
+        LocalDate from = earliestCheckIn;
+        LocalDate to = latestCheckOut;
+        return inTransaction(() -> lockStripes.withRoomLocks(roomIds, () -> bookRooms(requests, rooms, from, to)));
+    }
+    
+    // Check the whole block in one pass and insert it; caller must hold the locks of every room
+    private List<Reservation> bookRooms(List<ReservationRequest> requests, Map<Long, Room> rooms,
+                                        LocalDate earliestCheckIn, LocalDate latestCheckOut) {
+        List<StayPeriod> existing = reservationRepo.findOverlappingStaysForRooms(
+            rooms.keySet(), earliestCheckIn, latestCheckOut);
+        logger.debug("Found {} existing reservations overlapping the group booking window", existing.size());
+        
+        List<String> conflicts = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationRequest request = requests.get(i);
+            boolean conflict = !occupancyIndex.isFree(request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate()) ||
+                existing.stream().anyMatch(stay -> overlaps(stay.getRoomId(), stay.getCheckInDate(), stay.getCheckOutDate(), request)) ||
+                requests.subList(0, i).stream().anyMatch(other ->
+                    overlaps(other.getRoomId(), other.getCheckInDate(), other.getCheckOutDate(), request));
+            if (conflict) {
+                conflicts.add(rooms.get(request.getRoomId()).getRoomNumber());
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            logger.warn("Group booking rejected, rooms already booked: {}", conflicts);
+            throw new AppExceptions.RoomAlreadyBookedException("Rooms already booked for these dates: " + conflicts);
+        }
+        
+        List<Reservation> reservations = requests.stream()
+            .map(request -> newReservation(request, rooms.get(request.getRoomId())))
+            .toList();
+        rooms.values().forEach(room -> room.setIsAvailable(false));
+        roomRepo.updateAvailabilityForRooms(rooms.keySet(), false);
+        rooms.keySet().forEach(roomId -> afterCommit(() -> roomCatalog.availabilityChanged(roomId, false)));
+        List<Reservation> savedReservations = reservationRepo.saveAll(reservations);
+        savedReservations.forEach(outbox::reservationCreated);
+        
+        for (Reservation reservation : reservations) {
+            Long roomId = reservation.getRoom().getId();
+            occupancyIndex.occupy(roomId, reservation.getCheckInDate(), reservation.getCheckOutDate());
+            stats.reservationAdded(reservation.getGuestEmail(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getStatus());
+            undoOnRollback(reservation, roomId);
+            afterCommit(() -> roomStatusBroadcaster.roomBooked(roomId, reservation.getCheckInDate(),
+                reservation.getCheckOutDate()));
+        }
+        logger.info("Group booking created {} reservations", savedReservations.size());
+        return savedReservations;
+    }
+    
+    private static boolean overlaps(Long roomId, LocalDate checkIn, LocalDate checkOut, ReservationRequest request) {
+        return roomId.equals(request.getRoomId()) &&
+            checkIn.isBefore(request.getCheckOutDate()) && checkOut.isAfter(request.getCheckInDate());
+    }
+    
+    // Build a confirmed reservation for the request
+    private static Reservation newReservation(ReservationRequest request, Room room) {
+        Reservation reservation = new Reservation();
+        reservation.setGuestName(request.getGuestName());
+        reservation.setGuestEmail(request.getGuestEmail());
+        reservation.setRoom(room);
+        reservation.setCheckInDate(request.getCheckInDate());
+        reservation.setCheckOutDate(request.getCheckOutDate());
+        reservation.setStatus("CONFIRMED");
+        return reservation;
+    }
+    
+    // The room from the catalog, as a detached entity; its booked flag is written with saveAvailability
+    private Room requireRoom(Long roomId) {
+        return roomCatalog.get(roomId)
+            .map(RoomCatalog.Entry::toRoom)
+            .orElseThrow(() -> {
+                logger.error("Room not found with ID: {}", roomId);
+                return new AppExceptions.RoomNotFoundException("Room not found");
+            });
+    }
+    
+    // Write only the room's booked flag and show it in the catalog once the write has committed
+    private void saveAvailability(Long roomId, boolean available) {
+        roomRepo.updateAvailability(roomId, available);
+        afterCommit(() -> roomCatalog.availabilityChanged(roomId, available));
+    }
+    
+    // Run the database part of a write in a transaction, or in the caller's if it has one. Only the
+    // database path needs a connection, so sequenced writes never hold one while they wait their turn.
+    private <T> T inTransaction(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // joined without a transaction boundary, so a rejected booking does not mark the caller's
+            // transaction rollback-only (the group committer keeps the rest of its batch)
+            return work.get();
+        }
+        return transactionOperations.execute(status -> work.get());
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    // Undo in-memory changes if the transaction rolls back after they were made, including when the
+    // flush or the commit itself fails
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+    
+    // When booking inside a surrounding transaction (e.g. a group commit), free the nights and
+    // take the booking out of the stats again if it rolls back
+    private void undoOnRollback(Reservation reservation, Long roomId) {
+        String guestEmail = reservation.getGuestEmail();
+        LocalDate checkIn = reservation.getCheckInDate();
+        LocalDate checkOut = reservation.getCheckOutDate();
+        String reservationStatus = reservation.getStatus();
+        onRollback(() -> {
+            logger.debug("Booking of room {} rolled back, releasing {} to {}", roomId, checkIn, checkOut);
+            occupancyIndex.release(roomId, checkIn, checkOut);
+            stats.reservationRemoved(guestEmail, checkIn, checkOut, reservationStatus);
+        });
+    }
+    
     // calculate the total price for a reservation
     public double calculateTotalPrice(Reservation reservation) {
         logger.debug("Calculating total price for reservation ID: {}", reservation.getId());
         
-        long nights = ChronoUnit.DAYS.between(
-            reservation.getCheckInDate(), 
-            reservation.getCheckOutDate()
-        );
-        
-        double price = nights * reservation.getRoom().getPricePerNight();
-        logger.debug("Total price calculated: ${} ({} nights at ${} per night)", 
-                  price, nights, reservation.getRoom().getPricePerNight());
+        Room room = reservation.getRoom();
+        double price = rateCalendar.stayTotal(room.getType(), room.getPricePerNight(),
+            reservation.getCheckInDate(), reservation.getCheckOutDate());
+        logger.debug("Total price calculated: ${} ({} nights, base ${} per night)", 
+                  price, ChronoUnit.DAYS.between(reservation.getCheckInDate(), reservation.getCheckOutDate()),
+                  room.getPricePerNight());
         
         return price;
     }
     
+    // Same total for a details projection; the room columns must be present
+    public double calculateTotalPrice(ReservationDetails details) {
+        logger.debug("Calculating total price for reservation ID: {}", details.getId());
+        return rateCalendar.stayTotal(details.getRoomType(), details.getPricePerNight(),
+            details.getCheckInDate(), details.getCheckOutDate());
+    }
+    
     // save a new room to the database
     public Room saveRoom(Room room) {
         logger.info("Saving new room: {}, type={}", room.getRoomNumber(), room.getType());
         
         // Check if room number already exists
-        if (roomRepo.existsByRoomNumber(room.getRoomNumber())) {
+        if (roomCatalog.findByNumber(room.getRoomNumber()).isPresent()) {
             logger.warn("Room number {} already exists", room.getRoomNumber());
             throw new AppExceptions.DuplicateRoomException("Room number " + room.getRoomNumber() + " already exists. Room numbers must be unique.");
         }
         
         Room savedRoom = roomRepo.save(room);
+        occupancyIndex.markRoomChanged(savedRoom);
+        stats.roomAdded();
+        roomStatusBroadcaster.roomUpdated(savedRoom.getId());
         logger.info("Room saved successfully with ID: {}", savedRoom.getId());
         
         return savedRoom;
@@ -129,11 +449,7 @@ public class ReservationService {
     public RoomRequest getRoomById(Long id) {
         logger.info("Getting room by ID: {}", id);
         
-        Room room = roomRepo.findById(id)
-            .orElseThrow(() -> {
-                logger.error("Room not found with ID: {}", id);
-                return new AppExceptions.RoomNotFoundException("Room not found");
-            });
+        Room room = requireRoom(id);
         
         RoomRequest request = new RoomRequest();
         request.setId(room.getId());
@@ -162,7 +478,7 @@ public class ReservationService {
         
         // Check if new room number already exists (but ignore if it's the same room)
         if (!room.getRoomNumber().equals(request.getRoomNumber()) && 
-            roomRepo.existsByRoomNumber(request.getRoomNumber())) {
+            roomCatalog.findByNumber(request.getRoomNumber()).isPresent()) {
             logger.warn("Cannot update room - room number {} already exists", request.getRoomNumber());
             throw new AppExceptions.DuplicateRoomException("Room number " + request.getRoomNumber() + " already exists. Room numbers must be unique.");
         }
@@ -178,6 +494,8 @@ public class ReservationService {
         room.setIsAvailable(request.isAvailable());
         
         roomRepo.save(room);
+        occupancyIndex.markRoomChanged(room);
+        roomStatusBroadcaster.roomUpdated(room.getId());
         request.setId(room.getId()); // Ensure ID is returned
         
         logger.info("Room updated successfully: ID={}", room.getId());
@@ -199,15 +517,17 @@ public class ReservationService {
                 return new AppExceptions.RoomNotFoundException("Room not found");
             });
         
-        List<Reservation> reservations = reservationRepo.findByRoomId(id);
-        if (!reservations.isEmpty()) {
-            logger.warn("Cannot delete room {} - it has {} active reservations", 
-                      room.getRoomNumber(), reservations.size());
+        if (reservationRepo.existsByRoomId(id) ||
+            (bookingSequencer.isEnabled() && bookingSequencer.hasReservationsForRoom(id))) {
+            logger.warn("Cannot delete room {} - it has active reservations", room.getRoomNumber());
             throw new AppExceptions.ActiveReservationsException("Cannot delete room with active reservations");
         }
         
         logger.debug("Deleting room: {}, type={}", room.getRoomNumber(), room.getType());
         roomRepo.deleteById(id);
+        occupancyIndex.removeRoom(id);
+        stats.roomRemoved();
+        roomStatusBroadcaster.roomDeleted(id);
         logger.info("Room deleted successfully");
     }
     
@@ -218,61 +538,121 @@ public class ReservationService {
                   request.getGuestName(), request.getRoomId(), 
                   request.getCheckInDate(), request.getCheckOutDate());
         
-        Reservation reservation = reservationRepo.findById(id)
+        if (bookingSequencer.isEnabled()) {
+            return bookingSequencer.update(id, request);
+        }
+        
+        return inTransaction(() -> updateStoredReservation(id, request));
+    }
+    
+    private ReservationRequest updateStoredReservation(Long id, ReservationRequest request) {
+        Reservation reservation = reservationRepo.findWithRoomById(id)
             .orElseThrow(() -> {
                 logger.error("Reservation not found with ID: {}", id);
                 return new AppExceptions.ReservationNotFoundException("Reservation not found");
             });
         
-        Room room = roomRepo.findById(request.getRoomId())
-            .orElseThrow(() -> {
-                logger.error("Room not found with ID: {}", request.getRoomId());
-                return new AppExceptions.RoomNotFoundException("Room not found");
-            });
+        Room room = requireRoom(request.getRoomId());
 
+        // both the old and the new room are locked so the move cannot race a booking on either room
+        Long originalRoomId = reservation.getRoom().getId();
+        return lockStripes.withRoomLocks(originalRoomId, room.getId(),
+            () -> applyReservationUpdate(reservation, room, request));
+    }
+    
+    // Apply the update to the reservation; caller must hold the locks of the old and new room
+    private ReservationRequest applyReservationUpdate(Reservation reservation, Room room, ReservationRequest request) {
+        Long id = reservation.getId();
+        
+        // Save original data for logging
+        String originalGuestName = reservation.getGuestName();
+        String originalGuestEmail = reservation.getGuestEmail();
+        Room originalRoom = reservation.getRoom();
+        LocalDate originalCheckIn = reservation.getCheckInDate();
+        LocalDate originalCheckOut = reservation.getCheckOutDate();
+        
         // Check for overlapping bookings if room or dates change
-        if (!reservation.getRoom().getId().equals(request.getRoomId()) ||
-            !reservation.getCheckInDate().equals(request.getCheckInDate()) ||
-            !reservation.getCheckOutDate().equals(request.getCheckOutDate())) {
+        boolean moved = !originalRoom.getId().equals(request.getRoomId()) ||
+            !originalCheckIn.equals(request.getCheckInDate()) ||
+            !originalCheckOut.equals(request.getCheckOutDate());
+        if (moved) {
             
             logger.debug("Checking for booking conflicts - room or dates have changed");
-            List<Reservation> overlapping = reservationRepo.findOverlappingReservations(
-                request.getCheckInDate(), request.getCheckOutDate());
-            
-            if (overlapping.stream().anyMatch(r -> r.getRoom().getId().equals(request.getRoomId()) && !r.getId().equals(id))) {
+            // take the reservation's own nights out of the index so they don't count as a conflict
+            occupancyIndex.release(originalRoom.getId(), originalCheckIn, originalCheckOut);
+            boolean conflict = true;
+            try {
+                conflict = !occupancyIndex.isFree(request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate()) ||
+                    reservationRepo.existsOverlappingReservationExcluding(
+                        request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate(), id);
+            } finally {
+                if (conflict) {
+                    occupancyIndex.occupy(originalRoom.getId(), originalCheckIn, originalCheckOut);
+                }
+            }
+            if (conflict) {
                 logger.warn("Room {} is already booked for dates between {} and {}", 
                          room.getRoomNumber(), request.getCheckInDate(), request.getCheckOutDate());
                 throw new AppExceptions.RoomAlreadyBookedException("Room is already booked for these dates");
             }
         }
 
-        // Update room availability if room changes
-        if (!reservation.getRoom().getId().equals(request.getRoomId())) {
-            logger.debug("Room has changed from ID={} to ID={}, updating availability", 
-                      reservation.getRoom().getId(), request.getRoomId());
+        try {
+            // Update room availability if room changes
+            if (!originalRoom.getId().equals(request.getRoomId())) {
+                logger.debug("Room has changed from ID={} to ID={}, updating availability", 
+                          originalRoom.getId(), request.getRoomId());
+                
+                saveAvailability(originalRoom.getId(), true);
+                logger.debug("Old room {} availability updated to true", originalRoom.getRoomNumber());
+                
+                saveAvailability(room.getId(), false);
+                logger.debug("New room {} availability updated to false", room.getRoomNumber());
+            }
             
-            Room oldRoom = reservation.getRoom();
-            oldRoom.setIsAvailable(true);
-            roomRepo.save(oldRoom);
-            logger.debug("Old room {} availability updated to true", oldRoom.getRoomNumber());
+            reservation.setGuestName(request.getGuestName());
+            reservation.setGuestEmail(request.getGuestEmail());
+            reservation.setRoom(room);
+            reservation.setCheckInDate(request.getCheckInDate());
+            reservation.setCheckOutDate(request.getCheckOutDate());
             
-            room.setIsAvailable(false);
-            roomRepo.save(room);
-            logger.debug("New room {} availability updated to false", room.getRoomNumber());
+            reservationRepo.save(reservation);
+            outbox.reservationUpdated(reservation);
+        } catch (RuntimeException e) {
+            // the stay still holds its original nights when the write fails
+            if (moved) {
+                occupancyIndex.occupy(originalRoom.getId(), originalCheckIn, originalCheckOut);
+            }
+            throw e;
+        }
+        // the original nights were released for the conflict check above
+        if (moved) {
+            occupancyIndex.occupy(room.getId(), reservation.getCheckInDate(), reservation.getCheckOutDate());
+        }
+        stats.reservationRemoved(originalGuestEmail, originalCheckIn, originalCheckOut, reservation.getStatus());
+        stats.reservationAdded(reservation.getGuestEmail(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+            reservation.getStatus());
+        Long originalRoomId = originalRoom.getId();
+        Long roomId = room.getId();
+        String guestEmail = reservation.getGuestEmail();
+        LocalDate checkIn = reservation.getCheckInDate();
+        LocalDate checkOut = reservation.getCheckOutDate();
+        String reservationStatus = reservation.getStatus();
+        onRollback(() -> {
+            logger.debug("Update of reservation {} rolled back, restoring its original stay", id);
+            if (moved) {
+                occupancyIndex.release(roomId, checkIn, checkOut);
+                occupancyIndex.occupy(originalRoomId, originalCheckIn, originalCheckOut);
+            }
+            stats.reservationRemoved(guestEmail, checkIn, checkOut, reservationStatus);
+            stats.reservationAdded(originalGuestEmail, originalCheckIn, originalCheckOut, reservationStatus);
+        });
+        if (moved) {
+            afterCommit(() -> {
+                roomStatusBroadcaster.roomReleased(originalRoomId, originalCheckIn, originalCheckOut);
+                roomStatusBroadcaster.roomBooked(roomId, checkIn, checkOut);
+            });
         }
-
-        // Save original data for logging
-        String originalGuestName = reservation.getGuestName();
-        LocalDate originalCheckIn = reservation.getCheckInDate();
-        LocalDate originalCheckOut = reservation.getCheckOutDate();
-        
-        reservation.setGuestName(request.getGuestName());
-        reservation.setGuestEmail(request.getGuestEmail());
-        reservation.setRoom(room);
-        reservation.setCheckInDate(request.getCheckInDate());
-        reservation.setCheckOutDate(request.getCheckOutDate());
-        
-        reservationRepo.save(reservation);
         request.setId(reservation.getId()); // Ensure ID is returned
         
         logger.info("Reservation updated successfully: ID={}", reservation.getId());
@@ -289,31 +669,60 @@ public class ReservationService {
     public void deleteReservation(Long id) {
         logger.info("Deleting reservation with ID: {}", id);
         
-        Reservation reservation = reservationRepo.findById(id)
+        if (bookingSequencer.isEnabled()) {
+            bookingSequencer.cancel(id);
+            logger.info("Reservation deleted successfully");
+            return;
+        }
+        
+        inTransaction(() -> deleteStoredReservation(id));
+        logger.info("Reservation deleted successfully");
+    }
+    
+    private Void deleteStoredReservation(Long id) {
+        Reservation reservation = reservationRepo.findWithRoomById(id)
             .orElseThrow(() -> {
                 logger.error("Reservation not found with ID: {}", id);
                 return new AppExceptions.ReservationNotFoundException("Reservation not found");
             });
         
         Room room = reservation.getRoom();
-        room.setIsAvailable(true);
-        roomRepo.save(room);
-        logger.debug("Room {} availability updated to true", room.getRoomNumber());
-        
-        logger.debug("Deleting reservation for guest: {}, dates: {} to {}", 
-                  reservation.getGuestName(), 
-                  reservation.getCheckInDate(), 
-                  reservation.getCheckOutDate());
-        
-        reservationRepo.deleteById(id);
-        logger.info("Reservation deleted successfully");
+        lockStripes.runWithRoomLock(room.getId(), () -> {
+            saveAvailability(room.getId(), true);
+            logger.debug("Room {} availability updated to true", room.getRoomNumber());
+            
+            logger.debug("Deleting reservation for guest: {}, dates: {} to {}", 
+                      reservation.getGuestName(), 
+                      reservation.getCheckInDate(), 
+                      reservation.getCheckOutDate());
+            
+            reservationRepo.deleteById(id);
+            outbox.reservationCancelled(reservation);
+            Long roomId = room.getId();
+            String guestEmail = reservation.getGuestEmail();
+            LocalDate checkIn = reservation.getCheckInDate();
+            LocalDate checkOut = reservation.getCheckOutDate();
+            String reservationStatus = reservation.getStatus();
+            occupancyIndex.release(roomId, checkIn, checkOut);
+            stats.reservationRemoved(guestEmail, checkIn, checkOut, reservationStatus);
+            onRollback(() -> {
+                logger.debug("Cancellation of reservation {} rolled back, taking {} to {} again", id, checkIn, checkOut);
+                occupancyIndex.occupy(roomId, checkIn, checkOut);
+                stats.reservationAdded(guestEmail, checkIn, checkOut, reservationStatus);
+            });
+            afterCommit(() -> roomStatusBroadcaster.roomReleased(roomId, checkIn, checkOut));
+        });
+        return null;
     }
 
     // find reservation by ID
     public Reservation findById(Long reservationId) {
         logger.info("Finding reservation by ID: {}", reservationId);
         
-        Reservation reservation = reservationRepo.findById(reservationId).orElse(null);
+        // the sequencer answers first, since the database may not have its latest writes yet
+        Reservation reservation = (bookingSequencer.isEnabled() ? bookingSequencer.find(reservationId) : Optional.<Reservation>empty())
+            .or(() -> reservationRepo.findWithRoomById(reservationId))
+            .orElse(null);
         
         if (reservation == null) {
             logger.warn("Reservation not found with ID: {}", reservationId);
@@ -328,33 +737,95 @@ public class ReservationService {
         return reservation;
     }
 
+    // Reservation and room columns for the details endpoint, without loading either entity
+    public Optional<ReservationDetails> getReservationDetails(Long reservationId) {
+        logger.info("Finding reservation details by ID: {}", reservationId);
+        
+        return pendingDetails(reservationId).or(() -> reservationRepo.findDetailsById(reservationId));
+    }
+
+    // Details of many reservations, read with one IN query; ids that do not exist are left out
+    public List<ReservationDetails> getReservationDetails(Collection<Long> reservationIds) {
+        logger.info("Finding reservation details for {} IDs", reservationIds.size());
+        
+        List<ReservationDetails> details = new ArrayList<>();
+        Set<Long> remaining = new LinkedHashSet<>(reservationIds);
+        if (bookingSequencer.isEnabled()) {
+            for (Long reservationId : reservationIds) {
+                pendingDetails(reservationId).ifPresent(pending -> {
+                    details.add(pending);
+                    remaining.remove(reservationId);
+                });
+            }
+        }
+        if (!remaining.isEmpty()) {
+            details.addAll(reservationRepo.findDetailsByIdIn(remaining));
+        }
+        logger.debug("Found details for {} of {} reservations", details.size(), reservationIds.size());
+        return details;
+    }
+
+    // The sequencer's copy of the reservation, since the database may not have its latest writes yet
+    private Optional<ReservationDetails> pendingDetails(Long reservationId) {
+        if (!bookingSequencer.isEnabled()) {
+            return Optional.empty();
+        }
+        return bookingSequencer.find(reservationId).map(reservation -> {
+            Room room = reservation.getRoom();
+            return new ReservationDetails(reservation.getId(), reservation.getGuestName(),
+                room == null ? null : room.getId(), room == null ? null : room.getRoomNumber(),
+                room == null ? null : room.getType(), room == null ? null : room.getPricePerNight(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+        });
+    }
+
     // get all reservations
     public List<ReservationRequest> getAllReservations() {
         logger.info("Getting all reservations");
         
-        List<Reservation> reservations = reservationRepo.findAll();
-        logger.debug("Found {} reservations", reservations.size());
-        
-        List<ReservationRequest> requestList = reservations.stream()
-            .map(reservation -> {
-                ReservationRequest request = new ReservationRequest();
-                request.setId(reservation.getId());
-                request.setGuestName(reservation.getGuestName());
-                request.setGuestEmail(reservation.getGuestEmail());
-                request.setRoomId(reservation.getRoom().getId());
-                request.setCheckInDate(reservation.getCheckInDate());
-                request.setCheckOutDate(reservation.getCheckOutDate());
-                return request;
-            })
-            .collect(Collectors.toList());
-        
-        logger.debug("Transformed {} reservations to DTOs", requestList.size());
+        List<ReservationRequest> requestList = reservationRepo.findAllAsRequests();
+        logger.debug("Found {} reservations", requestList.size());
         return requestList;
     }
 
     // get all rooms
     public List<Room> getAllRooms() {
         logger.info("Getting all rooms");
-        return roomRepo.findAll();
+        return roomCatalog.all().stream().map(RoomCatalog.Entry::toRoom).toList();
+    }
+
+    // Get one page of reservations ordered by id, starting after the given cursor
+    public PageResponse<ReservationRequest> getReservationsPage(Long after, int size) {
+        validatePageSize(size);
+        logger.debug("Getting {} reservations after id {}", size, after);
+        List<ReservationRequest> rows = reservationRepo.findReservationPageAfter(cursorOf(after), PageRequest.of(0, size + 1));
+        return toPage(rows, size, ReservationRequest::getId);
+    }
+
+    // Get one page of rooms ordered by id, starting after the given cursor
+    public PageResponse<Room> getRoomsPage(Long after, int size) {
+        validatePageSize(size);
+        logger.debug("Getting {} rooms after id {}", size, after);
+        List<Room> rows = roomRepo.findByIdGreaterThanOrderByIdAsc(cursorOf(after), PageRequest.of(0, size + 1));
+        return toPage(rows, size, Room::getId);
+    }
+
+    private static void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new AppExceptions.InvalidPageRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static Long cursorOf(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // One extra row is fetched to learn whether another page follows without a count query
+    private static <T> PageResponse<T> toPage(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return new PageResponse<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new PageResponse<>(new ArrayList<>(items), idOf.apply(items.get(size - 1)));
     }
 }
\ No newline at end of file
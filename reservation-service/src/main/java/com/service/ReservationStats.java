@@ -0,0 +1,115 @@
+package com.service;
+
+import com.model.Reservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard totals kept up to date by the ReservationService write paths instead of recomputed from
+// full table reads. Arrivals, departures and booked rooms are counted per day, so "today" stays
+// correct across midnight and a snapshot costs a few map lookups.
+@Component
+public class ReservationStats {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationStats.class);
+
+    private final Clock clock;
+
+    private int totalRooms;
+    private int totalReservations;
+    // keyed by epoch day
+    private final Map<Long, Integer> arrivals = new HashMap<>();
+    private final Map<Long, Integer> departures = new HashMap<>();
+    private final Map<Long, Integer> bookedRooms = new HashMap<>();
+    private final Map<String, Integer> byStatus = new HashMap<>();
+    // reservations per guest email, for the distinct guest count
+    private final Map<String, Integer> guests = new HashMap<>();
+
+    public ReservationStats() {
+        this(Clock.systemDefaultZone());
+    }
+
+    ReservationStats(Clock clock) {
+        this.clock = clock;
+    }
+
+    // Replace every counter with totals computed from the given rooms count and reservations
+    public synchronized void rebuild(int roomCount, List<Reservation> reservations) {
+        totalRooms = roomCount;
+        totalReservations = 0;
+        arrivals.clear();
+        departures.clear();
+        bookedRooms.clear();
+        byStatus.clear();
+        guests.clear();
+        for (Reservation reservation : reservations) {
+            apply(reservation.getGuestEmail(), reservation.getCheckInDate(), reservation.getCheckOutDate(),
+                reservation.getStatus(), 1);
+        }
+        logger.info("Reservation stats rebuilt from {} rooms and {} reservations", roomCount, reservations.size());
+    }
+
+    public synchronized void roomAdded() {
+        totalRooms++;
+    }
+
+    public synchronized void roomRemoved() {
+        totalRooms--;
+    }
+
+    public synchronized void reservationAdded(String guestEmail, LocalDate checkIn, LocalDate checkOut, String status) {
+        apply(guestEmail, checkIn, checkOut, status, 1);
+    }
+
+    public synchronized void reservationRemoved(String guestEmail, LocalDate checkIn, LocalDate checkOut, String status) {
+        apply(guestEmail, checkIn, checkOut, status, -1);
+    }
+
+    // Current totals; occupancy is for tonight, arrivals and departures for today
+    public synchronized Map<String, Object> snapshot() {
+        LocalDate today = LocalDate.now(clock);
+        long day = today.toEpochDay();
+        int occupied = bookedRooms.getOrDefault(day, 0);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("date", today.toString());
+        stats.put("totalRooms", totalRooms);
+        stats.put("occupiedTonight", occupied);
+        stats.put("occupancyRate", totalRooms == 0 ? 0.0 : (double) occupied / totalRooms);
+        stats.put("arrivalsToday", arrivals.getOrDefault(day, 0));
+        stats.put("departuresToday", departures.getOrDefault(day, 0));
+        stats.put("totalReservations", totalReservations);
+        stats.put("reservationsByStatus", new HashMap<>(byStatus));
+        stats.put("distinctGuests", guests.size());
+        return stats;
+    }
+
+    private void apply(String guestEmail, LocalDate checkIn, LocalDate checkOut, String status, int delta) {
+        totalReservations += delta;
+        if (status != null) {
+            adjust(byStatus, status, delta);
+        }
+        if (guestEmail != null) {
+            adjust(guests, guestEmail, delta);
+        }
+        if (checkIn == null || checkOut == null) {
+            return;
+        }
+        adjust(arrivals, checkIn.toEpochDay(), delta);
+        adjust(departures, checkOut.toEpochDay(), delta);
+        for (long night = checkIn.toEpochDay(); night < checkOut.toEpochDay(); night++) {
+            adjust(bookedRooms, night, delta);
+        }
+    }
+
+    // counts that drop to zero are removed so the maps only hold live keys
+    private static <K> void adjust(Map<K, Integer> counts, K key, int delta) {
+        counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+}
@@ -0,0 +1,54 @@
+package com.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Strong ETags for the room and availability responses, built from the versions of the data they
+// are computed from: the room catalog, and for availability also the occupancy index. While neither
+// version moves a client's copy is still current, so a conditional GET is answered with 304 before
+// any work is done. Both counters start over on a restart, hence the per-process epoch in the tag.
+@Component
+public class RoomCacheTags {
+
+    private final RoomCatalog roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final String epoch;
+    private final CacheControl publicCacheControl;
+
+    @Autowired
+    public RoomCacheTags(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex,
+                         @Value("${reservation.http.public-max-age-seconds:10}") long publicMaxAgeSeconds) {
+        this(roomCatalog, occupancyIndex, Long.toString(System.currentTimeMillis(), 36), publicMaxAgeSeconds);
+    }
+
+    RoomCacheTags(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, String epoch, long publicMaxAgeSeconds) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.epoch = epoch;
+        this.publicCacheControl = CacheControl.maxAge(publicMaxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate();
+    }
+
+    // Tag of responses built from the rooms alone
+    public String rooms() {
+        return "\"" + epoch + "-c" + roomCatalog.version() + "\"";
+    }
+
+    // Tag of responses that also depend on which nights are booked
+    public String availability() {
+        return "\"" + epoch + "-c" + roomCatalog.version() + "-o" + occupancyIndex.version() + "\"";
+    }
+
+    // Public listings may be kept by browsers and shared caches for a few seconds, then revalidated
+    public CacheControl publicCacheControl() {
+        return publicCacheControl;
+    }
+
+    // Staff listings are never stored by shared caches and are revalidated on every use
+    public CacheControl staffCacheControl() {
+        return CacheControl.noCache().cachePrivate();
+    }
+}
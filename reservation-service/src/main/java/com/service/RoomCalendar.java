@@ -0,0 +1,247 @@
+package com.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Day-by-day occupancy bitmap for a single room.
+// Bit n of the calendar is night (originDay + n), stored 64 nights per long word.
+// Ranges are half-open [fromDay, toDay) in epoch days, matching check-in/check-out semantics.
+final class RoomCalendar {
+
+    private static final long[] EMPTY = new long[0];
+
+    // Receives each run [fromDay, toDay) of nights whose state a change actually flipped
+    @FunctionalInterface
+    interface NightRuns {
+        NightRuns NONE = (fromDay, toDay) -> {
+        };
+
+        void accept(long fromDay, long toDay);
+    }
+
+    // epoch day of bit 0 of words[0]; always a multiple of 64 so word boundaries stay aligned
+    private long originDay;
+    private long[] words = EMPTY;
+
+    // true when no night in [fromDay, toDay) is occupied
+    synchronized boolean isFree(long fromDay, long toDay) {
+        long lo = Math.max(fromDay, originDay);
+        long hi = Math.min(toDay, endDay());
+        if (lo >= hi) {
+            return true;
+        }
+        int firstWord = wordIndex(lo);
+        int lastWord = wordIndex(hi - 1);
+        long firstMask = -1L << bitIndex(lo);
+        long lastMask = -1L >>> (63 - bitIndex(hi - 1));
+
+        if (firstWord == lastWord) {
+            return (words[firstWord] & firstMask & lastMask) == 0;
+        }
+        if ((words[firstWord] & firstMask) != 0) {
+            return false;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (words[i] != 0) {
+                return false;
+            }
+        }
+        return (words[lastWord] & lastMask) == 0;
+    }
+
+    // mark every night in [fromDay, toDay) as occupied
+    synchronized void occupy(long fromDay, long toDay) {
+        occupy(fromDay, toDay, NightRuns.NONE);
+    }
+
+    // mark every night in [fromDay, toDay) as occupied, reporting the nights that were free before
+    synchronized void occupy(long fromDay, long toDay, NightRuns changed) {
+        if (fromDay >= toDay) {
+            return;
+        }
+        ensureCapacity(fromDay, toDay);
+        apply(fromDay, toDay, true, changed);
+    }
+
+    // mark every night in [fromDay, toDay) as free
+    synchronized void release(long fromDay, long toDay) {
+        release(fromDay, toDay, NightRuns.NONE);
+    }
+
+    // mark every night in [fromDay, toDay) as free, reporting the nights that were occupied before
+    synchronized void release(long fromDay, long toDay, NightRuns changed) {
+        long lo = Math.max(fromDay, originDay);
+        long hi = Math.min(toDay, endDay());
+        if (lo >= hi) {
+            return;
+        }
+        apply(lo, hi, false, changed);
+    }
+
+    // Earliest day d in [fromDay, toDay - nights] with every night of [d, d + nights) free, or -1.
+    // Walks free and occupied runs a word at a time instead of testing each candidate start day.
+    synchronized long firstFreeRun(long fromDay, long toDay, int nights) {
+        long day = fromDay;
+        while (day + nights <= toDay) {
+            long start = nextFreeDay(day);
+            if (start + nights > toDay) {
+                return -1;
+            }
+            long end = nextOccupiedDay(start, start + nights);
+            if (end == start + nights) {
+                return start;
+            }
+            // the free run was too short; resume after the occupied night that ended it
+            day = end + 1;
+        }
+        return -1;
+    }
+
+    // Copy the nights [fromDay, fromDay + 64 * target.length) into target, bit i being night fromDay + i
+    synchronized void copyBits(long fromDay, long[] target) {
+        for (int j = 0; j < target.length; j++) {
+            target[j] = wordAt(fromDay + 64L * j);
+        }
+    }
+
+    // call the action with the epoch day of every occupied night, in order
+    synchronized void forEachOccupiedNight(LongConsumer action) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                action.accept(originDay + 64L * i + bit);
+                word &= word - 1;
+            }
+        }
+    }
+
+    // first free night on or after day; nights outside the stored words are always free
+    private long nextFreeDay(long day) {
+        if (day < originDay || day >= endDay()) {
+            return day;
+        }
+        int i = wordIndex(day);
+        long free = ~words[i] & (-1L << bitIndex(day));
+        while (free == 0) {
+            if (++i == words.length) {
+                return endDay();
+            }
+            free = ~words[i];
+        }
+        return originDay + 64L * i + Long.numberOfTrailingZeros(free);
+    }
+
+    // first occupied night in [day, limit), or limit when the whole range is free
+    private long nextOccupiedDay(long day, long limit) {
+        long lo = Math.max(day, originDay);
+        long hi = Math.min(limit, endDay());
+        if (lo >= hi) {
+            return limit;
+        }
+        int i = wordIndex(lo);
+        int lastWord = wordIndex(hi - 1);
+        long occupied = words[i] & (-1L << bitIndex(lo));
+        while (occupied == 0) {
+            if (++i > lastWord) {
+                return limit;
+            }
+            occupied = words[i];
+        }
+        return Math.min(limit, originDay + 64L * i + Long.numberOfTrailingZeros(occupied));
+    }
+
+    // the 64 nights starting at day as one word, stitched from the two stored words it straddles
+    private long wordAt(long day) {
+        long offset = day - originDay;
+        int index = (int) Math.floorDiv(offset, 64);
+        int shift = (int) Math.floorMod(offset, 64);
+        long low = storedWord(index) >>> shift;
+        return shift == 0 ? low : low | storedWord(index + 1) << (64 - shift);
+    }
+
+    private long storedWord(int index) {
+        return index >= 0 && index < words.length ? words[index] : 0L;
+    }
+
+    private void apply(long fromDay, long toDay, boolean occupied, NightRuns changed) {
+        int firstWord = wordIndex(fromDay);
+        int lastWord = wordIndex(toDay - 1);
+        long firstMask = -1L << bitIndex(fromDay);
+        long lastMask = -1L >>> (63 - bitIndex(toDay - 1));
+
+        // the flipped nights are reported as runs, joined across word boundaries
+        long runStart = Long.MIN_VALUE;
+        long runEnd = Long.MIN_VALUE;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = -1L;
+            if (i == firstWord) {
+                mask &= firstMask;
+            }
+            if (i == lastWord) {
+                mask &= lastMask;
+            }
+            long flipped = occupied ? mask & ~words[i] : mask & words[i];
+            words[i] = occupied ? words[i] | mask : words[i] & ~mask;
+            while (flipped != 0) {
+                int bit = Long.numberOfTrailingZeros(flipped);
+                // length of the run of flipped bits starting at bit
+                int length = Long.numberOfTrailingZeros(~(flipped >>> bit));
+                long start = originDay + 64L * i + bit;
+                if (start == runEnd) {
+                    runEnd += length;
+                } else {
+                    if (runStart != Long.MIN_VALUE) {
+                        changed.accept(runStart, runEnd);
+                    }
+                    runStart = start;
+                    runEnd = start + length;
+                }
+                flipped = length == 64 ? 0 : flipped & ~(((1L << length) - 1) << bit);
+            }
+        }
+        if (runStart != Long.MIN_VALUE) {
+            changed.accept(runStart, runEnd);
+        }
+    }
+
+    // grow the word array (in either direction) so that [fromDay, toDay) is addressable
+    private void ensureCapacity(long fromDay, long toDay) {
+        if (words.length == 0) {
+            originDay = Math.floorDiv(fromDay, 64) * 64;
+            words = new long[wordsNeeded(originDay, toDay)];
+            return;
+        }
+        long newOrigin = Math.min(originDay, Math.floorDiv(fromDay, 64) * 64);
+        long newEnd = Math.max(endDay(), toDay);
+        if (newOrigin == originDay && newEnd == endDay()) {
+            return;
+        }
+        long[] grown = new long[wordsNeeded(newOrigin, newEnd)];
+        int shift = (int) ((originDay - newOrigin) >>> 6);
+        System.arraycopy(words, 0, grown, shift, words.length);
+        originDay = newOrigin;
+        words = grown;
+    }
+
+    private long endDay() {
+        return originDay + 64L * words.length;
+    }
+
+    private int wordIndex(long day) {
+        return (int) ((day - originDay) >>> 6);
+    }
+
+    private static int bitIndex(long day) {
+        return (int) (Math.floorMod(day, 64));
+    }
+
+    private static int wordsNeeded(long origin, long toDay) {
+        return (int) ((toDay - origin + 63) >>> 6);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RoomCalendar[origin=" + originDay + ", words=" + Arrays.toString(words) + "]";
+    }
+}
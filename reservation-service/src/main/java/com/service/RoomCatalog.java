@@ -0,0 +1,132 @@
+package com.service;
+
+import com.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// In-memory copy of the room table, so room lookups on the booking and listing paths are a hash
+// probe instead of a query. Readers see an immutable snapshot indexed by id and by room number and
+// never lock; every change builds a new snapshot with the next version and swaps it in whole.
+// Kept current through the occupancy index, plus availabilityChanged for the booked flag.
+@Component
+public class RoomCatalog implements OccupancyListener {
+    private static final Logger logger = LoggerFactory.getLogger(RoomCatalog.class);
+
+    // Immutable view of one room
+    public record Entry(Long id, String roomNumber, String type, double price, boolean available) {
+
+        static Entry of(Room room) {
+            return new Entry(room.getId(), room.getRoomNumber(), room.getType(), room.getPricePerNight(),
+                Boolean.TRUE.equals(room.getIsAvailable()));
+        }
+
+        // A detached Room carrying this entry's values, for callers that work with entities
+        public Room toRoom() {
+            return new Room(id, roomNumber, type, price, available);
+        }
+    }
+
+    // One version of the catalog; rooms are kept in id order
+    private record Snapshot(long version, Map<Long, Entry> byId, Map<String, Entry> byNumber) {
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), Map.of());
+
+    public Optional<Entry> get(Long roomId) {
+        return Optional.ofNullable(snapshot.byId().get(roomId));
+    }
+
+    public Optional<Entry> findByNumber(String roomNumber) {
+        return Optional.ofNullable(snapshot.byNumber().get(roomNumber));
+    }
+
+    // Every room in id order
+    public Collection<Entry> all() {
+        return snapshot.byId().values();
+    }
+
+    // Goes up by one with every change, so a reader can tell whether the catalog moved on
+    public long version() {
+        return snapshot.version();
+    }
+
+    // Record a change of the room's booked flag. The rooms and their order stay the same, so the
+    // entry is replaced in copies of the current maps instead of rebuilding and re-sorting them.
+    public synchronized void availabilityChanged(Long roomId, boolean available) {
+        Snapshot current = snapshot;
+        Entry entry = current.byId().get(roomId);
+        if (entry == null || entry.available() == available) {
+            return;
+        }
+        Entry changed = new Entry(entry.id(), entry.roomNumber(), entry.type(), entry.price(), available);
+        Map<Long, Entry> byId = new LinkedHashMap<>(current.byId());
+        byId.put(roomId, changed);
+        Map<String, Entry> byNumber = new HashMap<>(current.byNumber());
+        if (changed.roomNumber() != null) {
+            byNumber.put(changed.roomNumber(), changed);
+        }
+        publish(current, byId, byNumber);
+    }
+
+    @Override
+    public void onRebuild(List<Room> allRooms) {
+        swap(rooms -> {
+            rooms.clear();
+            allRooms.forEach(room -> rooms.put(room.getId(), Entry.of(room)));
+        });
+        logger.debug("Room catalog loaded with {} rooms", allRooms.size());
+    }
+
+    @Override
+    public void onRoomSaved(Room room) {
+        swap(rooms -> rooms.put(room.getId(), Entry.of(room)));
+    }
+
+    @Override
+    public void onRoomRemoved(Long roomId) {
+        swap(rooms -> rooms.remove(roomId));
+    }
+
+    @Override
+    public void onRoomChanged(Long roomId, LocalDate from, LocalDate to) {
+        // bookings do not change the catalog
+    }
+
+    // Copy the current rooms, apply the change and publish the result as the next version.
+    // Writers queue up here; readers keep using whichever snapshot they already hold.
+    private synchronized void swap(Consumer<Map<Long, Entry>> change) {
+        Snapshot current = snapshot;
+        Map<Long, Entry> rooms = new HashMap<>(current.byId());
+        change.accept(rooms);
+
+        Map<Long, Entry> byId = new LinkedHashMap<>();
+        Map<String, Entry> byNumber = new HashMap<>();
+        rooms.values().stream()
+            .sorted(Comparator.comparing(Entry::id))
+            .forEach(entry -> {
+                byId.put(entry.id(), entry);
+                if (entry.roomNumber() != null) {
+                    byNumber.put(entry.roomNumber(), entry);
+                }
+            });
+        publish(current, byId, byNumber);
+    }
+
+    private void publish(Snapshot current, Map<Long, Entry> byId, Map<String, Entry> byNumber) {
+        snapshot = new Snapshot(current.version() + 1, Collections.unmodifiableMap(byId),
+            Collections.unmodifiableMap(byNumber));
+        logger.trace("Room catalog now at version {}", current.version() + 1);
+    }
+}
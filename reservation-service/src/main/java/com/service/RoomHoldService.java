@@ -0,0 +1,225 @@
+package com.service;
+
+import com.dto.HoldRequest;
+import com.dto.ReservationRequest;
+import com.dto.RoomHold;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import com.repository.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Short-lived, in-memory holds on a room for a stay, e.g. between choosing a room and paying.
+// A hold occupies its nights in the occupancy index, so availability answers and booking conflict
+// checks treat it like a booking without touching the database. Holds expire through a hashed
+// timing wheel ticked by one background thread, and can be turned into a real booking.
+@Service
+public class RoomHoldService {
+    private static final Logger logger = LoggerFactory.getLogger(RoomHoldService.class);
+
+    private final RoomCatalog roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final RoomLockStripes lockStripes;
+    private final ReservationRepository reservationRepo;
+    private final ReservationService reservationService;
+    private final int defaultTtlSeconds;
+    private final int maxTtlSeconds;
+    private final LongSupplier clockMillis;
+
+    private final ConcurrentHashMap<String, Hold> holds = new ConcurrentHashMap<>();
+    // guarded by its own monitor
+    private final HashedTimingWheel<String> expiryWheel;
+    private final ScheduledExecutorService ticker;
+
+    private record Hold(RoomHold view, HashedTimingWheel.Timeout<String> timeout) {
+    }
+
+    @Autowired
+    public RoomHoldService(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, RoomLockStripes lockStripes,
+                           ReservationRepository reservationRepo, ReservationService reservationService,
+                           @Value("${reservation.hold.default-ttl-seconds:600}") int defaultTtlSeconds,
+                           @Value("${reservation.hold.max-ttl-seconds:1800}") int maxTtlSeconds,
+                           @Value("${reservation.hold.tick-ms:1000}") long tickMs,
+                           @Value("${reservation.hold.wheel-size:512}") int wheelSize) {
+        this(roomCatalog, occupancyIndex, lockStripes, reservationRepo, reservationService,
+            defaultTtlSeconds, maxTtlSeconds, tickMs, wheelSize, System::currentTimeMillis);
+        ticker.scheduleAtFixedRate(this::expireDue, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    RoomHoldService(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, RoomLockStripes lockStripes,
+                    ReservationRepository reservationRepo, ReservationService reservationService,
+                    int defaultTtlSeconds, int maxTtlSeconds, long tickMs, int wheelSize, LongSupplier clockMillis) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.lockStripes = lockStripes;
+        this.reservationRepo = reservationRepo;
+        this.reservationService = reservationService;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+        this.clockMillis = clockMillis;
+        this.expiryWheel = new HashedTimingWheel<>(clockMillis.getAsLong(), tickMs, wheelSize);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Hold the room for the stay if nobody has booked or held any of its nights
+    public RoomHold placeHold(HoldRequest request) {
+        logger.info("Placing hold on room {} from {} to {}", request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
+        if (!request.getCheckInDate().isBefore(request.getCheckOutDate())) {
+            throw new AppExceptions.InvalidBookingException("Check-in date must be before check-out date");
+        }
+        int ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        if (ttlSeconds > maxTtlSeconds) {
+            throw new AppExceptions.InvalidBookingException("Holds can last at most " + maxTtlSeconds + " seconds");
+        }
+        if (roomCatalog.get(request.getRoomId()).isEmpty()) {
+            logger.error("Room not found with ID: {}", request.getRoomId());
+            throw new AppExceptions.RoomNotFoundException("Room not found");
+        }
+
+        return lockStripes.withRoomLock(request.getRoomId(), () -> {
+            // the index is taken in one step, since sequenced bookings change it without the room lock
+            if (reservationRepo.existsOverlappingReservation(
+                    request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate()) ||
+                !occupancyIndex.tryOccupy(request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate())) {
+                logger.warn("Room {} is already booked or held between {} and {}",
+                    request.getRoomId(), request.getCheckInDate(), request.getCheckOutDate());
+                throw new AppExceptions.RoomAlreadyBookedException("Room is already booked or held for these dates");
+            }
+            long expiresAt = clockMillis.getAsLong() + ttlSeconds * 1000L;
+            RoomHold hold = new RoomHold(UUID.randomUUID().toString(), request.getRoomId(),
+                request.getCheckInDate(), request.getCheckOutDate(), Instant.ofEpochMilli(expiresAt));
+            track(hold);
+            logger.info("Hold {} placed, expires at {}", hold.getHoldId(), hold.getExpiresAt());
+            return hold;
+        });
+    }
+
+    public RoomHold getHold(String holdId) {
+        return requireHold(holdId).view();
+    }
+
+    // Give the nights back before the hold runs out
+    public void releaseHold(String holdId) {
+        logger.info("Releasing hold {}", holdId);
+        Hold hold = requireHold(holdId);
+        RoomHold view = hold.view();
+        lockStripes.runWithRoomLock(view.getRoomId(), () -> {
+            if (!untrack(holdId, hold)) {
+                throw new AppExceptions.HoldNotFoundException("Hold not found or expired");
+            }
+            occupancyIndex.release(view.getRoomId(), view.getCheckInDate(), view.getCheckOutDate());
+        });
+    }
+
+    // Turn the hold into a booking for the guest; the room and dates come from the hold.
+    // The room's lock is held throughout, so no other booking can take the nights in between.
+    public Reservation bookHold(String holdId, ReservationRequest guest, String receptionistEmail) {
+        logger.info("Converting hold {} into a booking requested by {}", holdId, receptionistEmail);
+        Hold hold = requireHold(holdId);
+        RoomHold view = hold.view();
+        return lockStripes.withRoomLock(view.getRoomId(), () -> {
+            if (!untrack(holdId, hold)) {
+                throw new AppExceptions.HoldNotFoundException("Hold not found or expired");
+            }
+            ReservationRequest request = new ReservationRequest(null, guest.getGuestName(), guest.getGuestEmail(),
+                view.getRoomId(), view.getCheckInDate(), view.getCheckOutDate());
+            if (reservationService.isSequencerEnabled()) {
+                // the sequencer takes the held nights over directly, so they are never free in between
+                try {
+                    return reservationService.createBookingFromHold(request, receptionistEmail);
+                } catch (RuntimeException e) {
+                    track(view);
+                    throw e;
+                }
+            }
+            occupancyIndex.release(view.getRoomId(), view.getCheckInDate(), view.getCheckOutDate());
+            try {
+                return reservationService.createBooking(request, receptionistEmail);
+            } catch (RuntimeException e) {
+                // keep the hold so the guest can retry before it runs out
+                occupancyIndex.occupy(view.getRoomId(), view.getCheckInDate(), view.getCheckOutDate());
+                track(view);
+                throw e;
+            }
+        });
+    }
+
+    public int activeHolds() {
+        return holds.size();
+    }
+
+    // Release every hold whose time is up; runs on the ticker thread
+    void expireDue() {
+        List<String> expired;
+        synchronized (expiryWheel) {
+            expired = expiryWheel.advance(clockMillis.getAsLong());
+        }
+        for (String holdId : expired) {
+            Hold hold = holds.get(holdId);
+            if (hold == null) {
+                continue;
+            }
+            RoomHold view = hold.view();
+            try {
+                lockStripes.runWithRoomLock(view.getRoomId(), () -> {
+                    if (holds.remove(holdId, hold)) {
+                        occupancyIndex.release(view.getRoomId(), view.getCheckInDate(), view.getCheckOutDate());
+                        logger.debug("Hold {} on room {} expired", holdId, view.getRoomId());
+                    }
+                });
+            } catch (RuntimeException e) {
+                logger.error("Failed to expire hold {}", holdId, e);
+            }
+        }
+    }
+
+    private Hold requireHold(String holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null) {
+            throw new AppExceptions.HoldNotFoundException("Hold not found or expired");
+        }
+        return hold;
+    }
+
+    // The hold is in the map before the wheel lock is let go, so the ticker cannot fire its timeout
+    // (possibly already due, when a failed conversion puts the hold back) and find nothing to expire
+    private void track(RoomHold view) {
+        synchronized (expiryWheel) {
+            HashedTimingWheel.Timeout<String> timeout =
+                expiryWheel.schedule(view.getHoldId(), view.getExpiresAt().toEpochMilli());
+            holds.put(view.getHoldId(), new Hold(view, timeout));
+        }
+    }
+
+    private boolean untrack(String holdId, Hold hold) {
+        if (!holds.remove(holdId, hold)) {
+            return false;
+        }
+        synchronized (expiryWheel) {
+            expiryWheel.cancel(hold.timeout());
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,80 @@
+package com.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Striped locks keyed by room id.
+// Bookings for the same room are linearized, while bookings for different rooms
+// only contend when their ids happen to share a stripe.
+@Component
+public class RoomLockStripes {
+    private static final Logger logger = LoggerFactory.getLogger(RoomLockStripes.class);
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public RoomLockStripes(@Value("${reservation.booking.lock-stripes:256}") int stripeCount) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        logger.debug("RoomLockStripes initialized with {} stripes", size);
+    }
+
+    // Run the action while holding the lock for one room
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeIndex(roomId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Same as withRoomLock for actions without a result
+    public void runWithRoomLock(Long roomId, Runnable action) {
+        withRoomLock(roomId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Run the action while holding the locks for two rooms, always acquired in stripe order
+    public <T> T withRoomLocks(Long firstRoomId, Long secondRoomId, Supplier<T> action) {
+        return withRoomLocks(List.of(firstRoomId, secondRoomId), action);
+    }
+
+    // Run the action while holding the locks for all the rooms, always acquired in stripe order
+    public <T> T withRoomLocks(Collection<Long> roomIds, Supplier<T> action) {
+        int[] indices = roomIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indices) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        }
+    }
+
+    // Room ids are time-ordered, so their low bits are mostly the per-second sequence;
+    // a multiplicative mix spreads the timestamp bits across the stripes as well
+    int stripeIndex(Long roomId) {
+        long h = roomId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+}
@@ -0,0 +1,234 @@
+package com.service;
+
+import com.model.Reservation;
+import com.model.Room;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory occupancy calendar for every room, answering availability without a database round trip.
+// Built from the reservation table at startup and kept current by the ReservationService write paths.
+// Alongside the per-room calendars it keeps per-type nightly sold counts, updated under the same
+// calendar monitor so the two never disagree.
+// Every change is passed on to the registered OccupancyListeners.
+@Component
+public class RoomOccupancyIndex {
+    private static final Logger logger = LoggerFactory.getLogger(RoomOccupancyIndex.class);
+
+    private final ConcurrentHashMap<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> roomTypes = new ConcurrentHashMap<>();
+    private final RoomTypeInventory typeInventory = new RoomTypeInventory();
+    private final List<OccupancyListener> listeners;
+    // bumped by every change, so callers can tell whether an earlier answer may still hold
+    private final AtomicLong version = new AtomicLong();
+
+    public RoomOccupancyIndex() {
+        this(List.of());
+    }
+
+    @Autowired
+    public RoomOccupancyIndex(List<OccupancyListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    // Replace the whole index with the given rooms and their reservations
+    public void rebuild(List<Room> rooms, List<Reservation> reservations) {
+        logger.info("Rebuilding room occupancy index from {} rooms and {} reservations", rooms.size(), reservations.size());
+        calendars.clear();
+        roomTypes.clear();
+        typeInventory.clear();
+        for (Reservation reservation : reservations) {
+            if (reservation.getRoom() == null) {
+                continue;
+            }
+            calendarOf(reservation.getRoom().getId())
+                .occupy(reservation.getCheckInDate().toEpochDay(), reservation.getCheckOutDate().toEpochDay());
+        }
+        for (Room room : rooms) {
+            if (room.getType() == null) {
+                continue;
+            }
+            roomTypes.put(room.getId(), room.getType());
+            typeInventory.addRoom(room.getType());
+            RoomCalendar calendar = calendars.get(room.getId());
+            if (calendar != null) {
+                calendar.forEachOccupiedNight(day -> typeInventory.adjust(room.getType(), day, day + 1, 1));
+            }
+        }
+        logger.debug("Room occupancy index holds calendars for {} rooms", calendars.size());
+        version.incrementAndGet();
+        listeners.forEach(listener -> listener.onRebuild(rooms));
+    }
+
+    // Check whether a room is free for every night between check-in and check-out
+    public boolean isFree(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        return calendar == null || calendar.isFree(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    // Earliest check-in in [from, until - nights] at which the room is free for the given number of nights
+    public Optional<LocalDate> earliestFreeWindow(Long roomId, LocalDate from, LocalDate until, int nights) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar == null) {
+            return from.plusDays(nights).isAfter(until) ? Optional.empty() : Optional.of(from);
+        }
+        long start = calendar.firstFreeRun(from.toEpochDay(), until.toEpochDay(), nights);
+        return start < 0 ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(start));
+    }
+
+    // Occupancy of one room for the given number of nights from a start date, bit i being night from + i
+    public long[] occupancyBits(Long roomId, LocalDate from, int days) {
+        long[] bits = new long[(days + 63) >>> 6];
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            calendar.copyBits(from.toEpochDay(), bits);
+            if ((days & 63) != 0) {
+                bits[bits.length - 1] &= -1L >>> (64 - (days & 63));
+            }
+        }
+        return bits;
+    }
+
+    // Count the rooms of each type that are free for every night between check-in and check-out
+    public Map<String, Integer> availableByType(LocalDate checkIn, LocalDate checkOut) {
+        return typeInventory.available(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    // Mark a room as occupied for the stay
+    public void occupy(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendarOf(roomId);
+        synchronized (calendar) {
+            calendar.occupy(checkIn.toEpochDay(), checkOut.toEpochDay(), typeCounter(roomId, 1));
+        }
+        notifyListeners(roomId, checkIn, checkOut);
+    }
+
+    // Mark a room as occupied for the stay only if every night is still free; the check and the
+    // change are one step, so concurrent writers cannot both take the same night
+    public boolean tryOccupy(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendarOf(roomId);
+        synchronized (calendar) {
+            if (!calendar.isFree(checkIn.toEpochDay(), checkOut.toEpochDay())) {
+                return false;
+            }
+            calendar.occupy(checkIn.toEpochDay(), checkOut.toEpochDay(), typeCounter(roomId, 1));
+        }
+        notifyListeners(roomId, checkIn, checkOut);
+        return true;
+    }
+
+    // Move a stay to new nights, possibly in another room, if they are free; otherwise the stay keeps
+    // its old nights. Within one room the stay's own nights do not count as a conflict.
+    public boolean tryMove(Long fromRoomId, LocalDate fromCheckIn, LocalDate fromCheckOut,
+                           Long toRoomId, LocalDate toCheckIn, LocalDate toCheckOut) {
+        if (!fromRoomId.equals(toRoomId)) {
+            if (!tryOccupy(toRoomId, toCheckIn, toCheckOut)) {
+                return false;
+            }
+            release(fromRoomId, fromCheckIn, fromCheckOut);
+            return true;
+        }
+        RoomCalendar calendar = calendarOf(fromRoomId);
+        synchronized (calendar) {
+            // the nights freed and taken are only counted once the move goes ahead; where the old and
+            // new stay overlap the night is released and taken again, so its count does not move
+            List<long[]> released = new ArrayList<>();
+            calendar.release(fromCheckIn.toEpochDay(), fromCheckOut.toEpochDay(),
+                (from, to) -> released.add(new long[] {from, to}));
+            if (!calendar.isFree(toCheckIn.toEpochDay(), toCheckOut.toEpochDay())) {
+                released.forEach(run -> calendar.occupy(run[0], run[1]));
+                return false;
+            }
+            RoomCalendar.NightRuns freed = typeCounter(fromRoomId, -1);
+            released.forEach(run -> freed.accept(run[0], run[1]));
+            calendar.occupy(toCheckIn.toEpochDay(), toCheckOut.toEpochDay(), typeCounter(toRoomId, 1));
+        }
+        notifyListeners(fromRoomId, fromCheckIn, fromCheckOut);
+        notifyListeners(toRoomId, toCheckIn, toCheckOut);
+        return true;
+    }
+
+    // Free the nights of a stay that has been moved or cancelled
+    public void release(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar != null) {
+            synchronized (calendar) {
+                calendar.release(checkIn.toEpochDay(), checkOut.toEpochDay(), typeCounter(roomId, -1));
+            }
+            notifyListeners(roomId, checkIn, checkOut);
+        }
+    }
+
+    // Drop the calendar of a room that no longer exists
+    public void removeRoom(Long roomId) {
+        RoomCalendar calendar = calendars.remove(roomId);
+        String type = roomTypes.remove(roomId);
+        if (type != null) {
+            if (calendar != null) {
+                synchronized (calendar) {
+                    calendar.forEachOccupiedNight(day -> typeInventory.adjust(type, day, day + 1, -1));
+                }
+            }
+            typeInventory.removeRoom(type);
+        }
+        listeners.forEach(listener -> listener.onRoomRemoved(roomId));
+        notifyListeners(roomId, null, null);
+    }
+
+    // Record a room that was added or edited, moving its sold nights over if its type changed,
+    // and tell listeners, since any answer it appears in may change
+    public void markRoomChanged(Room room) {
+        RoomCalendar calendar = calendarOf(room.getId());
+        synchronized (calendar) {
+            String previous = room.getType() == null ? roomTypes.remove(room.getId()) : roomTypes.put(room.getId(), room.getType());
+            if (!Objects.equals(previous, room.getType())) {
+                if (previous != null) {
+                    calendar.forEachOccupiedNight(day -> typeInventory.adjust(previous, day, day + 1, -1));
+                    typeInventory.removeRoom(previous);
+                }
+                if (room.getType() != null) {
+                    typeInventory.addRoom(room.getType());
+                    calendar.forEachOccupiedNight(day -> typeInventory.adjust(room.getType(), day, day + 1, 1));
+                }
+            }
+        }
+        listeners.forEach(listener -> listener.onRoomSaved(room));
+        notifyListeners(room.getId(), null, null);
+    }
+
+    // Moves the room type's sold counts by delta for exactly the nights a calendar change flipped,
+    // so occupying a taken night or releasing a free one leaves the counts alone
+    private RoomCalendar.NightRuns typeCounter(Long roomId, int delta) {
+        String type = roomTypes.get(roomId);
+        if (type == null) {
+            return RoomCalendar.NightRuns.NONE;
+        }
+        return (fromDay, toDay) -> typeInventory.adjust(type, fromDay, toDay, delta);
+    }
+
+    private RoomCalendar calendarOf(Long roomId) {
+        return calendars.computeIfAbsent(roomId, id -> new RoomCalendar());
+    }
+
+    // Goes up with every occupancy or room change; equal values mean no answer has changed in between
+    public long version() {
+        return version.get();
+    }
+
+    private void notifyListeners(Long roomId, LocalDate from, LocalDate to) {
+        version.incrementAndGet();
+        for (OccupancyListener listener : listeners) {
+            listener.onRoomChanged(roomId, from, to);
+        }
+    }
+}
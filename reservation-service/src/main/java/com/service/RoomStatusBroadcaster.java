@@ -0,0 +1,248 @@
+package com.service;
+
+import com.dto.RoomStatusEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes room status changes to Server-Sent Events subscribers.
+// A new subscriber first gets a "snapshot" event with every room, then one event per change.
+// Writers never block on a subscriber: changes land in a per-subscriber buffer that keeps only the
+// latest event per room, and a subscriber that falls more than bufferSize rooms behind is sent a
+// fresh snapshot instead of the backlog.
+@Component
+public class RoomStatusBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(RoomStatusBroadcaster.class);
+
+    public static final String SNAPSHOT = "snapshot";
+
+    private final RoomCatalog roomCatalog;
+    private final RoomOccupancyIndex occupancyIndex;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final Executor sender;
+    private final Clock clock;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public RoomStatusBroadcaster(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex,
+                                 @Value("${reservation.room-stream.buffer-size:256}") int bufferSize,
+                                 @Value("${reservation.room-stream.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${reservation.room-stream.max-subscribers:500}") int maxSubscribers) {
+        this(roomCatalog, occupancyIndex, bufferSize, timeoutMs, maxSubscribers, newSenderPool(), Clock.systemDefaultZone());
+    }
+
+    RoomStatusBroadcaster(RoomCatalog roomCatalog, RoomOccupancyIndex occupancyIndex, int bufferSize, long timeoutMs,
+                          int maxSubscribers, Executor sender, Clock clock) {
+        this.roomCatalog = roomCatalog;
+        this.occupancyIndex = occupancyIndex;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+        this.sender = sender;
+        this.clock = clock;
+    }
+
+    // senders block on slow sockets, so each busy subscriber gets its own (reused) thread
+    private static ExecutorService newSenderPool() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "room-stream-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Open a new stream; returns null when the subscriber limit is reached
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            logger.warn("Room stream subscriber limit of {} reached", maxSubscribers);
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribe(emitter);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.add(subscriber);
+        logger.debug("Room stream subscriber added, {} connected", subscribers.size());
+        schedule(subscriber);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public void roomBooked(Long roomId, LocalDate from, LocalDate to) {
+        publish(roomEvent(RoomStatusEvent.BOOKED, roomId, from, to));
+    }
+
+    public void roomReleased(Long roomId, LocalDate from, LocalDate to) {
+        publish(roomEvent(RoomStatusEvent.RELEASED, roomId, from, to));
+    }
+
+    public void roomUpdated(Long roomId) {
+        publish(roomEvent(RoomStatusEvent.ROOM_UPDATED, roomId, null, null));
+    }
+
+    public void roomDeleted(Long roomId) {
+        publish(new RoomStatusEvent(RoomStatusEvent.ROOM_DELETED, roomId, null, null, null, null, null, null));
+    }
+
+    // Changes made inside a transaction are only announced once it commits
+    private void publish(RoomStatusEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(RoomStatusEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+            schedule(subscriber);
+        }
+    }
+
+    private RoomStatusEvent roomEvent(String change, Long roomId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now(clock);
+        boolean occupiedTonight = !occupancyIndex.isFree(roomId, today, today.plusDays(1));
+        return roomCatalog.get(roomId)
+            .map(room -> new RoomStatusEvent(change, roomId, room.roomNumber(), room.type(), room.price(),
+                occupiedTonight, from, to))
+            .orElseGet(() -> new RoomStatusEvent(change, roomId, null, null, null, occupiedTonight, from, to));
+    }
+
+    private List<RoomStatusEvent> snapshot() {
+        LocalDate today = LocalDate.now(clock);
+        List<RoomStatusEvent> rooms = new ArrayList<>();
+        for (RoomCatalog.Entry room : roomCatalog.all()) {
+            rooms.add(new RoomStatusEvent(null, room.id(), room.roomNumber(), room.type(), room.price(),
+                !occupancyIndex.isFree(room.id(), today, today.plusDays(1)), null, null));
+        }
+        return rooms;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Send everything buffered for the subscriber, then give up the draining flag;
+    // re-checks the buffer afterwards so an event offered in between is not stranded
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                Subscriber.Batch batch;
+                while ((batch = subscriber.take()) != null) {
+                    if (batch.snapshot) {
+                        subscriber.emitter.send(SseEmitter.event().name(SNAPSHOT).data(snapshot()));
+                    }
+                    for (RoomStatusEvent event : batch.events) {
+                        subscriber.emitter.send(SseEmitter.event().name(event.getChange()).data(event));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping room stream subscriber: {}", e.getMessage());
+                remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            } finally {
+                subscriber.draining.set(false);
+            }
+        } while (subscriber.hasPending() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            logger.debug("Room stream subscriber removed, {} connected", subscribers.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        if (sender instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // latest undelivered event per room, in order of first change
+        private final Map<Long, RoomStatusEvent> pending = new LinkedHashMap<>();
+        // a new subscriber, or one that overflowed, needs a full snapshot
+        private boolean needsSnapshot = true;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void offer(RoomStatusEvent event) {
+            if (needsSnapshot) {
+                // the pending snapshot will already show this change
+                return;
+            }
+            pending.put(event.getRoomId(), event);
+            if (pending.size() > bufferSize) {
+                pending.clear();
+                needsSnapshot = true;
+            }
+        }
+
+        synchronized boolean hasPending() {
+            return needsSnapshot || !pending.isEmpty();
+        }
+
+        synchronized Batch take() {
+            if (!hasPending()) {
+                return null;
+            }
+            Batch batch = new Batch(needsSnapshot, new ArrayList<>(pending.values()));
+            needsSnapshot = false;
+            pending.clear();
+            return batch;
+        }
+
+        private record Batch(boolean snapshot, List<RoomStatusEvent> events) {
+        }
+    }
+}
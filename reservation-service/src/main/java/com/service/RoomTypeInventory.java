@@ -0,0 +1,99 @@
+package com.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per room type: how many rooms can be sold, and how many are sold on each night.
+// Sold counts live in one int array per type indexed by epoch day, so "how many Doubles are free
+// for this stay" is the room count minus the busiest night in a short array scan.
+final class RoomTypeInventory {
+
+    private static final int HEADROOM_NIGHTS = 64;
+
+    private static final class TypeCounts {
+        int rooms;
+        // epoch day of sold[0]
+        long originDay;
+        int[] sold = new int[0];
+    }
+
+    private final Map<String, TypeCounts> types = new HashMap<>();
+
+    synchronized void clear() {
+        types.clear();
+    }
+
+    synchronized void addRoom(String type) {
+        types.computeIfAbsent(type, t -> new TypeCounts()).rooms++;
+    }
+
+    synchronized void removeRoom(String type) {
+        TypeCounts counts = types.get(type);
+        if (counts != null && --counts.rooms <= 0) {
+            types.remove(type);
+        }
+    }
+
+    // add delta to the sold count of every night in [fromDay, toDay)
+    synchronized void adjust(String type, long fromDay, long toDay, int delta) {
+        TypeCounts counts = types.get(type);
+        if (counts == null || fromDay >= toDay) {
+            return;
+        }
+        ensureCapacity(counts, fromDay, toDay);
+        int start = (int) (fromDay - counts.originDay);
+        int end = (int) (toDay - counts.originDay);
+        for (int i = start; i < end; i++) {
+            counts.sold[i] += delta;
+        }
+    }
+
+    // rooms of each type that are free on every night in [fromDay, toDay)
+    synchronized Map<String, Integer> available(long fromDay, long toDay) {
+        Map<String, Integer> result = new TreeMap<>();
+        for (Map.Entry<String, TypeCounts> entry : types.entrySet()) {
+            TypeCounts counts = entry.getValue();
+            result.put(entry.getKey(), Math.max(0, counts.rooms - maxSold(counts, fromDay, toDay)));
+        }
+        return result;
+    }
+
+    private static int maxSold(TypeCounts counts, long fromDay, long toDay) {
+        long lo = Math.max(fromDay, counts.originDay);
+        long hi = Math.min(toDay, counts.originDay + counts.sold.length);
+        int max = 0;
+        for (long day = lo; day < hi; day++) {
+            max = Math.max(max, counts.sold[(int) (day - counts.originDay)]);
+        }
+        return max;
+    }
+
+    // grow the array (in either direction) so that [fromDay, toDay) is addressable
+    private static void ensureCapacity(TypeCounts counts, long fromDay, long toDay) {
+        if (counts.sold.length == 0) {
+            counts.originDay = fromDay - HEADROOM_NIGHTS;
+            counts.sold = new int[(int) (toDay - counts.originDay) + HEADROOM_NIGHTS];
+            return;
+        }
+        long end = counts.originDay + counts.sold.length;
+        if (fromDay >= counts.originDay && toDay <= end) {
+            return;
+        }
+        long newOrigin = fromDay < counts.originDay ? fromDay - HEADROOM_NIGHTS : counts.originDay;
+        long newEnd = toDay > end ? toDay + HEADROOM_NIGHTS : end;
+        int[] grown = new int[(int) (newEnd - newOrigin)];
+        System.arraycopy(counts.sold, 0, grown, (int) (counts.originDay - newOrigin), counts.sold.length);
+        counts.originDay = newOrigin;
+        counts.sold = grown;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("RoomTypeInventory[");
+        types.forEach((type, counts) -> sb.append(type).append(": rooms=").append(counts.rooms)
+            .append(", origin=").append(counts.originDay).append(", sold=").append(Arrays.toString(counts.sold)).append("; "));
+        return sb.append("]").toString();
+    }
+}
@@ -5,7 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
-import java.util.Optional;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,13 +13,23 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
 
 import com.dto.ReservationRequest;
 import com.model.Reservation;
 import com.model.Room;
 import com.repository.ReservationRepository;
 import com.repository.RoomRepository;
+import com.service.AvailabilityCache;
+import com.service.RateCalendar;
 import com.service.ReservationService;
+import com.service.BookingSequencer;
+import com.service.ReservationOutbox;
+import com.service.ReservationStats;
+import com.service.RoomStatusBroadcaster;
+import com.service.RoomLockStripes;
+import com.service.RoomCatalog;
+import com.service.RoomOccupancyIndex;
 
 public class ReservationServiceBasicTest {
 
@@ -31,8 +41,19 @@ public class ReservationServiceBasicTest {
     @Mock
     private RoomRepository roomRepository;
     
+    @Mock
+    private RoomStatusBroadcaster roomStatusBroadcaster;
+    
+    @Mock
+    private BookingSequencer bookingSequencer;
+    
+    @Mock
+    private ReservationOutbox outbox;
+    
     private ReservationService reservationService;
     
+    private final RoomCatalog roomCatalog = new RoomCatalog();
+    
     private Room testRoom;
     private Reservation testReservation;
     private ReservationRequest testReservationRequest;
@@ -40,7 +61,9 @@ public class ReservationServiceBasicTest {
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
-        reservationService = new ReservationService(reservationRepository, roomRepository);
+        reservationService = new ReservationService(reservationRepository, roomRepository, roomCatalog,
+                new RoomOccupancyIndex(List.of(roomCatalog)), new RoomLockStripes(16), new AvailabilityCache(false, 0, 0), new RateCalendar(),
+                new ReservationStats(), roomStatusBroadcaster, bookingSequencer, outbox, TransactionOperations.withoutTransaction());
         
         // Setup test room
         testRoom = new Room();
@@ -49,6 +72,7 @@ public class ReservationServiceBasicTest {
         testRoom.setType("Deluxe");
         testRoom.setPricePerNight(100.0);
         testRoom.setIsAvailable(true);
+        roomCatalog.onRebuild(List.of(testRoom));
         
         // Setup test reservation
         LocalDate checkInDate = LocalDate.now().plusDays(1);
@@ -76,9 +100,7 @@ public class ReservationServiceBasicTest {
     @Test
     public void testReservationBookingFlow() {
         // Mock repository behavior
-        when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
         when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
-        when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
         
         // Create a booking
         Reservation reservation = reservationService.createBooking(testReservationRequest, "receptionist@example.com");
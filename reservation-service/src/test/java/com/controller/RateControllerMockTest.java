@@ -0,0 +1,80 @@
+package com.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.dto.RateRequest;
+import com.service.RateService;
+
+@ExtendWith(MockitoExtension.class)
+public class RateControllerMockTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private RateService rateService;
+
+    @InjectMocks
+    private RateController rateController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(rateController).build();
+    }
+
+    @Test
+    void testSetRate() throws Exception {
+        mockMvc.perform(put("/rooms/rates/Double")
+                .header("X-User-Role", "MANAGER")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"from\":\"2025-08-01\",\"to\":\"2025-08-03\",\"price\":140.0}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomType").value("Double"))
+                .andExpect(jsonPath("$.price").value(140.0));
+
+        verify(rateService).setRate(eq("Double"), any(RateRequest.class));
+    }
+
+    @Test
+    void testSetRate_Unauthorized() throws Exception {
+        mockMvc.perform(put("/rooms/rates/Double")
+                .header("X-User-Role", "RECEPTIONIST")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"from\":\"2025-08-01\",\"to\":\"2025-08-03\",\"price\":140.0}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(rateService);
+    }
+
+    @Test
+    void testGetRates() throws Exception {
+        when(rateService.getRates("Suite", LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 8)))
+            .thenReturn(Map.of(LocalDate.of(2025, 8, 2), 320.0));
+
+        mockMvc.perform(get("/rooms/rates/Suite")
+                .param("from", "2025-08-01")
+                .param("to", "2025-08-08"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2025-08-02']").value(320.0));
+    }
+}
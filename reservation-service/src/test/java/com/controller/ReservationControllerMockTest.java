@@ -2,40 +2,76 @@ package com.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.dto.AvailableRoom;
+import com.dto.AvailableWindow;
+import com.dto.GroupBookingRequest;
+import com.dto.OccupancyGrid;
+import com.dto.PageResponse;
+import com.dto.Quote;
+import com.dto.QuoteBatchRequest;
+import com.dto.QuoteRequest;
+import com.dto.ReservationDetails;
 import com.dto.ReservationRequest;
 import com.dto.RoomRequest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.model.Reservation;
 import com.model.Room;
+import com.service.AvailabilityCache;
+import com.service.AvailabilityWindowService;
+import com.service.BookingGroupCommitter;
+import com.service.IdempotencyStore;
+import com.repository.IdempotencyRecordRepository;
+import com.service.OccupancyGridService;
+import com.service.QuoteService;
+import com.service.ReservationExporter;
 import com.service.ReservationService;
+import com.service.RoomCacheTags;
+import com.service.RoomCatalog;
+import com.service.RoomOccupancyIndex;
 
 @ExtendWith(MockitoExtension.class)
 public class ReservationControllerMockTest {
@@ -47,6 +83,35 @@ public class ReservationControllerMockTest {
     @Mock
     private ReservationService reservationService;
     
+    @Mock
+    private BookingGroupCommitter bookingGroupCommitter;
+    
+    @Mock
+    private ReservationExporter reservationExporter;
+    
+    @Mock
+    private AvailabilityCache availabilityCache;
+    
+    @Mock
+    private QuoteService quoteService;
+    
+    @Mock
+    private AvailabilityWindowService availabilityWindowService;
+    
+    @Mock
+    private OccupancyGridService occupancyGridService;
+    
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(mock(IdempotencyRecordRepository.class),
+        new ObjectMapper().findAndRegisterModules(), 100, 60_000, 86_400_000, 1_000);
+    
+    private final RoomCatalog roomCatalog = new RoomCatalog();
+    
+    private final RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+    
+    @Spy
+    private RoomCacheTags roomCacheTags = new RoomCacheTags(roomCatalog, occupancyIndex, 10);
+    
     @InjectMocks
     private ReservationController reservationController;
     
@@ -124,6 +189,37 @@ public class ReservationControllerMockTest {
         logger.info("Available rooms endpoint test passed");
     }
     
+    @Test
+    void testGetAvailableRooms_RevalidatedUntilOccupancyChanges() throws Exception {
+        // Arrange
+        when(reservationService.findAvailableRooms(any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Arrays.asList(testRoom));
+        String etag = mockMvc.perform(get("/public/rooms/available")
+                .param("checkIn", checkInDate.toString())
+                .param("checkOut", checkOutDate.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=10, must-revalidate, public"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Act & Assert: the same copy is still current until a night is booked
+        mockMvc.perform(get("/public/rooms/available")
+                .param("checkIn", checkInDate.toString())
+                .param("checkOut", checkOutDate.toString())
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+        occupancyIndex.occupy(1L, checkInDate, checkOutDate);
+        mockMvc.perform(get("/public/rooms/available")
+                .param("checkIn", checkInDate.toString())
+                .param("checkOut", checkOutDate.toString())
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+        
+        verify(reservationService, times(2)).findAvailableRooms(any(LocalDate.class), any(LocalDate.class));
+        logger.info("Conditional available rooms endpoint test passed");
+    }
+    
     @Test
     void testBookRoom_Success() throws Exception {
         // Arrange
@@ -147,9 +243,82 @@ public class ReservationControllerMockTest {
         logger.info("Book room endpoint test passed");
     }
     
+    @Test
+    void testBookRoom_RetryWithIdempotencyKeyIsReplayed() throws Exception {
+        // Arrange
+        when(reservationService.createBooking(any(ReservationRequest.class), anyString()))
+            .thenReturn(testReservation);
+        when(reservationService.calculateTotalPrice(any(Reservation.class)))
+            .thenReturn(200.0);
+        String body = objectMapper.writeValueAsString(testReservationRequest);
+        
+        // Act & Assert
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/reservation/book")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body)
+                    .header("X-User-Email", "receptionist@example.com")
+                    .header("X-User-Role", "RECEPTIONIST")
+                    .header("Idempotency-Key", "cart-42"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reservationId").value(1))
+                    .andExpect(jsonPath("$.Price").value(200.0));
+        }
+        
+        verify(reservationService, times(1)).createBooking(any(ReservationRequest.class), anyString());
+    }
+    
    
     
     
+    @Test
+    void testBookRooms_Batch() throws Exception {
+        // Arrange
+        GroupBookingRequest groupRequest = new GroupBookingRequest(Arrays.asList(testReservationRequest));
+        when(reservationService.createGroupBooking(anyList(), anyString()))
+            .thenReturn(Arrays.asList(testReservation));
+        when(reservationService.calculateTotalPrice(any(Reservation.class)))
+            .thenReturn(200.0);
+        
+        // Act & Assert
+        mockMvc.perform(post("/reservation/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(groupRequest))
+                .header("X-User-Email", "receptionist@example.com")
+                .header("X-User-Role", "MANAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BOOKED"))
+                .andExpect(jsonPath("$.reservations[0].roomNumber").value("101"))
+                .andExpect(jsonPath("$.reservations[0].Price").value(200.0))
+                .andExpect(jsonPath("$.totalPrice").value(200.0));
+        
+        logger.info("Group booking endpoint test passed");
+    }
+    
+    @Test
+    void testBookRooms_BatchWithoutGuestName() throws Exception {
+        // Arrange: the rooms are booked, so the response must come back even without a guest name
+        testReservation.setGuestName(null);
+        GroupBookingRequest groupRequest = new GroupBookingRequest(Arrays.asList(testReservationRequest));
+        when(reservationService.createGroupBooking(anyList(), anyString()))
+            .thenReturn(Arrays.asList(testReservation));
+        when(reservationService.calculateTotalPrice(any(Reservation.class)))
+            .thenReturn(200.0);
+        
+        // Act & Assert
+        mockMvc.perform(post("/reservation/book/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(groupRequest))
+                .header("X-User-Email", "receptionist@example.com")
+                .header("X-User-Role", "MANAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("BOOKED"))
+                .andExpect(jsonPath("$.reservations[0].roomNumber").value("101"))
+                .andExpect(jsonPath("$.reservations[0].guestName").doesNotExist());
+        
+        logger.info("Group booking without guest name test passed");
+    }
+    
     @Test
     void testAddRoom_Success() throws Exception {
         // Arrange
@@ -181,12 +350,36 @@ public class ReservationControllerMockTest {
         logger.info("Get room by ID endpoint test passed");
     }
     
+    @Test
+    void testGetRoomById_NotModifiedWhileCatalogUnchanged() throws Exception {
+        // Arrange
+        when(reservationService.getRoomById(anyLong())).thenReturn(testRoomRequest);
+        String etag = mockMvc.perform(get("/rooms/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // Act & Assert
+        mockMvc.perform(get("/rooms/1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        roomCatalog.onRoomSaved(testRoom);
+        mockMvc.perform(get("/rooms/1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomNumber").value("101"));
+        
+        verify(reservationService, times(2)).getRoomById(1L);
+        logger.info("Conditional room endpoint test passed");
+    }
+    
     
     @Test
     void testGetReservationDetails_Success() throws Exception {
         // Arrange
-        when(reservationService.findById(anyLong())).thenReturn(testReservation);
-        when(reservationService.calculateTotalPrice(any(Reservation.class))).thenReturn(200.0);
+        ReservationDetails details = new ReservationDetails(1L, "John Doe", 1L, "101", "Single", 100.0,
+            testReservation.getCheckInDate(), testReservation.getCheckOutDate());
+        when(reservationService.getReservationDetails(anyLong())).thenReturn(Optional.of(details));
+        when(reservationService.calculateTotalPrice(any(ReservationDetails.class))).thenReturn(200.0);
         
         // Act & Assert
         mockMvc.perform(get("/reservation/details/1")
@@ -210,6 +403,67 @@ public class ReservationControllerMockTest {
         logger.info("Get reservation details unauthorized test passed");
     }
     
+    @Test
+    void testGetReservationDetailsBatch_MixedResults() throws Exception {
+        // Arrange
+        ReservationDetails priced = new ReservationDetails(1L, "John Doe", 1L, "101", "Single", 100.0,
+            testReservation.getCheckInDate(), testReservation.getCheckOutDate());
+        ReservationDetails roomless = new ReservationDetails(2L, "Jane Roe", null, null, null, null,
+            testReservation.getCheckInDate(), testReservation.getCheckOutDate());
+        when(reservationService.getReservationDetails(Set.of(1L, 2L, 3L))).thenReturn(List.of(priced, roomless));
+        when(reservationService.calculateTotalPrice(priced)).thenReturn(200.0);
+        
+        // Act & Assert: duplicates collapse, order follows the request
+        mockMvc.perform(post("/reservation/details/batch")
+                .header("X-User-Role", "MANAGER")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationIds\":[3,1,2,1]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].reservationId").value(3))
+                .andExpect(jsonPath("$[0].error").value("Reservation not found"))
+                .andExpect(jsonPath("$[1].roomNumber").value("101"))
+                .andExpect(jsonPath("$[1].Price").value(200.0))
+                .andExpect(jsonPath("$[2].error").value("No room assigned to reservation"));
+        
+        logger.info("Batch reservation details endpoint test passed");
+    }
+    
+    @Test
+    void testGetReservationDetailsBatch_WithoutGuestName() throws Exception {
+        // Arrange
+        ReservationDetails nameless = new ReservationDetails(1L, null, 1L, "101", "Single", 100.0,
+            testReservation.getCheckInDate(), testReservation.getCheckOutDate());
+        when(reservationService.getReservationDetails(Set.of(1L))).thenReturn(List.of(nameless));
+        when(reservationService.calculateTotalPrice(nameless)).thenReturn(200.0);
+        
+        // Act & Assert
+        mockMvc.perform(post("/reservation/details/batch")
+                .header("X-User-Role", "MANAGER")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationIds\":[1]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].reservationId").value(1))
+                .andExpect(jsonPath("$[0].guestName").doesNotExist())
+                .andExpect(jsonPath("$[0].roomNumber").value("101"))
+                .andExpect(jsonPath("$[0].Price").value(200.0));
+        
+        logger.info("Batch reservation details without guest name test passed");
+    }
+    
+    @Test
+    void testGetReservationDetailsBatch_Unauthorized() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/reservation/details/batch")
+                .header("X-User-Role", "GUEST")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reservationIds\":[1]}"))
+                .andExpect(status().isForbidden());
+        
+        verifyNoInteractions(reservationService);
+        logger.info("Batch reservation details unauthorized test passed");
+    }
+    
     @Test
     void testGetAllReservations() throws Exception {
         // Arrange
@@ -217,11 +471,212 @@ public class ReservationControllerMockTest {
         when(reservationService.getAllReservations()).thenReturn(reservations);
         
         // Act & Assert
-        mockMvc.perform(get("/reservation/all"))
+        mockMvc.perform(get("/reservation/all").param("unpaged", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].guestName").value("John Doe"))
                 .andExpect(jsonPath("$[0].guestEmail").value("john@example.com"));
         
         logger.info("Get all reservations endpoint test passed");
     }
-} 
\ No newline at end of file
+    
+    @Test
+    void testGetAllReservations_Paged() throws Exception {
+        // Arrange
+        PageResponse<ReservationRequest> page = new PageResponse<>(List.of(testReservationRequest), 1L);
+        when(reservationService.getReservationsPage(null, 50)).thenReturn(page);
+        
+        // Act & Assert
+        mockMvc.perform(get("/reservation/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].guestName").value("John Doe"))
+                .andExpect(jsonPath("$.size").value(1))
+                .andExpect(jsonPath("$.next").value(1));
+        
+        logger.info("Get paged reservations endpoint test passed");
+    }
+    
+    @Test
+    void testGetAllRooms_PagedAfterCursor() throws Exception {
+        // Arrange
+        Room room = new Room(7L, "107", "Single", 60.0, true);
+        when(reservationService.getRoomsPage(5L, 20)).thenReturn(new PageResponse<>(List.of(room), null));
+        
+        // Act & Assert
+        mockMvc.perform(get("/rooms/all").param("after", "5").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].roomNumber").value("107"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+        
+        logger.info("Get paged rooms endpoint test passed");
+    }
+    
+    @Test
+    void testExportReservations_StreamsNdjson() throws Exception {
+        // Arrange
+        when(reservationExporter.writeNdjson(any(), any(), any(), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+        
+        // Act
+        MvcResult result = mockMvc.perform(get("/reservation/export")
+                .param("from", "2025-07-01")
+                .param("status", "CONFIRMED")
+                .header("X-User-Role", "MANAGER"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+        
+        logger.info("Reservation export endpoint test passed");
+    }
+    
+    @Test
+    void testExportReservations_Unauthorized() throws Exception {
+        MvcResult result = mockMvc.perform(get("/reservation/export")
+                .header("X-User-Role", "GUEST"))
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.message").value("Requires OWNER, MANAGER, or RECEPTIONIST role"));
+    }
+    
+    @Test
+    void testSearchAvailableRooms() throws Exception {
+        // Arrange
+        when(reservationService.searchAvailableRooms(any(LocalDate.class), any(LocalDate.class), any(), any(), any()))
+            .thenReturn(List.of(new AvailableRoom(3L, "103", "Double", 95.0)));
+        
+        // Act & Assert
+        mockMvc.perform(get("/public/rooms/search")
+                .param("checkIn", "2025-10-10")
+                .param("checkOut", "2025-10-13")
+                .param("type", "Double")
+                .param("maxPrice", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].roomNumber").value("103"))
+                .andExpect(jsonPath("$[0].price").value(95.0));
+        
+        logger.info("Search available rooms endpoint test passed");
+    }
+    
+    @Test
+    void testGetNextAvailable() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.of(2025, 10, 1);
+        when(availabilityWindowService.findNextAvailable("Suite", 4, from, 90, 10)).thenReturn(List.of(
+            new AvailableWindow(3L, "301", "Suite", from.plusDays(6), from.plusDays(10))));
+        
+        // Act & Assert
+        mockMvc.perform(get("/public/rooms/next-available")
+                .param("type", "Suite")
+                .param("nights", "4")
+                .param("from", "2025-10-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].roomId").value(3))
+                .andExpect(jsonPath("$[0].roomNumber").value("301"));
+    }
+    
+    @Test
+    void testGetStats() throws Exception {
+        // Arrange
+        when(reservationService.getStats()).thenReturn(Map.of("totalRooms", 40, "occupiedTonight", 30, "arrivalsToday", 5));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reservation/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRooms").value(40))
+                .andExpect(jsonPath("$.occupiedTonight").value(30));
+        
+        mockMvc.perform(post("/reservation/stats/rebuild")
+                .header("X-User-Role", "RECEPTIONIST"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void testGetOccupancyGrid() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.of(2025, 10, 1);
+        when(occupancyGridService.buildGrid(from, 7, OccupancyGrid.BITSET)).thenReturn(new OccupancyGrid(from, 7, OccupancyGrid.BITSET,
+            List.of(new OccupancyGrid.Row(1L, "101", "Deluxe", 2, "Bg==", null))));
+        
+        // Act & Assert
+        mockMvc.perform(get("/reservation/occupancy-grid")
+                .param("from", "2025-10-01")
+                .param("days", "7")
+                .header("X-User-Role", "RECEPTIONIST"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.encoding").value("bitset"))
+                .andExpect(jsonPath("$.rooms[0].bits").value("Bg=="))
+                .andExpect(jsonPath("$.rooms[0].runs").doesNotExist());
+        
+        mockMvc.perform(get("/reservation/occupancy-grid")
+                .header("X-User-Role", "GUEST"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void testGetQuotes() throws Exception {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 10, 10);
+        LocalDate checkOut = LocalDate.of(2025, 10, 12);
+        QuoteBatchRequest request = new QuoteBatchRequest(List.of(
+            new QuoteRequest(1L, null, checkIn, checkOut),
+            new QuoteRequest(null, "Penthouse", checkIn, checkOut)));
+        when(quoteService.quote(anyList())).thenReturn(List.of(
+            new Quote(1L, "101", "Deluxe", checkIn, checkOut, 2L, 200.0, null),
+            Quote.error(request.getQuotes().get(1), "No rooms of type Penthouse")));
+        
+        // Act & Assert
+        mockMvc.perform(post("/public/rooms/quotes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].total").value(200.0))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].error").value("No rooms of type Penthouse"));
+        
+        mockMvc.perform(post("/public/rooms/quotes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quotes\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testGetAvailabilityCacheStats() throws Exception {
+        // Arrange
+        when(availabilityCache.stats()).thenReturn(Map.of("hits", 40L, "misses", 10L, "hitRate", 0.8));
+        
+        // Act & Assert
+        mockMvc.perform(get("/rooms/availability-cache/stats")
+                .header("X-User-Role", "MANAGER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(40))
+                .andExpect(jsonPath("$.hitRate").value(0.8));
+        
+        mockMvc.perform(get("/rooms/availability-cache/stats")
+                .header("X-User-Role", "RECEPTIONIST"))
+                .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void testGetAvailabilityByType() throws Exception {
+        // Arrange
+        when(reservationService.findAvailabilityByType(LocalDate.of(2025, 12, 24), LocalDate.of(2025, 12, 27)))
+            .thenReturn(Map.of("Double", 3, "Suite", 0));
+        
+        // Act & Assert
+        mockMvc.perform(get("/public/rooms/availability-by-type")
+                .param("checkIn", "2025-12-24")
+                .param("checkOut", "2025-12-27"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Double").value(3))
+                .andExpect(jsonPath("$.Suite").value(0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.dto.HoldRequest;
+import com.dto.ReservationRequest;
+import com.dto.RoomHold;
+import com.model.Reservation;
+import com.model.Room;
+import com.service.ReservationService;
+import com.service.RoomHoldService;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomHoldControllerMockTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private RoomHoldService roomHoldService;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @InjectMocks
+    private RoomHoldController roomHoldController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(roomHoldController).build();
+    }
+
+    @Test
+    void testPlaceHold() throws Exception {
+        when(roomHoldService.placeHold(any(HoldRequest.class))).thenReturn(new RoomHold("h-1", 1L,
+            LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 4), Instant.parse("2025-08-20T10:10:00Z")));
+
+        mockMvc.perform(post("/reservation/hold")
+                .header("X-User-Role", "RECEPTIONIST")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"roomId\":1,\"checkInDate\":\"2025-09-01\",\"checkOutDate\":\"2025-09-04\",\"ttlSeconds\":600}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.holdId").value("h-1"))
+                .andExpect(jsonPath("$.roomId").value(1));
+    }
+
+    @Test
+    void testPlaceHold_Unauthorized() throws Exception {
+        mockMvc.perform(post("/reservation/hold")
+                .header("X-User-Role", "GUEST")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"roomId\":1,\"checkInDate\":\"2025-09-01\",\"checkOutDate\":\"2025-09-04\"}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(roomHoldService);
+    }
+
+    @Test
+    void testBookHold() throws Exception {
+        Room room = new Room(1L, "101", "Double", 90.0, true);
+        Reservation reservation = new Reservation(7L, "Ann", "ann@example.com", room,
+            LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 4), "CONFIRMED");
+        when(roomHoldService.bookHold(eq("h-1"), any(ReservationRequest.class), eq("desk@example.com"))).thenReturn(reservation);
+        when(reservationService.calculateTotalPrice(reservation)).thenReturn(270.0);
+
+        mockMvc.perform(post("/reservation/hold/h-1/book")
+                .header("X-User-Role", "RECEPTIONIST")
+                .header("X-User-Email", "desk@example.com")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"guestName\":\"Ann\",\"guestEmail\":\"ann@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservationId").value(7))
+                .andExpect(jsonPath("$.Price").value(270.0));
+    }
+
+    @Test
+    void testReleaseHold() throws Exception {
+        mockMvc.perform(delete("/reservation/hold/h-1")
+                .header("X-User-Role", "MANAGER"))
+                .andExpect(status().isOk());
+
+        verify(roomHoldService).releaseHold("h-1");
+    }
+}
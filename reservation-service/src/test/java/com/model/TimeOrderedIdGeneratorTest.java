@@ -0,0 +1,81 @@
+package com.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class TimeOrderedIdGeneratorTest {
+
+    private final long now = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void testIdsAreUniqueAndIncreasingWithinOneSecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, () -> now);
+        Set<Long> seen = new HashSet<>();
+        long previous = -1;
+        // more than one second's worth of sequence numbers, so the generator has to borrow
+        for (int i = 0; i < 40_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "Id " + id + " did not increase after " + previous);
+            assertTrue(seen.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void testIdsStayIncreasingWhenClockStepsBack() {
+        AtomicLong clock = new AtomicLong(now);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.addAndGet(-5_000);
+        long after = generator.nextId();
+
+        assertTrue(after > before);
+    }
+
+    @Test
+    void testRestartAfterBurstContinuesPastIssuedIds() {
+        TimeOrderedIdGenerator beforeRestart = new TimeOrderedIdGenerator(3, () -> now);
+        long highest = 0;
+        // a burst that runs a couple of seconds ahead of the clock
+        for (int i = 0; i < 40_000; i++) {
+            highest = beforeRestart.nextId();
+        }
+
+        TimeOrderedIdGenerator afterRestart = new TimeOrderedIdGenerator(3, () -> now);
+        afterRestart.advanceTo(highest);
+
+        assertTrue(afterRestart.nextId() > highest);
+        // advancing to an older id never moves the generator back
+        afterRestart.advanceTo(highest - 100);
+        assertTrue(afterRestart.nextId() > highest);
+    }
+
+    @Test
+    void testLayoutCarriesNodeAndFitsInJavaScriptNumber() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(200, () -> now);
+
+        long id = generator.nextId();
+
+        long seconds = id >>> (TimeOrderedIdGenerator.NODE_BITS + TimeOrderedIdGenerator.SEQUENCE_BITS);
+        long node = (id >>> TimeOrderedIdGenerator.SEQUENCE_BITS) & TimeOrderedIdGenerator.MAX_NODE_ID;
+        assertEquals(now / 1000 - TimeOrderedIdGenerator.EPOCH_SECOND, seconds);
+        assertEquals(200, node);
+        assertTrue(id < (1L << 53));
+    }
+
+    @Test
+    void testIdsFromDifferentNodesDoNotCollide() {
+        TimeOrderedIdGenerator first = new TimeOrderedIdGenerator(1, () -> now);
+        TimeOrderedIdGenerator second = new TimeOrderedIdGenerator(2, () -> now);
+
+        assertNotEquals(first.nextId(), second.nextId());
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(256, () -> now));
+    }
+}
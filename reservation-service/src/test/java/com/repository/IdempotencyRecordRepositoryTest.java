@@ -0,0 +1,67 @@
+package com.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.model.IdempotencyRecord;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = IdempotencyRecordRepositoryTest.JpaConfig.class)
+public class IdempotencyRecordRepositoryTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Instant claimedAt = Instant.parse("2025-10-10T10:00:00Z");
+
+    @Test
+    void testSecondClaimOfAKeyFails() {
+        assertEquals(1, repository.claim("book:a:k1", "f1", claimedAt));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+            repository.claim("book:a:k1", "f1", claimedAt.plusSeconds(1)));
+        assertTrue(repository.findById("book:a:k1").orElseThrow().isPending());
+    }
+
+    @Test
+    void testCompletedClaimIsNoLongerReleased() {
+        repository.claim("book:a:k1", "f1", claimedAt);
+        assertEquals(1, repository.complete("book:a:k1", 201, "{\"id\":7}", claimedAt.plusSeconds(1)));
+        entityManager.clear();
+
+        assertEquals(0, repository.releaseClaim("book:a:k1"));
+        IdempotencyRecord record = repository.findById("book:a:k1").orElseThrow();
+        assertFalse(record.isPending());
+        assertEquals(201, record.getStatus());
+        assertEquals("{\"id\":7}", record.getBody());
+    }
+
+    @Test
+    void testStaleClaimIsOnlyDroppedIfUnchanged() {
+        repository.claim("book:a:k1", "f1", claimedAt);
+
+        assertEquals(0, repository.deleteIfUnchanged("book:a:k1", claimedAt.minusSeconds(1)));
+        assertEquals(1, repository.deleteIfUnchanged("book:a:k1", claimedAt));
+        assertEquals(1, repository.claim("book:a:k1", "f2", claimedAt.plusSeconds(5)));
+    }
+}
@@ -0,0 +1,129 @@
+package com.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.model.Reservation;
+import com.model.Room;
+
+import jakarta.persistence.EntityManager;
+
+// Compares the per-room conflict check with the old "load every overlapping reservation" path
+// while the hotel grows from 50 to 5,000 fully booked rooms.
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = ReservationConflictBenchmarkTest.JpaConfig.class)
+public class ReservationConflictBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationConflictBenchmarkTest.class);
+
+    private static final int[] HOTEL_SIZES = {50, 500, 5000};
+    private static final int WARMUP_CHECKS = 500;
+    private static final int CHECKS_PER_SIZE = 300;
+    private static final int LEGACY_CHECKS_PER_SIZE = 10;
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testConflictCheckLatencyStaysFlatAsHotelGrows() {
+        LocalDate checkIn = LocalDate.of(2025, 8, 1);
+        LocalDate checkOut = checkIn.plusDays(3);
+        Random random = new Random(42);
+
+        List<Room> rooms = new ArrayList<>();
+        double[] scopedMedians = new double[HOTEL_SIZES.length];
+
+        for (int s = 0; s < HOTEL_SIZES.length; s++) {
+            int size = HOTEL_SIZES[s];
+            seedPeakSeason(rooms, size, checkIn);
+
+            if (s == 0) {
+                // let the JIT and Hibernate's query plan cache settle before timing anything
+                for (int i = 0; i < WARMUP_CHECKS; i++) {
+                    reservationRepository.existsOverlappingReservation(rooms.get(i % size).getId(), checkIn, checkOut);
+                    entityManager.clear();
+                }
+            }
+
+            long[] scoped = new long[CHECKS_PER_SIZE];
+            long[] legacy = new long[LEGACY_CHECKS_PER_SIZE];
+            for (int i = 0; i < scoped.length; i++) {
+                Long roomId = rooms.get(random.nextInt(rooms.size())).getId();
+                long start = System.nanoTime();
+                boolean conflict = reservationRepository.existsOverlappingReservation(roomId, checkIn, checkOut);
+                scoped[i] = System.nanoTime() - start;
+                assertTrue(conflict);
+                entityManager.clear();
+            }
+            for (int i = 0; i < legacy.length; i++) {
+                Long roomId = rooms.get(random.nextInt(rooms.size())).getId();
+                long start = System.nanoTime();
+                boolean conflict = reservationRepository.findOverlappingReservations(checkIn, checkOut).stream()
+                    .anyMatch(r -> r.getRoom().getId().equals(roomId));
+                legacy[i] = System.nanoTime() - start;
+                assertTrue(conflict);
+                entityManager.clear();
+            }
+
+            scopedMedians[s] = median(scoped) / 1000.0;
+            logger.info("{} rooms: per-room check median {} us, full overlap scan median {} us",
+                size, scopedMedians[s], median(legacy) / 1000.0);
+        }
+
+        // the scoped check touches one index range, so it must not grow with the room count
+        assertTrue(scopedMedians[2] < scopedMedians[0] * 5 + 200,
+            "Per-room conflict check grew from " + scopedMedians[0] + " us to " + scopedMedians[2] + " us");
+    }
+
+    // Add rooms until the hotel has the requested size, each booked over the benchmark dates
+    private void seedPeakSeason(List<Room> rooms, int size, LocalDate checkIn) {
+        List<Room> newRooms = new ArrayList<>();
+        for (int i = rooms.size(); i < size; i++) {
+            newRooms.add(new Room(null, "R" + i, i % 2 == 0 ? "Double" : "Single", 80.0, false));
+        }
+        rooms.addAll(roomRepository.saveAll(newRooms));
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (Room room : newRooms) {
+            reservations.add(new Reservation(null, "Guest " + room.getRoomNumber(), "guest@example.com",
+                room, checkIn.minusDays(1), checkIn.plusDays(2), "CONFIRMED"));
+            reservations.add(new Reservation(null, "Earlier " + room.getRoomNumber(), "earlier@example.com",
+                room, checkIn.minusDays(10), checkIn.minusDays(5), "CONFIRMED"));
+        }
+        reservationRepository.saveAll(reservations);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
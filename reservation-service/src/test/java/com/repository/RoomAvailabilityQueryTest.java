@@ -0,0 +1,95 @@
+package com.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.dto.AvailableRoom;
+import com.model.Reservation;
+import com.model.Room;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = RoomAvailabilityQueryTest.JpaConfig.class)
+public class RoomAvailabilityQueryTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDate checkIn = LocalDate.of(2025, 10, 10);
+    private final LocalDate checkOut = LocalDate.of(2025, 10, 13);
+
+    @BeforeEach
+    void setUp() {
+        Room booked = roomRepository.save(new Room(null, "101", "Double", 90.0, false));
+        roomRepository.save(new Room(null, "102", "Double", 110.0, true));
+        roomRepository.save(new Room(null, "201", "Suite", 240.0, true));
+        Room bookedBefore = roomRepository.save(new Room(null, "103", "Double", 95.0, true));
+
+        reservationRepository.saveAll(List.of(
+            new Reservation(null, "Overlap", "overlap@example.com", booked, checkIn.plusDays(2), checkIn.plusDays(5), "CONFIRMED"),
+            // leaves on the morning of check-in, so the room is free again
+            new Reservation(null, "Touching", "touch@example.com", bookedBefore, checkIn.minusDays(2), checkIn, "CONFIRMED")));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testExcludesRoomsWithOverlappingReservations() {
+        List<AvailableRoom> rooms = roomRepository.findAvailableRooms(checkIn, checkOut, null, null, null);
+
+        assertEquals(List.of("103", "102", "201"), rooms.stream().map(AvailableRoom::getRoomNumber).toList());
+    }
+
+    @Test
+    void testAppliesTypeAndPriceBand() {
+        List<AvailableRoom> rooms = roomRepository.findAvailableRooms(checkIn, checkOut, "Double", 100.0, 150.0);
+
+        assertEquals(1, rooms.size());
+        assertEquals("102", rooms.get(0).getRoomNumber());
+        assertEquals(110.0, rooms.get(0).getPrice());
+    }
+
+    @Test
+    void testAvailabilityUpdateLeavesConcurrentRoomEditAlone() {
+        Room stale = roomRepository.findAll().stream()
+            .filter(room -> room.getRoomNumber().equals("102")).findFirst().orElseThrow();
+        entityManager.clear();
+        // another request reprices the room after the booking read it
+        Room edited = roomRepository.findById(stale.getId()).orElseThrow();
+        edited.setPricePerNight(150.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, roomRepository.updateAvailability(stale.getId(), false));
+        assertEquals(2, roomRepository.updateAvailabilityForRooms(
+            List.of(stale.getId(), stale.getId() + 1), false));
+        entityManager.clear();
+
+        Room reloaded = roomRepository.findById(stale.getId()).orElseThrow();
+        assertFalse(reloaded.getIsAvailable());
+        assertEquals(150.0, reloaded.getPricePerNight());
+    }
+}
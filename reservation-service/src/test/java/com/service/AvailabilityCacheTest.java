@@ -0,0 +1,97 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class AvailabilityCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    private final AvailabilityCache cache = new AvailabilityCache(true, 2, 5_000, clock::get);
+    private final LocalDate monday = LocalDate.of(2025, 11, 3);
+
+    @Test
+    void testRepeatedQueryIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        AvailabilityCache.Key key = AvailabilityCache.Key.rooms(monday, monday.plusDays(2));
+
+        cache.get(key, () -> List.of("101", loads.incrementAndGet()));
+        List<Object> second = cache.get(key, () -> List.of("101", loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of("101", 1), second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testOnlyOverlappingRangesAreInvalidated() {
+        AvailabilityCache.Key thisWeek = AvailabilityCache.Key.rooms(monday, monday.plusDays(3));
+        AvailabilityCache.Key nextWeek = AvailabilityCache.Key.search(monday.plusDays(7), monday.plusDays(9), "Suite", null, 300.0);
+        cache.get(thisWeek, () -> List.of("101"));
+        cache.get(nextWeek, () -> List.of("201"));
+
+        // a stay checking out on the first night of this week's query does not touch it
+        cache.onRoomChanged(5L, monday.minusDays(2), monday);
+        assertEquals(2, cache.size());
+
+        cache.onRoomChanged(5L, monday.plusDays(8), monday.plusDays(10));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getInvalidationCount());
+
+        // a room edit may change every answer
+        cache.onRoomChanged(5L, null, null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEntriesExpireAndLeastRecentlyUsedIsEvicted() {
+        AvailabilityCache.Key first = AvailabilityCache.Key.rooms(monday, monday.plusDays(1));
+        AvailabilityCache.Key second = AvailabilityCache.Key.rooms(monday, monday.plusDays(2));
+        AvailabilityCache.Key third = AvailabilityCache.Key.rooms(monday, monday.plusDays(3));
+        cache.get(first, () -> List.of(1));
+        cache.get(second, () -> List.of(2));
+        cache.get(first, () -> List.of(1));
+        cache.get(third, () -> List.of(3));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(List.of(1), cache.get(first, () -> List.of(-1)));
+        assertEquals(List.of(-2), cache.get(second, () -> List.of(-2)));
+
+        clock.addAndGet(5_001);
+        assertEquals(List.of(-1), cache.get(first, () -> List.of(-1)));
+    }
+
+    @Test
+    void testLoadThatRacedWithAWriteIsNotCached() {
+        AvailabilityCache.Key key = AvailabilityCache.Key.rooms(monday, monday.plusDays(2));
+
+        cache.get(key, () -> {
+            // a booking lands while the answer is being computed
+            cache.onRoomChanged(7L, monday, monday.plusDays(1));
+            return List.of("stale");
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals(List.of("fresh"), cache.get(key, () -> List.of("fresh")));
+    }
+
+    @Test
+    void testDisabledCacheAlwaysLoads() {
+        AvailabilityCache disabled = new AvailabilityCache(false, 10, 5_000);
+        AtomicInteger loads = new AtomicInteger();
+        AvailabilityCache.Key key = AvailabilityCache.Key.rooms(monday, monday.plusDays(2));
+
+        disabled.get(key, () -> List.of(loads.incrementAndGet()));
+        disabled.get(key, () -> List.of(loads.incrementAndGet()));
+
+        assertEquals(2, loads.get());
+        assertEquals(0, disabled.size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.dto.AvailableWindow;
+import com.exception.AppExceptions;
+import com.model.Room;
+
+public class AvailabilityWindowServiceTest {
+
+    private RoomOccupancyIndex occupancyIndex;
+    private AvailabilityWindowService windowService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+        windowService = new AvailabilityWindowService(roomCatalog, occupancyIndex);
+        today = LocalDate.of(2025, 5, 1);
+
+        occupancyIndex.rebuild(List.of(
+            new Room(1L, "301", "Suite", 250.0, true),
+            new Room(2L, "302", "Suite", 260.0, true),
+            new Room(3L, "101", "Double", 90.0, true)), List.of());
+        occupancyIndex.occupy(1L, today, today.plusDays(10));
+        occupancyIndex.occupy(2L, today.plusDays(2), today.plusDays(6));
+    }
+
+    @Test
+    void testWindowsAreSoonestFirstAndFilteredByType() {
+        List<AvailableWindow> windows = windowService.findNextAvailable("Suite", 4, today, 30, 10);
+
+        assertEquals(2, windows.size());
+        assertEquals("302", windows.get(0).getRoomNumber());
+        assertEquals(today.plusDays(6), windows.get(0).getCheckIn());
+        assertEquals(today.plusDays(10), windows.get(0).getCheckOut());
+        assertEquals("301", windows.get(1).getRoomNumber());
+        assertEquals(today.plusDays(10), windows.get(1).getCheckIn());
+
+        assertEquals(1, windowService.findNextAvailable("Suite", 4, today, 30, 1).size());
+        assertEquals(3, windowService.findNextAvailable(null, 2, today, 30, 10).size());
+        assertTrue(windowService.findNextAvailable("Suite", 4, today, 9, 10).isEmpty());
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(AppExceptions.InvalidBookingException.class,
+            () -> windowService.findNextAvailable("Suite", 0, today, 30, 10));
+        assertThrows(AppExceptions.InvalidBookingException.class,
+            () -> windowService.findNextAvailable("Suite", 5, today, 4, 10));
+        assertThrows(AppExceptions.InvalidBookingException.class,
+            () -> windowService.findNextAvailable("Suite", 5, today, 1000, 10));
+    }
+}
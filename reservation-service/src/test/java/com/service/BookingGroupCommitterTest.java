@@ -0,0 +1,139 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.dto.ReservationRequest;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import com.model.Room;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingGroupCommitterTest {
+
+    @Mock
+    private ReservationService reservationService;
+
+    private final AtomicInteger transactions = new AtomicInteger();
+    private BookingGroupCommitter committer;
+    private LocalDate checkIn;
+
+    @BeforeEach
+    void setUp() {
+        checkIn = LocalDate.of(2025, 9, 1);
+        // counts transactions instead of opening real ones
+        TransactionOperations countingTransactions = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                transactions.incrementAndGet();
+                return action.doInTransaction(null);
+            }
+
+            @Override
+            public void executeWithoutResult(Consumer<TransactionStatus> action) {
+                transactions.incrementAndGet();
+                action.accept(null);
+            }
+        };
+        committer = new BookingGroupCommitter(reservationService, countingTransactions, true, 64, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        committer.stop();
+    }
+
+    @Test
+    void testBurstIsCommittedTogetherWithPerItemConflicts() throws Exception {
+        when(reservationService.createBooking(any(ReservationRequest.class), anyString())).thenAnswer(invocation -> {
+            ReservationRequest request = invocation.getArgument(0);
+            if (request.getRoomId() == 13L) {
+                throw new AppExceptions.RoomAlreadyBookedException("Room is already booked for these dates");
+            }
+            return reservationFor(request);
+        });
+
+        List<ReservationRequest> requests = new ArrayList<>();
+        for (long roomId = 1; roomId <= 20; roomId++) {
+            requests.add(new ReservationRequest(null, "Guest " + roomId, "guest@example.com", roomId,
+                checkIn, checkIn.plusDays(2)));
+        }
+        // the 200ms window is far longer than it takes to queue the burst
+        List<CompletableFuture<Reservation>> futures = new ArrayList<>();
+        committer.start();
+        for (ReservationRequest request : requests) {
+            futures.add(committer.submit(request, "operator@example.com"));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<Reservation> future = futures.get(i);
+            if (requests.get(i).getRoomId() == 13L) {
+                ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(AppExceptions.RoomAlreadyBookedException.class, failure.getCause());
+            } else {
+                assertEquals(requests.get(i).getRoomId(), future.get(5, TimeUnit.SECONDS).getRoom().getId());
+            }
+        }
+        assertTrue(transactions.get() < requests.size(), "Expected grouped commits but saw " + transactions.get());
+    }
+
+    @Test
+    void testFailedGroupIsRetriedOneByOne() throws Exception {
+        when(reservationService.createBooking(any(ReservationRequest.class), anyString())).thenAnswer(invocation -> {
+            ReservationRequest request = invocation.getArgument(0);
+            if (request.getRoomId() == 2L) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return reservationFor(request);
+        });
+
+        committer.start();
+        CompletableFuture<Reservation> good = committer.submit(
+            new ReservationRequest(null, "Good", "good@example.com", 1L, checkIn, checkIn.plusDays(1)), "op@example.com");
+        CompletableFuture<Reservation> bad = committer.submit(
+            new ReservationRequest(null, "Bad", "bad@example.com", 2L, checkIn, checkIn.plusDays(1)), "op@example.com");
+
+        assertEquals(1L, good.get(5, TimeUnit.SECONDS).getRoom().getId());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertEquals("constraint violation", failure.getCause().getMessage());
+    }
+
+    @Test
+    void testBookRethrowsBookingFailureUnwrapped() {
+        when(reservationService.createBooking(any(ReservationRequest.class), anyString()))
+            .thenThrow(new AppExceptions.RoomNotFoundException("Room not found"));
+
+        committer.start();
+        ReservationRequest request = new ReservationRequest(null, "Guest", "guest@example.com", 99L,
+            checkIn, checkIn.plusDays(1));
+
+        assertThrows(AppExceptions.RoomNotFoundException.class, () -> committer.book(request, "op@example.com"));
+    }
+
+    private Reservation reservationFor(ReservationRequest request) {
+        Room room = new Room(request.getRoomId(), "R" + request.getRoomId(), "Double", 80.0, false);
+        return new Reservation(request.getRoomId() * 10, request.getGuestName(), request.getGuestEmail(), room,
+            request.getCheckInDate(), request.getCheckOutDate(), "CONFIRMED");
+    }
+}
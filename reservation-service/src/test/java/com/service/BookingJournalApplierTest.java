@@ -0,0 +1,124 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.dto.ReservationEvent;
+import com.model.OutboxEvent;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.OutboxEventRepository;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = BookingJournalApplierTest.JpaConfig.class)
+public class BookingJournalApplierTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    @Import({BookingJournalApplier.class, RoomCatalog.class, ReservationOutbox.class, RateCalendar.class,
+        JacksonAutoConfiguration.class})
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private BookingJournalApplier applier;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate checkIn = LocalDate.of(2025, 12, 1);
+
+    @Test
+    void testEntriesAreWrittenWithSequencerIdsAndCanBeHandedOverAgain() {
+        Room first = roomRepository.save(new Room(null, "101", "Double", 90.0, true));
+        Room second = roomRepository.save(new Room(null, "201", "Suite", 200.0, true));
+        LongSupplier ids = BookingSequencer.reservationIds(entityManagerFactory, 0);
+        long id = ids.getAsLong();
+        assertTrue(ids.getAsLong() > id);
+        BookingJournal.Stay booked = new BookingJournal.Stay(id, first.getId(), checkIn, checkIn.plusDays(2),
+            "Ann", "ann@example.com", "CONFIRMED");
+        BookingJournal.Stay moved = new BookingJournal.Stay(id, second.getId(), checkIn, checkIn.plusDays(3),
+            "Ann", "ann@example.com", "CONFIRMED");
+        List<BookingJournal.Entry> entries = List.of(
+            new BookingJournal.Entry(1, BookingJournal.BOOK, List.of(booked)),
+            new BookingJournal.Entry(2, BookingJournal.UPDATE, List.of(booked, moved)));
+
+        applier.apply(entries);
+        // a replay after a restart hands over the same entries again
+        applier.apply(entries);
+        entityManager.flush();
+        entityManager.clear();
+
+        Reservation stored = reservationRepository.findById(id).orElseThrow();
+        assertEquals(1, reservationRepository.count());
+        assertEquals(second.getId(), stored.getRoom().getId());
+        assertEquals(checkIn.plusDays(3), stored.getCheckOutDate());
+        assertTrue(roomRepository.findById(first.getId()).orElseThrow().getIsAvailable());
+        assertFalse(roomRepository.findById(second.getId()).orElseThrow().getIsAvailable());
+        assertEquals(List.of(moved), applier.loadAll());
+
+        applier.apply(List.of(new BookingJournal.Entry(3, BookingJournal.CANCEL, List.of(moved))));
+        applier.apply(List.of(new BookingJournal.Entry(3, BookingJournal.CANCEL, List.of(moved))));
+        entityManager.flush();
+
+        assertEquals(0, reservationRepository.count());
+        assertEquals(3, applier.appliedSequence());
+        // entries the database already has are skipped, events included
+        assertEquals(List.of(ReservationEvent.CREATED, ReservationEvent.UPDATED, ReservationEvent.CANCELLED),
+            outboxEventRepository.findAll().stream()
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .map(OutboxEvent::getEventType)
+                .toList());
+    }
+
+    @Test
+    void testBookingWithATakenIdDoesNotOverwriteTheReservation() {
+        Room room = roomRepository.save(new Room(null, "101", "Double", 90.0, true));
+        Reservation existing = reservationRepository.save(new Reservation(null, "Bob", "bob@example.com", room,
+            checkIn, checkIn.plusDays(1), "CONFIRMED"));
+        entityManager.flush();
+        entityManager.clear();
+        BookingJournal.Stay clash = new BookingJournal.Stay(existing.getId(), room.getId(), checkIn.plusDays(4),
+            checkIn.plusDays(6), "Ann", "ann@example.com", "CONFIRMED");
+
+        assertThrows(DataIntegrityViolationException.class,
+            () -> applier.apply(List.of(new BookingJournal.Entry(1, BookingJournal.BOOK, List.of(clash)))));
+
+        Reservation stored = reservationRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("Bob", stored.getGuestName());
+        assertEquals(checkIn, stored.getCheckInDate());
+        assertEquals(0, applier.appliedSequence());
+    }
+}
@@ -0,0 +1,78 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BookingJournalTest {
+
+    @TempDir
+    Path journalDir;
+
+    private final LocalDate checkIn = LocalDate.of(2025, 11, 1);
+
+    @Test
+    void testEntriesSurviveReopenAndJournalGrows() throws Exception {
+        try (BookingJournal journal = new BookingJournal(journalDir, 64)) {
+            journal.replay();
+            for (long sequence = 1; sequence <= 50; sequence++) {
+                journal.append(new BookingJournal.Entry(sequence, BookingJournal.BOOK, List.of(stay(sequence, "Zoë"))));
+            }
+            journal.force();
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, 64)) {
+            List<BookingJournal.Entry> entries = journal.replay();
+            assertEquals(50, entries.size());
+            assertEquals(stay(50, "Zoë"), entries.get(49).stays().get(0));
+            // appends continue after the last entry
+            journal.append(new BookingJournal.Entry(51, BookingJournal.CANCEL, List.of(stay(1, null))));
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, 64)) {
+            List<BookingJournal.Entry> entries = journal.replay();
+            assertEquals(51, entries.size());
+            assertNull(entries.get(50).stays().get(0).guestName());
+        }
+    }
+
+    @Test
+    void testResetAndTornRecordsEndTheReplay() throws Exception {
+        try (BookingJournal journal = new BookingJournal(journalDir, 4096)) {
+            journal.replay();
+            journal.append(new BookingJournal.Entry(1, BookingJournal.BOOK, List.of(stay(1, "Ann"))));
+            journal.append(new BookingJournal.Entry(2, BookingJournal.BOOK, List.of(stay(2, "Bob"))));
+            journal.writeSnapshot(2, List.of(stay(1, "Ann"), stay(2, "Bob")));
+            journal.reset();
+            // the new record overwrites the first old one; the second old one is older and must be ignored
+            journal.append(new BookingJournal.Entry(3, BookingJournal.CANCEL, List.of(stay(1, "Ann"))));
+            journal.append(new BookingJournal.Entry(4, BookingJournal.BOOK, List.of(stay(4, "Cy"))));
+        }
+        // corrupt the last record's body
+        try (RandomAccessFile file = new RandomAccessFile(journalDir.resolve("bookings.journal").toFile(), "rw")) {
+            file.seek(8);
+            int firstLength = file.readInt();
+            file.seek(8 + 8 + firstLength + 8 + 20);
+            file.writeByte(0x7f);
+        }
+
+        try (BookingJournal journal = new BookingJournal(journalDir, 4096)) {
+            List<BookingJournal.Entry> entries = journal.replay();
+            assertEquals(List.of(3L), entries.stream().map(BookingJournal.Entry::sequence).toList());
+            BookingJournal.Snapshot snapshot = journal.readSnapshot().orElseThrow();
+            assertEquals(2, snapshot.sequence());
+            assertEquals(List.of(stay(1, "Ann"), stay(2, "Bob")), snapshot.stays());
+        }
+    }
+
+    private BookingJournal.Stay stay(long id, String guestName) {
+        return new BookingJournal.Stay(id, 7L, checkIn.plusDays(id), checkIn.plusDays(id + 2), guestName,
+            "guest@example.com", "CONFIRMED");
+    }
+}
@@ -0,0 +1,397 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.dto.ReservationRequest;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import com.model.Room;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BookingSequencerTest {
+
+    @TempDir
+    Path journalDir;
+
+    @Mock
+    private BookingJournalApplier applier;
+
+    @Mock
+    private RoomStatusBroadcaster roomStatusBroadcaster;
+
+    private final AtomicLong ids = new AtomicLong();
+    private RoomOccupancyIndex occupancyIndex;
+    private RoomCatalog roomCatalog;
+    private LocalDate checkIn;
+
+    @BeforeEach
+    void setUp() {
+        checkIn = LocalDate.of(2025, 12, 20);
+        newIndex();
+    }
+
+    @Test
+    void testCommandsAreSequencedAndWrittenToDatabase() throws Exception {
+        List<Byte> applied = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<BookingJournal.Entry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> applied.add(entry.type()));
+            return null;
+        }).when(applier).apply(anyList());
+        BookingSequencer sequencer = start(applier);
+
+        Reservation booked = sequencer.book(List.of(request(1L, checkIn, checkIn.plusDays(3)))).get(0);
+        assertThrows(AppExceptions.RoomAlreadyBookedException.class,
+            () -> sequencer.book(List.of(request(1L, checkIn.plusDays(2), checkIn.plusDays(4)))));
+        sequencer.update(booked.getId(), request(2L, checkIn, checkIn.plusDays(2)));
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkIn.plusDays(3)));
+        assertFalse(occupancyIndex.isFree(2L, checkIn, checkIn.plusDays(2)));
+        assertEquals("201", sequencer.find(booked.getId()).orElseThrow().getRoom().getRoomNumber());
+        sequencer.cancel(booked.getId());
+        assertTrue(occupancyIndex.isFree(2L, checkIn, checkIn.plusDays(2)));
+        assertTrue(sequencer.find(booked.getId()).isEmpty());
+        assertThrows(AppExceptions.ReservationNotFoundException.class, () -> sequencer.cancel(booked.getId()));
+
+        awaitApplied(sequencer, 3);
+        sequencer.stop();
+
+        assertEquals("101", booked.getRoom().getRoomNumber());
+        assertEquals("CONFIRMED", booked.getStatus());
+        assertEquals(List.of(BookingJournal.BOOK, BookingJournal.UPDATE, BookingJournal.CANCEL), applied);
+        verify(roomStatusBroadcaster).roomBooked(1L, checkIn, checkIn.plusDays(3));
+        verify(roomStatusBroadcaster).roomReleased(2L, checkIn, checkIn.plusDays(2));
+    }
+
+    @Test
+    void testGroupBookingIsAllOrNothing() throws Exception {
+        BookingSequencer sequencer = start(applier);
+        sequencer.book(List.of(request(2L, checkIn, checkIn.plusDays(1))));
+
+        assertThrows(AppExceptions.RoomAlreadyBookedException.class, () -> sequencer.book(List.of(
+            request(1L, checkIn, checkIn.plusDays(2)), request(2L, checkIn, checkIn.plusDays(2)))));
+        assertThrows(AppExceptions.RoomNotFoundException.class,
+            () -> sequencer.book(List.of(request(9L, checkIn, checkIn.plusDays(2)))));
+
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkIn.plusDays(2)));
+        assertEquals(1, sequencer.lastSequence());
+        sequencer.stop();
+    }
+
+    @Test
+    void testRestartReplaysJournalThatDatabaseMissed() throws Exception {
+        BookingJournalApplier failingApplier = mock(BookingJournalApplier.class);
+        doThrow(new IllegalStateException("database down")).when(failingApplier).apply(anyList());
+        BookingSequencer crashed = start(failingApplier);
+        Reservation kept = crashed.book(List.of(request(1L, checkIn, checkIn.plusDays(2)))).get(0);
+        Reservation cancelled = crashed.book(List.of(request(2L, checkIn, checkIn.plusDays(2)))).get(0);
+        crashed.cancel(cancelled.getId());
+        crashed.stop();
+
+        newIndex();
+        BookingSequencer restarted = start(applier);
+        assertEquals(3, restarted.lastSequence());
+        assertTrue(restarted.find(kept.getId()).isPresent());
+        assertTrue(restarted.find(cancelled.getId()).isEmpty());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookingJournal.Entry>> replayed = ArgumentCaptor.forClass(List.class);
+        verify(applier).apply(replayed.capture());
+        assertEquals(3, replayed.getValue().size());
+        restarted.stop();
+
+        // the clean stop left a snapshot, so nothing is replayed the next time
+        BookingJournalApplier lastApplier = mock(BookingJournalApplier.class);
+        BookingSequencer fromSnapshot = start(lastApplier);
+        assertTrue(fromSnapshot.find(kept.getId()).isPresent());
+        assertEquals(3, fromSnapshot.lastSequence());
+        verify(lastApplier, never()).apply(anyList());
+        verify(lastApplier, never()).loadAll();
+        fromSnapshot.stop();
+    }
+
+    @Test
+    void testEntryTheDatabaseRefusesIsSetAsideAndTheRestWritten() throws Exception {
+        List<Long> written = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            List<BookingJournal.Entry> entries = invocation.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.sequence() == 2)) {
+                throw new DataIntegrityViolationException("value too long for column");
+            }
+            entries.forEach(entry -> written.add(entry.sequence()));
+            return null;
+        }).when(applier).apply(anyList());
+        BookingSequencer sequencer = start(applier);
+
+        sequencer.book(List.of(request(1L, checkIn, checkIn.plusDays(1))));
+        sequencer.book(List.of(request(2L, checkIn, checkIn.plusDays(1))));
+        sequencer.book(List.of(request(1L, checkIn.plusDays(1), checkIn.plusDays(2))));
+
+        awaitApplied(sequencer, 3);
+        assertEquals(List.of(1L, 3L), written);
+        assertEquals(1, sequencer.rejectedEntries());
+        assertEquals(1L, sequencer.stats().get("rejectedEntries"));
+        verify(applier).skip(2);
+        List<String> rejected = Files.readAllLines(journalDir.resolve("bookings.rejected"));
+        assertEquals(1, rejected.size());
+        assertTrue(rejected.get(0).contains("sequence=2"));
+        sequencer.stop();
+    }
+
+    @Test
+    void testGuestFieldsLongerThanTheTableAllowsAreRejectedBeforeJournaling() throws Exception {
+        BookingSequencer sequencer = start(applier);
+        ReservationRequest longName = request(1L, checkIn, checkIn.plusDays(1));
+        longName.setGuestName("x".repeat(256));
+
+        assertThrows(AppExceptions.InvalidBookingException.class, () -> sequencer.book(List.of(longName)));
+
+        assertEquals(0, sequencer.lastSequence());
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkIn.plusDays(1)));
+        sequencer.stop();
+    }
+
+    @Test
+    void testRestartContinuesIdsPastJournaledAndStoredReservations() throws Exception {
+        BookingJournalApplier failingApplier = mock(BookingJournalApplier.class);
+        doThrow(new IllegalStateException("database down")).when(failingApplier).apply(anyList());
+        BookingSequencer crashed = start(failingApplier);
+        crashed.book(List.of(request(1L, checkIn, checkIn.plusDays(2))));
+        Reservation cancelled = crashed.book(List.of(request(2L, checkIn, checkIn.plusDays(2)))).get(0);
+        crashed.cancel(cancelled.getId());
+        crashed.stop();
+
+        // the id source forgot what it handed out, as a generator does across a restart
+        ids.set(0);
+        newIndex();
+        BookingSequencer restarted = start(applier);
+        Reservation next = restarted.book(List.of(request(2L, checkIn, checkIn.plusDays(2)))).get(0);
+        assertTrue(next.getId() > cancelled.getId());
+        restarted.stop();
+
+        ids.set(0);
+        newIndex();
+        BookingJournalApplier storedHigher = mock(BookingJournalApplier.class);
+        when(storedHigher.maxReservationId()).thenReturn(1000L);
+        when(storedHigher.appliedSequence()).thenReturn(40L);
+        BookingSequencer fromDatabase = start(storedHigher);
+        Reservation after = fromDatabase.book(List.of(request(1L, checkIn.plusDays(5), checkIn.plusDays(6)))).get(0);
+        assertTrue(after.getId() > 1000L);
+        // the database is further along than the journal, so new entries are numbered after it
+        assertEquals(41, fromDatabase.lastSequence());
+        fromDatabase.stop();
+    }
+
+    @Test
+    void testBatchThatCannotBeSyncedIsUndoneAndFailed() throws Exception {
+        ReservationStats stats = new ReservationStats();
+        AtomicBoolean diskFull = new AtomicBoolean();
+        BookingSequencer sequencer = new BookingSequencer(roomCatalog, occupancyIndex, stats, roomStatusBroadcaster,
+            applier, this::idsFrom, true, journalDir, 1024, 64, 1000, 4096, true, 5000) {
+            @Override
+            BookingJournal openJournal(Path directory, int capacity) throws IOException {
+                BookingJournal journal = spy(super.openJournal(directory, capacity));
+                doAnswer(invocation -> {
+                    if (diskFull.get()) {
+                        throw new UncheckedIOException(new IOException("No space left on device"));
+                    }
+                    return invocation.callRealMethod();
+                }).when(journal).force();
+                return journal;
+            }
+        };
+        sequencer.start();
+        Reservation kept = sequencer.book(List.of(request(1L, checkIn, checkIn.plusDays(2)))).get(0);
+
+        diskFull.set(true);
+        assertThrows(UncheckedIOException.class,
+            () -> sequencer.book(List.of(request(2L, checkIn, checkIn.plusDays(2)))));
+        assertThrows(UncheckedIOException.class,
+            () -> sequencer.update(kept.getId(), request(1L, checkIn.plusDays(3), checkIn.plusDays(5))));
+        assertThrows(UncheckedIOException.class, () -> sequencer.cancel(kept.getId()));
+
+        assertEquals(1, sequencer.lastSequence());
+        assertTrue(occupancyIndex.isFree(2L, checkIn, checkIn.plusDays(2)));
+        assertFalse(occupancyIndex.isFree(1L, checkIn, checkIn.plusDays(2)));
+        assertTrue(occupancyIndex.isFree(1L, checkIn.plusDays(3), checkIn.plusDays(5)));
+        assertEquals(checkIn, sequencer.find(kept.getId()).orElseThrow().getCheckInDate());
+        assertEquals(1, stats.snapshot().get("totalReservations"));
+        verify(roomStatusBroadcaster, never()).roomBooked(eq(2L), any(), any());
+        verify(roomStatusBroadcaster, never()).roomReleased(anyLong(), any(), any());
+
+        // the failed records are not replayed, and the next batch takes their place in the journal
+        diskFull.set(false);
+        sequencer.book(List.of(request(2L, checkIn, checkIn.plusDays(2))));
+        try (BookingJournal journal = new BookingJournal(journalDir, 4096)) {
+            List<BookingJournal.Entry> journaled = journal.replay();
+            assertEquals(List.of(1L, 2L), journaled.stream().map(BookingJournal.Entry::sequence).toList());
+            assertEquals(BookingJournal.BOOK, journaled.get(1).type());
+            assertEquals(2L, journaled.get(1).stays().get(0).roomId());
+        }
+        awaitApplied(sequencer, 2);
+        sequencer.stop();
+    }
+
+    @Test
+    void testCommandThatCannotStartInTimeIsDropped() throws Exception {
+        AtomicBoolean stall = new AtomicBoolean();
+        CountDownLatch forcing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BookingSequencer sequencer = new BookingSequencer(roomCatalog, occupancyIndex, new ReservationStats(),
+            roomStatusBroadcaster, applier, this::idsFrom, true, journalDir, 1024, 64, 1000, 4096, true, 200) {
+            @Override
+            BookingJournal openJournal(Path directory, int capacity) throws IOException {
+                BookingJournal journal = spy(super.openJournal(directory, capacity));
+                doAnswer(invocation -> {
+                    if (stall.get()) {
+                        forcing.countDown();
+                        release.await();
+                    }
+                    return invocation.callRealMethod();
+                }).when(journal).force();
+                return journal;
+            }
+        };
+        sequencer.start();
+        stall.set(true);
+        CompletableFuture<Reservation> slow = CompletableFuture.supplyAsync(
+            () -> sequencer.book(List.of(request(1L, checkIn, checkIn.plusDays(1)))).get(0));
+        assertTrue(forcing.await(5, TimeUnit.SECONDS));
+        stall.set(false);
+
+        assertThrows(AppExceptions.BookingSequencerUnavailableException.class,
+            () -> sequencer.book(List.of(request(2L, checkIn, checkIn.plusDays(1)))));
+        release.countDown();
+
+        // the command that had already started is answered; the dropped one never runs
+        assertEquals(1L, slow.get(5, TimeUnit.SECONDS).getRoom().getId());
+        sequencer.book(List.of(request(1L, checkIn.plusDays(1), checkIn.plusDays(2))));
+        assertEquals(2, sequencer.lastSequence());
+        assertTrue(occupancyIndex.isFree(2L, checkIn, checkIn.plusDays(1)));
+        sequencer.stop();
+    }
+
+    @Test
+    void testSequencerThatFailsStopsTakingCommands() throws Exception {
+        doThrow(new IllegalStateException("broadcast failed")).when(roomStatusBroadcaster).roomBooked(anyLong(), any(), any());
+        BookingSequencer sequencer = start(applier);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+            () -> sequencer.book(List.of(request(1L, checkIn, checkIn.plusDays(1)))));
+        assertEquals("broadcast failed", failure.getMessage());
+        assertThrows(AppExceptions.BookingSequencerUnavailableException.class,
+            () -> sequencer.book(List.of(request(2L, checkIn, checkIn.plusDays(1)))));
+        sequencer.stop();
+    }
+
+    @Test
+    void testSnapshotIsTakenAtAppliedSequenceWhileDatabaseLags() throws Exception {
+        AtomicBoolean databaseDown = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new IllegalStateException("database down");
+            }
+            return null;
+        }).when(applier).apply(anyList());
+        BookingSequencer lagging = new BookingSequencer(roomCatalog, occupancyIndex, new ReservationStats(),
+            roomStatusBroadcaster, applier, this::idsFrom, true, journalDir, 1024, 64, 2, 4096, true, 5000);
+        lagging.start();
+        Reservation first = lagging.book(List.of(request(1L, checkIn, checkIn.plusDays(1)))).get(0);
+        awaitApplied(lagging, 1);
+        databaseDown.set(true);
+        Reservation moved = lagging.book(List.of(request(2L, checkIn, checkIn.plusDays(1)))).get(0);
+        lagging.update(moved.getId(), request(2L, checkIn.plusDays(1), checkIn.plusDays(3)));
+        lagging.cancel(first.getId());
+        lagging.stop();
+
+        // the snapshot stops at the last entry the database has; the journal keeps only the rest
+        try (BookingJournal journal = new BookingJournal(journalDir, 4096)) {
+            BookingJournal.Snapshot snapshot = journal.readSnapshot().orElseThrow();
+            assertEquals(1, snapshot.sequence());
+            assertEquals(List.of(first.getId()), snapshot.stays().stream().map(BookingJournal.Stay::id).toList());
+            assertEquals(List.of(2L, 3L, 4L), journal.replay().stream().map(BookingJournal.Entry::sequence).toList());
+        }
+
+        newIndex();
+        BookingJournalApplier recovered = mock(BookingJournalApplier.class);
+        BookingSequencer restarted = start(recovered);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookingJournal.Entry>> replayed = ArgumentCaptor.forClass(List.class);
+        verify(recovered).apply(replayed.capture());
+        assertEquals(3, replayed.getValue().size());
+        assertTrue(restarted.find(first.getId()).isEmpty());
+        assertEquals(checkIn.plusDays(1), restarted.find(moved.getId()).orElseThrow().getCheckInDate());
+        restarted.stop();
+    }
+
+    @Test
+    void testDisabledSequencerRejectsCommands() throws Exception {
+        BookingSequencer sequencer = new BookingSequencer(roomCatalog, occupancyIndex, new ReservationStats(),
+            roomStatusBroadcaster, applier, this::idsFrom, false, journalDir, 16, 16, 1000, 4096, true, 5000);
+        sequencer.start();
+
+        assertFalse(sequencer.isEnabled());
+        assertThrows(IllegalStateException.class, () -> sequencer.book(List.of(request(1L, checkIn, checkIn.plusDays(1)))));
+    }
+
+    private BookingSequencer start(BookingJournalApplier journalApplier) throws Exception {
+        BookingSequencer sequencer = new BookingSequencer(roomCatalog, occupancyIndex, new ReservationStats(),
+            roomStatusBroadcaster, journalApplier, this::idsFrom, true, journalDir, 1024, 64, 1000, 4096, true, 5000);
+        sequencer.start();
+        return sequencer;
+    }
+
+    // carries on past the floor it is given, like the reservation id generator
+    private LongSupplier idsFrom(long floor) {
+        ids.accumulateAndGet(floor, Math::max);
+        return ids::incrementAndGet;
+    }
+
+    private void newIndex() {
+        roomCatalog = new RoomCatalog();
+        occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+        occupancyIndex.rebuild(List.of(new Room(1L, "101", "Double", 90.0, true),
+            new Room(2L, "201", "Suite", 200.0, true)), List.of());
+    }
+
+    private static ReservationRequest request(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return new ReservationRequest(null, "Guest", "guest@example.com", roomId, checkIn, checkOut);
+    }
+
+    private static void awaitApplied(BookingSequencer sequencer, long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sequencer.appliedSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(sequence, sequencer.appliedSequence());
+    }
+}
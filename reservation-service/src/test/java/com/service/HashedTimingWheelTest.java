@@ -0,0 +1,84 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class HashedTimingWheelTest {
+
+    @Test
+    void testFiresAtFirstTickAfterDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, 100, 8);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of("a", "b"), sorted(wheel.advance(300)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testDeadlinesBeyondOneRevolutionWaitForTheirRound() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, 100, 8);
+        // same bucket as tick 2, but two revolutions later
+        wheel.schedule("late", 1800);
+        wheel.schedule("soon", 200);
+
+        assertEquals(List.of("soon"), wheel.advance(1000));
+        assertEquals(List.of(), wheel.advance(1799));
+        assertEquals(List.of("late"), wheel.advance(1800));
+    }
+
+    @Test
+    void testCancelledTimeoutNeverFires() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, 100, 8);
+        HashedTimingWheel.Timeout<String> first = wheel.schedule("first", 500);
+        wheel.schedule("second", 500);
+        HashedTimingWheel.Timeout<String> third = wheel.schedule("third", 500);
+
+        assertTrue(wheel.cancel(first));
+        assertTrue(wheel.cancel(third));
+        assertFalse(wheel.cancel(third));
+
+        assertEquals(List.of("second"), wheel.advance(10_000));
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(0, 100, 8);
+        wheel.advance(1000);
+
+        wheel.schedule("overdue", 400);
+
+        assertEquals(List.of("overdue"), wheel.advance(1100));
+    }
+
+    @Test
+    void testThousandsOfTimeoutsExpireInDeadlineOrder() {
+        HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>(0, 10, 64);
+        for (int i = 0; i < 5000; i++) {
+            wheel.schedule(i, i * 7L % 20_000);
+        }
+
+        List<Integer> fired = new ArrayList<>();
+        long lastDeadline = -1;
+        for (long now = 0; now <= 20_000; now += 10) {
+            for (int item : wheel.advance(now)) {
+                long deadline = item * 7L % 20_000;
+                assertTrue(deadline <= now && deadline > now - 10, "fired at its own tick");
+                assertTrue(deadline >= lastDeadline - 9);
+                lastDeadline = deadline;
+                fired.add(item);
+            }
+        }
+        assertEquals(5000, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    private static List<String> sorted(List<String> items) {
+        return items.stream().sorted().toList();
+    }
+}
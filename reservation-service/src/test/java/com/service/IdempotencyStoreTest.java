@@ -0,0 +1,236 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.exception.AppExceptions;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.IdempotencyRecord;
+import com.repository.IdempotencyRecordRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class IdempotencyStoreTest {
+
+    private static final TypeReference<Map<String, Object>> BODY = new TypeReference<>() {};
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, new ObjectMapper(), 2, 60_000, 3_600_000, 5_000, now::get);
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testRetryReplaysFirstResponse() {
+        AtomicInteger runs = new AtomicInteger();
+
+        ResponseEntity<Map<String, Object>> first = store.execute("k1", "book:a", Map.of("roomId", 1), BODY,
+            () -> ResponseEntity.ok(Map.of("reservationId", runs.incrementAndGet())));
+        ResponseEntity<Map<String, Object>> retry = store.execute("k1", "book:a", Map.of("roomId", 1), BODY,
+            () -> ResponseEntity.ok(Map.of("reservationId", runs.incrementAndGet())));
+
+        assertEquals(1, runs.get());
+        assertEquals(1, retry.getBody().get("reservationId"));
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        verify(repository).save(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestIsRejected() {
+        store.execute("k1", "book:a", Map.of("roomId", 1), BODY, () -> ResponseEntity.ok(Map.of()));
+
+        assertThrows(AppExceptions.IdempotencyKeyReusedException.class, () ->
+            store.execute("k1", "book:a", Map.of("roomId", 2), BODY, () -> ResponseEntity.ok(Map.of())));
+        // the same key under another user's scope is a separate request
+        assertDoesNotThrow(() ->
+            store.execute("k1", "book:b", Map.of("roomId", 2), BODY, () -> ResponseEntity.ok(Map.of())));
+    }
+
+    @Test
+    void testServerErrorsAndExceptionsAreNotKept() {
+        AtomicInteger runs = new AtomicInteger();
+        store.execute("k1", "book:a", "req", BODY, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of());
+        });
+        assertThrows(IllegalStateException.class, () -> store.execute("k1", "book:a", "req", BODY, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }));
+        store.execute("k1", "book:a", "req", BODY, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(Map.of());
+        });
+
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void testEvictedEntryIsReadBackFromTable() {
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        store.execute("k1", "book:a", "req", BODY, () -> ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 7)));
+        verify(repository).save(saved.capture());
+        // push k1 out of the two-entry memory cache
+        store.execute("k2", "book:a", "req", BODY, () -> ResponseEntity.ok(Map.of()));
+        store.execute("k3", "book:a", "req", BODY, () -> ResponseEntity.ok(Map.of()));
+        assertEquals(2, store.size());
+        when(repository.findById("book:a:k1")).thenReturn(Optional.of(saved.getValue()));
+
+        ResponseEntity<Map<String, Object>> retry = store.execute("k1", "book:a", "req", BODY,
+            () -> { throw new AssertionError("action must not run again"); });
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(7, retry.getBody().get("id"));
+    }
+
+    @Test
+    void testExpiredRecordRunsActionAgain() {
+        store.execute("k1", "book:a", "req", BODY, () -> ResponseEntity.ok(Map.of()));
+        when(repository.findById("book:a:k1")).thenReturn(Optional.of(
+            new IdempotencyRecord("book:a:k1", "x", 200, "{}", Instant.ofEpochMilli(now.get()))));
+        now.addAndGet(3_600_000);
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("k1", "book:a", "req", BODY, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.ok(Map.of());
+        });
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testConcurrentDuplicateWaitsForInFlightResult() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<Map<String, Object>>> first = clients.submit(() ->
+                store.execute("k1", "pay:a", "req", BODY, () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    await(finish);
+                    return ResponseEntity.ok(Map.of("paymentId", 5));
+                }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<Map<String, Object>>> duplicate = clients.submit(() ->
+                store.execute("k1", "pay:a", "req", BODY, () -> {
+                    runs.incrementAndGet();
+                    return ResponseEntity.ok(Map.of("paymentId", 6));
+                }));
+            Thread.sleep(100);
+            assertFalse(duplicate.isDone());
+
+            finish.countDown();
+
+            assertEquals(5, first.get(5, TimeUnit.SECONDS).getBody().get("paymentId"));
+            assertEquals(5, duplicate.get(5, TimeUnit.SECONDS).getBody().get("paymentId"));
+            assertEquals(1, runs.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDuplicateOnAnotherInstanceWaitsForItsClaim() {
+        // another instance claimed the key and finishes while this one is polling
+        when(repository.claim(anyString(), anyString(), any(Instant.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        String fingerprint = store.fingerprint("req");
+        Instant claimedAt = Instant.ofEpochMilli(now.get());
+        when(repository.findById("book:a:k1")).thenReturn(
+            Optional.of(new IdempotencyRecord("book:a:k1", fingerprint, IdempotencyRecord.PENDING, null, claimedAt)),
+            Optional.of(new IdempotencyRecord("book:a:k1", fingerprint, IdempotencyRecord.PENDING, null, claimedAt)),
+            Optional.of(new IdempotencyRecord("book:a:k1", fingerprint, 201, "{\"id\":7}", claimedAt)));
+
+        ResponseEntity<Map<String, Object>> duplicate = store.execute("k1", "book:a", "req", BODY,
+            () -> { throw new AssertionError("action must not run on a second instance"); });
+
+        assertEquals(HttpStatus.CREATED, duplicate.getStatusCode());
+        assertEquals(7, duplicate.getBody().get("id"));
+        assertEquals("true", duplicate.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testStaleClaimOfAnotherInstanceIsTakenOver() {
+        Instant claimedAt = Instant.ofEpochMilli(now.get());
+        now.addAndGet(60_000);
+        when(repository.claim(anyString(), anyString(), any(Instant.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"))
+            .thenReturn(1);
+        when(repository.findById("book:a:k1")).thenReturn(Optional.of(
+            new IdempotencyRecord("book:a:k1", "x", IdempotencyRecord.PENDING, null, claimedAt)));
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute("k1", "book:a", "req", BODY, () -> ResponseEntity.ok(Map.of("n", runs.incrementAndGet())));
+
+        assertEquals(1, runs.get());
+        verify(repository).deleteIfUnchanged("book:a:k1", claimedAt);
+    }
+
+    @Test
+    void testFailedRequestReleasesItsClaim() {
+        when(repository.claim(anyString(), anyString(), any(Instant.class))).thenReturn(1);
+
+        assertThrows(IllegalStateException.class, () -> store.execute("k1", "book:a", "req", BODY, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        store.execute("k2", "book:a", "req", BODY, () -> ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of()));
+
+        verify(repository).releaseClaim("book:a:k1");
+        verify(repository).releaseClaim("book:a:k2");
+    }
+
+    @Test
+    void testRequestWithoutKeyAlwaysRuns() {
+        AtomicInteger runs = new AtomicInteger();
+        store.execute(null, "book:a", "req", BODY, () -> ResponseEntity.ok(Map.of("n", runs.incrementAndGet())));
+        store.execute(" ", "book:a", "req", BODY, () -> ResponseEntity.ok(Map.of("n", runs.incrementAndGet())));
+
+        assertEquals(2, runs.get());
+        assertEquals(0, store.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
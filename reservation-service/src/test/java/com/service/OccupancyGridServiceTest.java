@@ -0,0 +1,88 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.dto.OccupancyGrid;
+import com.exception.AppExceptions;
+import com.model.Room;
+
+public class OccupancyGridServiceTest {
+
+    private RoomCatalog roomCatalog;
+    private RoomOccupancyIndex occupancyIndex;
+    private OccupancyGridService gridService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        roomCatalog = new RoomCatalog();
+        occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+        gridService = new OccupancyGridService(roomCatalog, occupancyIndex);
+        today = LocalDate.of(2025, 5, 1);
+    }
+
+    @Test
+    void testBitsetRowsMatchCalendar() {
+        occupancyIndex.rebuild(List.of(new Room(1L, "102", "Double", 90.0, true), new Room(2L, "101", "Suite", 250.0, true)), List.of());
+        occupancyIndex.occupy(1L, today.plusDays(1), today.plusDays(3));
+        occupancyIndex.occupy(1L, today.plusDays(8), today.plusDays(80));
+
+        OccupancyGrid grid = gridService.buildGrid(today, 10, OccupancyGrid.BITSET);
+
+        assertEquals(List.of("101", "102"), grid.getRooms().stream().map(OccupancyGrid.Row::getRoomNumber).toList());
+        OccupancyGrid.Row row = grid.getRooms().get(1);
+        assertEquals(4, row.getBookedNights());
+        // nights 1, 2 in the first byte, nights 8, 9 in the second; later nights are cut off
+        assertArrayEquals(new byte[] { 0b0000_0110, 0b0000_0011 }, Base64.getDecoder().decode(row.getBits()));
+        assertEquals(0, grid.getRooms().get(0).getBookedNights());
+    }
+
+    @Test
+    void testRunLengthRowsAcrossWordBoundaries() {
+        occupancyIndex.rebuild(List.of(new Room(1L, "101", "Double", 90.0, true)), List.of());
+        occupancyIndex.occupy(1L, today.minusDays(5), today.plusDays(2));
+        occupancyIndex.occupy(1L, today.plusDays(60), today.plusDays(130));
+
+        OccupancyGrid grid = gridService.buildGrid(today, 140, OccupancyGrid.RLE);
+
+        OccupancyGrid.Row row = grid.getRooms().get(0);
+        assertNull(row.getBits());
+        assertArrayEquals(new int[] { 0, 2, 58, 70, 10 }, row.getRuns());
+        assertEquals(72, row.getBookedNights());
+    }
+
+    @Test
+    void testLargeGridIsBuiltInParallel() {
+        List<Room> rooms = new ArrayList<>();
+        for (long id = 1; id <= OccupancyGridService.ROOMS_PER_TASK * 4 + 3; id++) {
+            rooms.add(new Room(id, String.format("%04d", id), "Double", 90.0, true));
+        }
+        occupancyIndex.rebuild(rooms, List.of());
+        for (Room room : rooms) {
+            occupancyIndex.occupy(room.getId(), today, today.plusDays(room.getId() % 30));
+        }
+
+        OccupancyGrid grid = gridService.buildGrid(today, 90, OccupancyGrid.RLE);
+
+        assertEquals(rooms.size(), grid.getRooms().size());
+        for (int i = 0; i < rooms.size(); i++) {
+            assertEquals(rooms.get(i).getId(), grid.getRooms().get(i).getId());
+            assertEquals(rooms.get(i).getId() % 30, grid.getRooms().get(i).getBookedNights());
+        }
+    }
+
+    @Test
+    void testInvalidArgumentsAreRejected() {
+        assertThrows(AppExceptions.InvalidBookingException.class, () -> gridService.buildGrid(today, 0, OccupancyGrid.BITSET));
+        assertThrows(AppExceptions.InvalidBookingException.class, () -> gridService.buildGrid(today, 400, OccupancyGrid.BITSET));
+        assertThrows(AppExceptions.InvalidBookingException.class, () -> gridService.buildGrid(today, 30, "json"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.dto.Quote;
+import com.dto.QuoteRequest;
+import com.model.Room;
+
+public class QuoteServiceTest {
+
+    private RoomCatalog roomCatalog;
+    private RateCalendar rateCalendar;
+    private QuoteService quoteService;
+    private LocalDate friday;
+
+    @BeforeEach
+    void setUp() {
+        roomCatalog = new RoomCatalog();
+        rateCalendar = new RateCalendar();
+        quoteService = new QuoteService(roomCatalog, rateCalendar);
+        friday = LocalDate.of(2025, 8, 1);
+
+        roomCatalog.onRebuild(List.of(
+            new Room(1L, "101", "Double", 120.0, true),
+            new Room(2L, "102", "Double", 90.0, true),
+            new Room(3L, "201", "Suite", 250.0, true)));
+        rateCalendar.setRate("Double", friday, friday.plusDays(2), 140.0);
+    }
+
+    @Test
+    void testRoomQuoteUsesRateCalendar() {
+        List<Quote> quotes = quoteService.quote(List.of(new QuoteRequest(1L, null, friday, friday.plusDays(3))));
+
+        Quote quote = quotes.get(0);
+        assertNull(quote.getError());
+        assertEquals("101", quote.getRoomNumber());
+        assertEquals(3L, quote.getNights());
+        // Fri and Sat overridden, Sun at the room's own base price
+        assertEquals(400.0, quote.getTotal());
+    }
+
+    @Test
+    void testTypeQuoteUsesCheapestRoomOfType() {
+        List<Quote> quotes = quoteService.quote(List.of(new QuoteRequest(null, "Double", friday.plusDays(2), friday.plusDays(4))));
+
+        assertEquals(2L, quotes.get(0).getRoomId());
+        assertEquals(180.0, quotes.get(0).getTotal());
+    }
+
+    @Test
+    void testInvalidItemsGetErrorsWithoutFailingTheBatch() {
+        List<Quote> quotes = quoteService.quote(List.of(
+            new QuoteRequest(99L, null, friday, friday.plusDays(1)),
+            new QuoteRequest(null, "Penthouse", friday, friday.plusDays(1)),
+            new QuoteRequest(null, null, friday, friday.plusDays(1)),
+            new QuoteRequest(3L, null, friday, friday),
+            new QuoteRequest(3L, null, friday, friday.plusDays(1))));
+
+        assertEquals("Room not found", quotes.get(0).getError());
+        assertEquals("No rooms of type Penthouse", quotes.get(1).getError());
+        assertEquals("Either roomId or type is required", quotes.get(2).getError());
+        assertEquals("Check-in date must be before check-out date", quotes.get(3).getError());
+        assertNull(quotes.get(4).getError());
+        assertEquals(250.0, quotes.get(4).getTotal());
+    }
+
+    @Test
+    void testLargeBatchKeepsInputOrder() {
+        List<QuoteRequest> requests = new ArrayList<>();
+        int count = QuoteService.SPLIT_THRESHOLD * 5 + 7;
+        for (int i = 0; i < count; i++) {
+            requests.add(new QuoteRequest((long) (i % 3) + 1, null, friday, friday.plusDays(1 + i % 10)));
+        }
+
+        List<Quote> quotes = quoteService.quote(requests);
+
+        assertEquals(count, quotes.size());
+        for (int i = 0; i < count; i++) {
+            QuoteRequest request = requests.get(i);
+            Quote quote = quotes.get(i);
+            assertEquals(request.getRoomId(), quote.getRoomId());
+            assertEquals(request.getCheckOut(), quote.getCheckOut());
+            assertEquals(request.getCheckOut().toEpochDay() - request.getCheckIn().toEpochDay(), quote.getNights());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.model.RateOverride;
+
+public class RateCalendarTest {
+
+    private RateCalendar rateCalendar;
+    private LocalDate friday;
+
+    @BeforeEach
+    void setUp() {
+        rateCalendar = new RateCalendar();
+        friday = LocalDate.of(2025, 8, 1);
+    }
+
+    @Test
+    void testTypeWithoutOverridesUsesBasePrice() {
+        assertEquals(300.0, rateCalendar.stayTotal("Double", 100.0, friday, friday.plusDays(3)));
+        assertEquals(300.0, rateCalendar.stayTotal(null, 100.0, friday, friday.plusDays(3)));
+    }
+
+    @Test
+    void testStayTotalMixesOverriddenAndBaseNights() {
+        rateCalendar.setRate("Double", friday, friday.plusDays(2), 140.0);
+        rateCalendar.setRate("Double", friday.plusDays(7), friday.plusDays(9), 150.0);
+
+        // Thursday to Monday: base, Fri 140, Sat 140, Sun base
+        assertEquals(480.0, rateCalendar.stayTotal("Double", 100.0, friday.minusDays(1), friday.plusDays(3)));
+        // fully inside the gap between the two weekends
+        assertEquals(200.0, rateCalendar.stayTotal("Double", 100.0, friday.plusDays(3), friday.plusDays(5)));
+        // across both weekends
+        assertEquals(1080.0, rateCalendar.stayTotal("Double", 100.0, friday, friday.plusDays(9)));
+        // other types are unaffected
+        assertEquals(500.0, rateCalendar.stayTotal("Suite", 250.0, friday, friday.plusDays(2)));
+    }
+
+    @Test
+    void testClearRateFallsBackToBasePrice() {
+        rateCalendar.setRate("Suite", friday, friday.plusDays(3), 300.0);
+
+        rateCalendar.clearRate("Suite", friday.plusDays(1), friday.plusDays(2));
+
+        assertEquals(850.0, rateCalendar.stayTotal("Suite", 250.0, friday, friday.plusDays(3)));
+        assertEquals(Map.of(friday, 300.0, friday.plusDays(2), 300.0),
+            rateCalendar.overridesFor("Suite", friday, friday.plusDays(3)));
+    }
+
+    @Test
+    void testLoadReplacesEverything() {
+        rateCalendar.setRate("Double", friday, friday.plusDays(1), 999.0);
+
+        rateCalendar.load(List.of(new RateOverride(1L, "Suite", friday, 320.0)));
+
+        assertEquals(100.0, rateCalendar.stayTotal("Double", 100.0, friday, friday.plusDays(1)));
+        assertEquals(570.0, rateCalendar.stayTotal("Suite", 250.0, friday, friday.plusDays(2)));
+    }
+}
@@ -0,0 +1,197 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.dto.ReservationRequest;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+
+// Many receptionists booking the same handful of rooms at once must never produce a double booking.
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReservationConcurrencyStressTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationConcurrencyStressTest.class);
+
+    private static final int ROOMS = 8;
+    private static final int CLIENTS = 16;
+    private static final int ATTEMPTS_PER_CLIENT = 500;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RoomRepository roomRepository;
+    
+    @Mock
+    private RoomStatusBroadcaster roomStatusBroadcaster;
+    
+    @Mock
+    private BookingSequencer bookingSequencer;
+    
+    @Mock
+    private ReservationOutbox outbox;
+
+    private ReservationService reservationService;
+    private ExecutorService clients;
+
+    // thread-safe stand-in for the reservation table
+    private final Queue<Reservation> reservationTable = new ConcurrentLinkedQueue<>();
+    private final AtomicLong reservationIds = new AtomicLong();
+    private final LocalDate season = LocalDate.of(2025, 7, 1);
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        reservationService = new ReservationService(reservationRepository, roomRepository, roomCatalog,
+            new RoomOccupancyIndex(List.of(roomCatalog)), new RoomLockStripes(64), new AvailabilityCache(false, 0, 0), new RateCalendar(),
+            new ReservationStats(), roomStatusBroadcaster, bookingSequencer, outbox, TransactionOperations.withoutTransaction());
+        clients = Executors.newFixedThreadPool(CLIENTS);
+
+        List<Room> rooms = new ArrayList<>();
+        for (long id = 1; id <= ROOMS; id++) {
+            rooms.add(new Room(id, "R" + id, "Double", 80.0, true));
+        }
+        roomCatalog.onRebuild(rooms);
+        when(reservationRepository.existsOverlappingReservation(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+            .thenAnswer(invocation -> {
+                Long roomId = invocation.getArgument(0);
+                LocalDate checkIn = invocation.getArgument(1);
+                LocalDate checkOut = invocation.getArgument(2);
+                // widen the window between the check and the insert
+                Thread.yield();
+                return reservationTable.stream().anyMatch(r -> r.getRoom().getId().equals(roomId)
+                    && r.getCheckInDate().isBefore(checkOut) && r.getCheckOutDate().isAfter(checkIn));
+            });
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(reservationIds.incrementAndGet());
+            reservationTable.add(reservation);
+            return reservation;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentClientsNeverDoubleBook() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int c = 0; c < CLIENTS; c++) {
+            long seed = c;
+            futures.add(clients.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_CLIENT; i++) {
+                    LocalDate checkIn = season.plusDays(random.nextInt(60));
+                    ReservationRequest request = new ReservationRequest(null, "Guest", "guest@example.com",
+                        (long) (1 + random.nextInt(ROOMS)), checkIn, checkIn.plusDays(1 + random.nextInt(4)));
+                    try {
+                        reservationService.createBooking(request, "receptionist@example.com");
+                        booked.incrementAndGet();
+                    } catch (AppExceptions.RoomAlreadyBookedException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        logger.info("{} clients made {} booking attempts in {} s: {} booked, {} rejected, {} bookings/s, {} attempts/s",
+            CLIENTS, CLIENTS * ATTEMPTS_PER_CLIENT, String.format("%.3f", seconds), booked.get(), rejected.get(),
+            String.format("%.0f", booked.get() / seconds),
+            String.format("%.0f", CLIENTS * ATTEMPTS_PER_CLIENT / seconds));
+
+        assertEquals(CLIENTS * ATTEMPTS_PER_CLIENT, booked.get() + rejected.get());
+        assertEquals(booked.get(), reservationTable.size());
+
+        Map<Long, List<Reservation>> byRoom = reservationTable.stream()
+            .collect(Collectors.groupingBy(r -> r.getRoom().getId()));
+        for (List<Reservation> stays : byRoom.values()) {
+            stays.sort(Comparator.comparing(Reservation::getCheckInDate));
+            for (int i = 1; i < stays.size(); i++) {
+                Reservation previous = stays.get(i - 1);
+                Reservation next = stays.get(i);
+                assertFalse(next.getCheckInDate().isBefore(previous.getCheckOutDate()),
+                    "Double booking on room " + next.getRoom().getId() + ": reservations "
+                        + previous.getId() + " and " + next.getId());
+            }
+        }
+    }
+
+    @Test
+    void testBookingsForDifferentRoomsDoNotWaitForEachOther() throws Exception {
+        CountDownLatch firstRoomInsideLock = new CountDownLatch(1);
+        CountDownLatch releaseFirstRoom = new CountDownLatch(1);
+        when(roomRepository.updateAvailability(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+            Long roomId = invocation.getArgument(0);
+            if (roomId == 1L) {
+                firstRoomInsideLock.countDown();
+                releaseFirstRoom.await(10, TimeUnit.SECONDS);
+            }
+            return 1;
+        });
+
+        Future<Reservation> slowBooking = clients.submit(() -> reservationService.createBooking(
+            new ReservationRequest(null, "Slow", "slow@example.com", 1L, season, season.plusDays(2)), "a@example.com"));
+        assertTrue(firstRoomInsideLock.await(10, TimeUnit.SECONDS));
+
+        // room 1's lock is held, yet room 2 books straight away
+        Future<Reservation> otherRoom = clients.submit(() -> reservationService.createBooking(
+            new ReservationRequest(null, "Fast", "fast@example.com", 2L, season, season.plusDays(2)), "b@example.com"));
+        assertNotNull(otherRoom.get(5, TimeUnit.SECONDS));
+        assertFalse(slowBooking.isDone());
+
+        releaseFirstRoom.countDown();
+        assertNotNull(slowBooking.get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,108 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = ReservationExporterTest.JpaConfig.class)
+public class ReservationExporterTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ReservationExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new ReservationExporter(reservationRepository, objectMapper);
+
+        Room room = roomRepository.save(new Room(null, "301", "Suite", 250.0, false));
+        LocalDate july = LocalDate.of(2025, 7, 1);
+        reservationRepository.saveAll(List.of(
+            new Reservation(null, "June Guest", "june@example.com", room, july.minusDays(20), july.minusDays(18), "CONFIRMED"),
+            new Reservation(null, "July Guest", "july@example.com", room, july.plusDays(2), july.plusDays(4), "CONFIRMED"),
+            new Reservation(null, "Gone Guest", "gone@example.com", room, july.plusDays(5), july.plusDays(6), "CANCELLED")));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testWritesOneJsonObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.writeNdjson(null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, rows);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("June Guest", first.get("guestName").asText());
+        assertEquals("301", first.get("roomNumber").asText());
+        assertEquals("2025-06-11", first.get("checkInDate").asText());
+    }
+
+    @Test
+    void testAppliesDateRangeAndStatusFilters() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.writeNdjson(LocalDate.of(2025, 7, 1), LocalDate.of(2025, 8, 1), "CONFIRMED", out);
+
+        assertEquals(1, rows);
+        assertEquals("July Guest", objectMapper.readTree(out.toString(StandardCharsets.UTF_8)).get("guestName").asText());
+    }
+
+    @Test
+    void testExportsReservationsWithoutARoom() throws Exception {
+        reservationRepository.save(new Reservation(null, "Walk-in", "walkin@example.com", null,
+            LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 2), "CONFIRMED"));
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.writeNdjson(LocalDate.of(2025, 9, 1), null, null, out);
+
+        assertEquals(1, rows);
+        JsonNode row = objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+        assertEquals("Walk-in", row.get("guestName").asText());
+        assertTrue(row.path("roomNumber").isMissingNode() || row.get("roomNumber").isNull());
+    }
+}
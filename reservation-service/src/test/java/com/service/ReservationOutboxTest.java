@@ -0,0 +1,174 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.dto.ReservationEvent;
+import com.dto.ReservationRequest;
+import com.exception.AppExceptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.OutboxEventRepository;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+
+// Runs bookings, updates and cancellations against the real tables and checks what reaches the
+// outbox and, through the relay, a subscriber
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = ReservationOutboxTest.JpaConfig.class)
+public class ReservationOutboxTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    @Import(JacksonAutoConfiguration.class)
+    static class JpaConfig {
+    }
+
+    // In-process subscriber that can be told to fail
+    private static class RecordingPublisher implements ReservationEventPublisher {
+        private final List<List<ReservationEvent>> batches = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void publish(List<ReservationEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("subscriber down");
+            }
+            batches.add(events);
+        }
+    }
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ReservationService reservationService;
+    private final RecordingPublisher publisher = new RecordingPublisher();
+    private OutboxRelay relay;
+    private long now = 1_000_000;
+    private Room single;
+    private Room suite;
+    private final LocalDate checkIn = LocalDate.of(2025, 12, 1);
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        RateCalendar rateCalendar = new RateCalendar();
+        reservationService = new ReservationService(reservationRepository, roomRepository, roomCatalog,
+            new RoomOccupancyIndex(List.of(roomCatalog)), new RoomLockStripes(16), new AvailabilityCache(false, 0, 0),
+            rateCalendar, new ReservationStats(), mock(RoomStatusBroadcaster.class), mock(BookingSequencer.class),
+            new ReservationOutbox(outboxEventRepository, roomCatalog, rateCalendar, objectMapper, true), TransactionOperations.withoutTransaction());
+        relay = new OutboxRelay(outboxEventRepository, objectMapper, List.of(publisher), false, 0, 2, 60_000,
+            () -> now);
+
+        single = roomRepository.save(new Room(null, "101", "Single", 80.0, true));
+        suite = roomRepository.save(new Room(null, "301", "Suite", 250.0, true));
+        reservationService.rebuildOccupancyIndex();
+    }
+
+    private ReservationRequest request(Long roomId, LocalDate from, LocalDate to) {
+        ReservationRequest request = new ReservationRequest();
+        request.setGuestName("Ann");
+        request.setGuestEmail("ann@example.com");
+        request.setRoomId(roomId);
+        request.setCheckInDate(from);
+        request.setCheckOutDate(to);
+        return request;
+    }
+
+    private List<ReservationEvent> published() {
+        return publisher.batches.stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    void testEveryChangeIsRelayedInOrderWithTheReservationItDescribes() {
+        Reservation booked = reservationService.createBooking(request(single.getId(), checkIn, checkIn.plusDays(2)),
+            "desk@example.com");
+        reservationService.updateReservation(booked.getId(), request(suite.getId(), checkIn, checkIn.plusDays(3)));
+        reservationService.deleteReservation(booked.getId());
+
+        // batches of two until the outbox is empty
+        assertEquals(2, relay.relayOnce());
+        assertEquals(1, relay.relayOnce());
+        assertEquals(0, relay.relayOnce());
+
+        List<ReservationEvent> events = published();
+        assertEquals(List.of(ReservationEvent.CREATED, ReservationEvent.UPDATED, ReservationEvent.CANCELLED),
+            events.stream().map(ReservationEvent::getType).toList());
+        assertTrue(events.stream().allMatch(event -> booked.getId().equals(event.getReservationId())));
+        assertTrue(events.get(0).getEventId() < events.get(1).getEventId());
+        assertEquals("101", events.get(0).getRoomNumber());
+        assertEquals(160.0, events.get(0).getTotalPrice());
+        assertEquals("301", events.get(1).getRoomNumber());
+        assertEquals(750.0, events.get(1).getTotalPrice());
+        assertEquals("ann@example.com", events.get(2).getGuestEmail());
+    }
+
+    @Test
+    void testRejectedBookingLeavesNoEvent() {
+        reservationService.createBooking(request(single.getId(), checkIn, checkIn.plusDays(2)), "desk@example.com");
+
+        assertThrows(AppExceptions.RoomAlreadyBookedException.class, () -> reservationService.createBooking(
+            request(single.getId(), checkIn.plusDays(1), checkIn.plusDays(3)), "desk@example.com"));
+
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    @Test
+    void testFailedPublishIsRetriedAndPublishedRowsArePurged() {
+        reservationService.createBooking(request(single.getId(), checkIn, checkIn.plusDays(2)), "desk@example.com");
+
+        publisher.failing = true;
+        assertThrows(IllegalStateException.class, () -> relay.relayOnce());
+        publisher.failing = false;
+        assertEquals(1, relay.relayOnce());
+        assertEquals(1, published().size());
+
+        // kept for the retention period, then purged
+        assertEquals(0, relay.purgePublished());
+        now += 60_001;
+        assertEquals(1, relay.purgePublished());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void testDisabledOutboxRecordsNothing() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        ReservationOutbox disabled = new ReservationOutbox(outboxEventRepository, roomCatalog, new RateCalendar(),
+            objectMapper, false);
+        Reservation reservation = new Reservation(1L, "Ann", "ann@example.com", single, checkIn, checkIn.plusDays(2),
+            "CONFIRMED");
+
+        disabled.reservationCreated(reservation);
+        disabled.reservationUpdated(reservation);
+        disabled.reservationCancelled(reservation);
+
+        // the relay is off too, so rows recorded now would never be published or purged
+        assertEquals(0, outboxEventRepository.count());
+    }
+}
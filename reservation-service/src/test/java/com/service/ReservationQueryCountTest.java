@@ -0,0 +1,158 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionOperations;
+
+import com.dto.ReservationDetails;
+import com.dto.ReservationRequest;
+import com.dto.StayPeriod;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Counts the SQL statements behind each read path, so a lazy association that starts
+// loading row by row again shows up here instead of in production
+@DataJpaTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ContextConfiguration(classes = ReservationQueryCountTest.JpaConfig.class)
+public class ReservationQueryCountTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    static class JpaConfig {
+    }
+
+    private static final int ROOMS = 5;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ReservationService reservationService;
+    private Statistics statistics;
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Reservation> reservations = new ArrayList<>();
+    private final LocalDate checkIn = LocalDate.of(2025, 12, 1);
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        reservationService = new ReservationService(reservationRepository, roomRepository, roomCatalog,
+            new RoomOccupancyIndex(List.of(roomCatalog)), new RoomLockStripes(16), new AvailabilityCache(false, 0, 0),
+            new RateCalendar(), new ReservationStats(), mock(RoomStatusBroadcaster.class), mock(BookingSequencer.class),
+            mock(ReservationOutbox.class), TransactionOperations.withoutTransaction());
+
+        for (int i = 0; i < ROOMS; i++) {
+            Room room = roomRepository.save(new Room(null, "10" + i, "Double", 90.0, true));
+            rooms.add(room);
+            reservations.add(reservationRepository.save(new Reservation(null, "Guest " + i, "guest" + i + "@example.com",
+                room, checkIn.plusDays(i), checkIn.plusDays(i + 2), "CONFIRMED")));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetAllReservationsIsOneStatementWithoutLoadingEntities() {
+        List<ReservationRequest> all = reservationService.getAllReservations();
+
+        assertEquals(ROOMS, all.size());
+        assertEquals(rooms.get(0).getId(), all.get(0).getRoomId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testReservationDetailsIsOneStatementWithoutLoadingEntities() {
+        ReservationDetails details = reservationService.getReservationDetails(reservations.get(1).getId()).orElseThrow();
+
+        assertEquals("Guest 1", details.getGuestName());
+        assertEquals("101", details.getRoomNumber());
+        assertEquals(180.0, reservationService.calculateTotalPrice(details));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testBatchDetailsIsOneStatementWithoutLoadingEntities() {
+        List<ReservationDetails> details = reservationService.getReservationDetails(
+            List.of(reservations.get(3).getId(), reservations.get(0).getId(), -1L));
+
+        assertEquals(List.of("100", "103"), details.stream().map(ReservationDetails::getRoomNumber).toList());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testOverlapChecksAreOneStatementEach() {
+        boolean taken = reservationRepository.existsOverlappingReservation(rooms.get(0).getId(), checkIn, checkIn.plusDays(1));
+        List<StayPeriod> stays = reservationRepository.findOverlappingStaysForRooms(
+            Set.of(rooms.get(0).getId(), rooms.get(1).getId()), checkIn, checkIn.plusDays(10));
+
+        assertTrue(taken);
+        assertEquals(2, stays.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFindByIdFetchesTheRoomInTheSameStatement() {
+        Reservation reservation = reservationService.findById(reservations.get(2).getId());
+
+        assertEquals("102", reservation.getRoom().getRoomNumber());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testStartupLoadDoesNotQueryRoomsPerReservation() {
+        reservationService.rebuildOccupancyIndex();
+
+        // one statement for the rooms and one for the reservations, however many there are
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRoomLookupsAreServedFromTheCatalog() {
+        reservationService.rebuildOccupancyIndex();
+        statistics.clear();
+
+        assertEquals("103", reservationService.getRoomById(rooms.get(3).getId()).getRoomNumber());
+        assertEquals(ROOMS, reservationService.getAllRooms().size());
+        assertEquals(ROOMS, reservationService.findAvailableRooms(checkIn.plusDays(20), checkIn.plusDays(21)).size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,181 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dto.ReservationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.OutboxEventRepository;
+import com.repository.ReservationRepository;
+import com.repository.RoomRepository;
+
+// Updates and cancellations whose commit fails must leave the occupancy index, the stats and the
+// room board as they were. Runs without the test transaction so every write really commits.
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@ContextConfiguration(classes = ReservationRollbackTest.JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReservationRollbackTest {
+
+    // deliberately not a @Configuration, so the application's component scan of "com" does not pick it up
+    @EntityScan("com.model")
+    @EnableJpaRepositories("com.repository")
+    @Import(JacksonAutoConfiguration.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final RoomStatusBroadcaster roomStatusBroadcaster = mock(RoomStatusBroadcaster.class);
+    private final ReservationStats stats = new ReservationStats();
+    private RoomOccupancyIndex occupancyIndex;
+    private ReservationService reservationService;
+    private boolean commitFails;
+    private Room single;
+    private Room suite;
+    private final LocalDate checkIn = LocalDate.of(2025, 12, 1);
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        RateCalendar rateCalendar = new RateCalendar();
+        occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+        reservationService = new ReservationService(reservationRepository, roomRepository, roomCatalog,
+            occupancyIndex, new RoomLockStripes(16), new AvailabilityCache(false, 0, 0), rateCalendar, stats,
+            roomStatusBroadcaster, mock(BookingSequencer.class),
+            new ReservationOutbox(outboxEventRepository, roomCatalog, rateCalendar, objectMapper, true),
+            failingCommits(new TransactionTemplate(transactionManager)));
+
+        single = roomRepository.save(new Room(null, "101", "Single", 80.0, true));
+        suite = roomRepository.save(new Room(null, "301", "Suite", 250.0, true));
+        reservationService.rebuildOccupancyIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+    }
+
+    // Real transactions whose commit fails, after the service's work is done, while commitFails is set
+    private TransactionOperations failingCommits(TransactionTemplate transactions) {
+        return new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return transactions.execute(status -> {
+                    T result = action.doInTransaction(status);
+                    if (commitFails) {
+                        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                            @Override
+                            public void beforeCommit(boolean readOnly) {
+                                throw new IllegalStateException("commit failed");
+                            }
+                        });
+                    }
+                    return result;
+                });
+            }
+        };
+    }
+
+    private ReservationRequest request(Long roomId, LocalDate from, LocalDate to) {
+        ReservationRequest request = new ReservationRequest();
+        request.setGuestName("Ann");
+        request.setGuestEmail("ann@example.com");
+        request.setRoomId(roomId);
+        request.setCheckInDate(from);
+        request.setCheckOutDate(to);
+        return request;
+    }
+
+    @Test
+    void testFailedCommitOfMoveKeepsTheOriginalStay() {
+        Reservation booked = reservationService.createBooking(request(single.getId(), checkIn, checkIn.plusDays(2)),
+            "desk@example.com");
+        commitFails = true;
+
+        assertThrows(IllegalStateException.class, () -> reservationService.updateReservation(booked.getId(),
+            request(suite.getId(), checkIn.plusDays(1), checkIn.plusDays(4))));
+
+        assertFalse(occupancyIndex.isFree(single.getId(), checkIn, checkIn.plusDays(2)));
+        assertTrue(occupancyIndex.isFree(suite.getId(), checkIn.plusDays(1), checkIn.plusDays(4)));
+        assertEquals(1, stats.snapshot().get("totalReservations"));
+        assertEquals(single.getId(), reservationRepository.findWithRoomById(booked.getId()).orElseThrow().getRoom().getId());
+        verify(roomStatusBroadcaster, never()).roomReleased(anyLong(), any(), any());
+        verify(roomStatusBroadcaster, never()).roomBooked(suite.getId(), checkIn.plusDays(1), checkIn.plusDays(4));
+
+        // the stay can still be moved once commits go through again
+        commitFails = false;
+        reservationService.updateReservation(booked.getId(), request(suite.getId(), checkIn.plusDays(1), checkIn.plusDays(4)));
+        assertTrue(occupancyIndex.isFree(single.getId(), checkIn, checkIn.plusDays(2)));
+        verify(roomStatusBroadcaster).roomBooked(suite.getId(), checkIn.plusDays(1), checkIn.plusDays(4));
+    }
+
+    @Test
+    void testFailedCommitOfCancellationKeepsTheNights() {
+        Reservation booked = reservationService.createBooking(request(single.getId(), checkIn, checkIn.plusDays(2)),
+            "desk@example.com");
+        commitFails = true;
+
+        assertThrows(IllegalStateException.class, () -> reservationService.deleteReservation(booked.getId()));
+
+        assertFalse(occupancyIndex.isFree(single.getId(), checkIn, checkIn.plusDays(2)));
+        assertEquals(1, stats.snapshot().get("totalReservations"));
+        assertTrue(reservationRepository.existsById(booked.getId()));
+        verify(roomStatusBroadcaster, never()).roomReleased(anyLong(), any(), any());
+    }
+
+    @Test
+    void testFailedCommitOfBookingIsNotBroadcast() {
+        commitFails = true;
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createBooking(
+            request(single.getId(), checkIn, checkIn.plusDays(2)), "desk@example.com"));
+
+        assertTrue(occupancyIndex.isFree(single.getId(), checkIn, checkIn.plusDays(2)));
+        assertEquals(0, stats.snapshot().get("totalReservations"));
+        assertEquals(0, reservationRepository.count());
+        verify(roomStatusBroadcaster, never()).roomBooked(anyLong(), any(), any());
+    }
+}
@@ -2,13 +2,15 @@ package com.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -16,13 +18,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
 
+import com.dto.PageResponse;
 import com.dto.ReservationRequest;
 import com.dto.RoomRequest;
+import com.dto.StayPeriod;
 import com.model.Reservation;
+import com.exception.AppExceptions;
 import com.model.Room;
 import com.repository.ReservationRepository;
 import com.repository.RoomRepository;
@@ -38,6 +46,36 @@ public class ReservationServiceMockTest {
     @Mock
     private RoomRepository roomRepository;
     
+    @Spy
+    private RateCalendar rateCalendar = new RateCalendar();
+    
+    @Spy
+    private ReservationStats stats = new ReservationStats();
+    
+    @Mock
+    private RoomStatusBroadcaster roomStatusBroadcaster;
+    
+    @Mock
+    private BookingSequencer bookingSequencer;
+    
+    @Mock
+    private ReservationOutbox outbox;
+    
+    @Spy
+    private AvailabilityCache availabilityCache = new AvailabilityCache(true, 100, 60_000);
+    
+    @Spy
+    private RoomCatalog roomCatalog = new RoomCatalog();
+    
+    @Spy
+    private RoomOccupancyIndex occupancyIndex = new RoomOccupancyIndex(List.of(availabilityCache, roomCatalog));
+    
+    @Spy
+    private RoomLockStripes lockStripes = new RoomLockStripes(16);
+    
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+    
     @InjectMocks
     private ReservationService reservationService;
     
@@ -61,6 +99,7 @@ public class ReservationServiceMockTest {
         testRoom.setType("Deluxe");
         testRoom.setPricePerNight(100.0);
         testRoom.setIsAvailable(true);
+        roomCatalog.onRebuild(List.of(testRoom));
         
         // Set up test reservation
         testReservation = new Reservation();
@@ -93,13 +132,6 @@ public class ReservationServiceMockTest {
     @Test
     void testFindAvailableRooms_Success() {
         // Arrange
-        List<Reservation> overlappingReservations = new ArrayList<>();
-        List<Room> allRooms = Arrays.asList(testRoom);
-        
-        when(reservationRepository.findOverlappingReservations(any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(overlappingReservations);
-        when(roomRepository.findAll()).thenReturn(allRooms);
-        
         // Act
         List<Room> availableRooms = reservationService.findAvailableRooms(checkInDate, checkOutDate);
         
@@ -107,17 +139,47 @@ public class ReservationServiceMockTest {
         logger.info("Available rooms found: {}", availableRooms.size());
         assertEquals(1, availableRooms.size());
         assertEquals("101", availableRooms.get(0).getRoomNumber());
-        verify(reservationRepository).findOverlappingReservations(checkInDate, checkOutDate);
-        verify(roomRepository).findAll();
+        verifyNoInteractions(roomRepository, reservationRepository);
+    }
+    
+    @Test
+    void testFindAvailableRooms_ExcludesOccupiedRoom() {
+        // Arrange
+        occupancyIndex.occupy(testRoom.getId(), checkInDate, checkOutDate);
+        
+        // Act
+        List<Room> availableRooms = reservationService.findAvailableRooms(checkInDate.plusDays(1), checkOutDate.plusDays(1));
+        
+        // Assert
+        logger.info("Available rooms found: {}", availableRooms.size());
+        assertTrue(availableRooms.isEmpty());
+        verifyNoInteractions(reservationRepository);
+    }
+    
+    @Test
+    void testFindAvailableRooms_CachedUntilOverlappingBooking() {
+        // Arrange
+        when(reservationRepository.existsOverlappingReservation(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(false);
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+        
+        // Act: the repeated search is answered from the cache, the booking invalidates it
+        assertEquals(1, reservationService.findAvailableRooms(checkInDate, checkOutDate).size());
+        assertEquals(1, reservationService.findAvailableRooms(checkInDate, checkOutDate).size());
+        reservationService.createBooking(testReservationRequest, "receptionist@example.com");
+        List<Room> afterBooking = reservationService.findAvailableRooms(checkInDate, checkOutDate);
+        
+        // Assert
+        assertTrue(afterBooking.isEmpty());
+        verify(roomRepository, never()).findAll();
+        assertEquals(1, availabilityCache.getHitCount());
     }
     
     @Test
     void testCreateBooking_Success() {
         // Arrange
-        when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
-        when(reservationRepository.findOverlappingReservations(any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(new ArrayList<>());
-        when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
+        when(reservationRepository.existsOverlappingReservation(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(false);
         when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
         
         // Act
@@ -129,16 +191,81 @@ public class ReservationServiceMockTest {
         assertEquals("John Doe", result.getGuestName());
         assertEquals("101", result.getRoom().getRoomNumber());
         assertEquals("CONFIRMED", result.getStatus());
-        verify(roomRepository).findById(1L);
-        verify(reservationRepository).findOverlappingReservations(checkInDate, checkOutDate);
-        verify(roomRepository).save(any(Room.class));
+        verify(roomRepository, never()).findById(anyLong());
+        verify(reservationRepository).existsOverlappingReservation(1L, checkInDate, checkOutDate);
+        // only the booked flag is written, without reading or merging the room
+        verify(roomRepository).updateAvailability(1L, false);
+        verify(roomRepository, never()).save(any(Room.class));
         verify(reservationRepository).save(any(Reservation.class));
     }
     
+    @Test
+    void testSequencerModeDelegatesWrites() {
+        // Arrange
+        when(bookingSequencer.isEnabled()).thenReturn(true);
+        when(bookingSequencer.book(List.of(testReservationRequest))).thenReturn(List.of(testReservation));
+        when(bookingSequencer.find(1L)).thenReturn(Optional.of(testReservation));
+        
+        // Act
+        Reservation booked = reservationService.createBooking(testReservationRequest, "receptionist@example.com");
+        Reservation found = reservationService.findById(1L);
+        reservationService.deleteReservation(1L);
+        
+        // Assert
+        assertSame(testReservation, booked);
+        assertSame(testReservation, found);
+        verify(bookingSequencer).cancel(1L);
+        verifyNoInteractions(reservationRepository, roomRepository);
+    }
+    
+    @Test
+    void testStatsFollowBookingAndCancellation() {
+        // Arrange
+        when(reservationRepository.existsOverlappingReservation(anyLong(), any(LocalDate.class), any(LocalDate.class))).thenReturn(false);
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+        when(reservationRepository.findWithRoomById(1L)).thenReturn(Optional.of(testReservation));
+        testReservationRequest.setCheckInDate(LocalDate.now());
+        testReservation.setCheckInDate(LocalDate.now());
+        
+        // Act
+        reservationService.createBooking(testReservationRequest, "reception@example.com");
+        Map<String, Object> afterBooking = reservationService.getStats();
+        reservationService.deleteReservation(1L);
+        Map<String, Object> afterCancel = reservationService.getStats();
+        
+        // Assert
+        assertEquals(1, afterBooking.get("occupiedTonight"));
+        assertEquals(1, afterBooking.get("arrivalsToday"));
+        assertEquals(Map.of("CONFIRMED", 1), afterBooking.get("reservationsByStatus"));
+        assertEquals(0, afterCancel.get("occupiedTonight"));
+        assertEquals(0, afterCancel.get("totalReservations"));
+        assertEquals(Map.of(), afterCancel.get("reservationsByStatus"));
+    }
+    
+    @Test
+    void testUpdateReservation_MovingDatesKeepsTypeCountsExact() {
+        // Arrange
+        occupancyIndex.rebuild(List.of(testRoom), List.of(testReservation));
+        when(reservationRepository.findWithRoomById(1L)).thenReturn(Optional.of(testReservation));
+        testReservationRequest.setCheckInDate(checkInDate.plusDays(1));
+        testReservationRequest.setCheckOutDate(checkOutDate.plusDays(1));
+        
+        // Act
+        reservationService.updateReservation(1L, testReservationRequest);
+        // a guest-name-only edit leaves the nights alone
+        testReservationRequest.setGuestName("John Q. Doe");
+        reservationService.updateReservation(1L, testReservationRequest);
+        
+        // Assert: only the nights of the moved stay are sold
+        assertEquals(Map.of("Deluxe", 1), occupancyIndex.availableByType(checkInDate, checkInDate.plusDays(1)));
+        assertEquals(Map.of("Deluxe", 0), occupancyIndex.availableByType(checkInDate.plusDays(1), checkOutDate.plusDays(1)));
+        assertEquals(Map.of("Deluxe", 1), occupancyIndex.availableByType(checkOutDate.plusDays(1), checkOutDate.plusDays(5)));
+    }
+    
     @Test
     void testCreateBooking_RoomNotFound() {
         // Arrange
-        when(roomRepository.findById(anyLong())).thenReturn(Optional.empty());
+        testReservationRequest.setRoomId(99L);
         
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -147,18 +274,14 @@ public class ReservationServiceMockTest {
         
         logger.error("Expected error: {}", exception.getMessage());
         assertEquals("Room not found", exception.getMessage());
-        verify(roomRepository).findById(1L);
-        verifyNoMoreInteractions(reservationRepository);
+        verifyNoInteractions(roomRepository, reservationRepository);
     }
     
     @Test
     void testCreateBooking_RoomAlreadyBooked() {
         // Arrange
-        List<Reservation> overlappingReservations = Arrays.asList(testReservation);
-        
-        when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
-        when(reservationRepository.findOverlappingReservations(any(LocalDate.class), any(LocalDate.class)))
-            .thenReturn(overlappingReservations);
+        when(reservationRepository.existsOverlappingReservation(anyLong(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(true);
         
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -167,8 +290,54 @@ public class ReservationServiceMockTest {
         
         logger.error("Expected error: {}", exception.getMessage());
         assertEquals("Room is already booked for these dates", exception.getMessage());
-        verify(roomRepository).findById(1L);
-        verify(reservationRepository).findOverlappingReservations(checkInDate, checkOutDate);
+        verify(reservationRepository).existsOverlappingReservation(1L, checkInDate, checkOutDate);
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+    
+    @Test
+    void testCreateGroupBooking_Success() {
+        // Arrange
+        Room secondRoom = new Room(2L, "102", "Double", 80.0, true);
+        ReservationRequest secondRequest = new ReservationRequest(null, "Jane Doe", "jane@example.com", 2L,
+            checkInDate, checkOutDate);
+        roomCatalog.onRoomSaved(secondRoom);
+        when(reservationRepository.findOverlappingStaysForRooms(anySet(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of());
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Act
+        List<Reservation> result = reservationService.createGroupBooking(
+            Arrays.asList(testReservationRequest, secondRequest), "receptionist@example.com");
+        
+        // Assert
+        logger.info("Group booking created {} reservations", result.size());
+        assertEquals(2, result.size());
+        assertEquals("102", result.get(1).getRoom().getRoomNumber());
+        assertFalse(occupancyIndex.isFree(2L, checkInDate, checkOutDate));
+        verify(reservationRepository, times(1)).findOverlappingStaysForRooms(anySet(), any(LocalDate.class), any(LocalDate.class));
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+    
+    @Test
+    void testCreateGroupBooking_OneConflictRejectsWholeBlock() {
+        // Arrange
+        Room secondRoom = new Room(2L, "102", "Double", 80.0, true);
+        StayPeriod existing = new StayPeriod(2L, checkInDate.plusDays(1), checkOutDate.plusDays(1));
+        ReservationRequest secondRequest = new ReservationRequest(null, "Jane Doe", "jane@example.com", 2L,
+            checkInDate, checkOutDate);
+        roomCatalog.onRoomSaved(secondRoom);
+        when(reservationRepository.findOverlappingStaysForRooms(anySet(), any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(List.of(existing));
+        
+        // Act & Assert
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            reservationService.createGroupBooking(Arrays.asList(testReservationRequest, secondRequest), "receptionist@example.com");
+        });
+        
+        logger.error("Expected error: {}", exception.getMessage());
+        assertEquals("Rooms already booked for these dates: [102]", exception.getMessage());
+        assertTrue(occupancyIndex.isFree(1L, checkInDate, checkOutDate));
+        verify(reservationRepository, never()).saveAll(anyList());
     }
     
     @Test
@@ -181,21 +350,45 @@ public class ReservationServiceMockTest {
         assertEquals(200.0, totalPrice); // 2 nights at $100 per night
     }
     
+    @Test
+    void testCalculateTotalPrice_UsesNightlyRates() {
+        // Arrange: a 3-night stay where the last two nights are priced as a weekend
+        testReservation.setCheckInDate(LocalDate.of(2025, 6, 5));
+        testReservation.setCheckOutDate(LocalDate.of(2025, 6, 8));
+        rateCalendar.setRate("Deluxe", LocalDate.of(2025, 6, 6), LocalDate.of(2025, 6, 8), 150.0);
+        
+        // Act
+        double totalPrice = reservationService.calculateTotalPrice(testReservation);
+        
+        // Assert
+        assertEquals(400.0, totalPrice); // $100 + 2 x $150
+    }
+    
     @Test
     void testSaveRoom_Success() {
         // Arrange
-        when(roomRepository.existsByRoomNumber(anyString())).thenReturn(false);
-        when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
+        Room newRoom = new Room(null, "201", "Suite", 180.0, true);
+        Room savedRoom = new Room(2L, "201", "Suite", 180.0, true);
+        when(roomRepository.save(any(Room.class))).thenReturn(savedRoom);
         
         // Act
-        Room result = reservationService.saveRoom(testRoom);
+        Room result = reservationService.saveRoom(newRoom);
         
         // Assert
         logger.info("Room saved with ID: {}", result.getId());
         assertNotNull(result);
-        assertEquals("101", result.getRoomNumber());
-        verify(roomRepository).existsByRoomNumber("101");
-        verify(roomRepository).save(testRoom);
+        assertEquals("201", result.getRoomNumber());
+        verify(roomRepository).save(newRoom);
+        verify(roomRepository, never()).existsByRoomNumber(anyString());
+        verify(occupancyIndex).markRoomChanged(savedRoom);
+    }
+    
+    @Test
+    void testSaveRoom_DuplicateNumberRejectedFromCatalog() {
+        // Act & Assert
+        assertThrows(AppExceptions.DuplicateRoomException.class,
+            () -> reservationService.saveRoom(new Room(null, "101", "Suite", 180.0, true)));
+        verifyNoInteractions(roomRepository);
     }
     
  
@@ -203,16 +396,50 @@ public class ReservationServiceMockTest {
     
     @Test
     void testGetRoomById_NotFound() {
-        // Arrange
-        when(roomRepository.findById(anyLong())).thenReturn(Optional.empty());
-        
         // Act & Assert
         Exception exception = assertThrows(RuntimeException.class, () -> {
-            reservationService.getRoomById(1L);
+            reservationService.getRoomById(99L);
         });
         
         logger.error("Expected error: {}", exception.getMessage());
         assertEquals("Room not found", exception.getMessage());
-        verify(roomRepository).findById(1L);
+        verifyNoInteractions(roomRepository);
+    }
+
+    @Test
+    void testGetReservationsPage_ReturnsCursorWhenMoreRowsExist() {
+        // Arrange: the repository returns one row more than the page size
+        ReservationRequest second = new ReservationRequest(2L, "Jane Roe", "jane@example.com", 1L, checkInDate, checkOutDate);
+        ReservationRequest third = new ReservationRequest(3L, "Max Poe", "max@example.com", 1L, checkInDate, checkOutDate);
+        when(reservationRepository.findReservationPageAfter(0L, PageRequest.of(0, 3)))
+            .thenReturn(Arrays.asList(testReservationRequest, second, third));
+        
+        // Act
+        PageResponse<ReservationRequest> page = reservationService.getReservationsPage(null, 2);
+        
+        // Assert
+        assertEquals(2, page.getSize());
+        assertEquals(2L, page.getNext());
+        assertEquals("Jane Roe", page.getItems().get(1).getGuestName());
+    }
+    
+    @Test
+    void testGetRoomsPage_LastPageHasNoCursor() {
+        // Arrange
+        when(roomRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 11))).thenReturn(List.of(testRoom));
+        
+        // Act
+        PageResponse<Room> page = reservationService.getRoomsPage(0L, 10);
+        
+        // Assert
+        assertEquals(1, page.getSize());
+        assertNull(page.getNext());
+    }
+    
+    @Test
+    void testGetRoomsPage_RejectsOversizedPage() {
+        assertThrows(AppExceptions.InvalidPageRequestException.class,
+            () -> reservationService.getRoomsPage(null, ReservationService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(roomRepository);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.model.Reservation;
+import com.model.Room;
+
+public class ReservationStatsTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    private LocalDate today;
+    private MutableClock clock;
+    private ReservationStats stats;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.of(2025, 5, 1);
+        clock = new MutableClock(today.atStartOfDay(ZONE).toInstant().plusSeconds(3600 * 20));
+        stats = new ReservationStats(clock);
+    }
+
+    @Test
+    void testRebuildCountsTodayAndTonight() {
+        Room room = new Room(1L, "101", "Double", 90.0, true);
+        stats.rebuild(4, List.of(
+            new Reservation(1L, "Ann", "ann@example.com", room, today.minusDays(2), today.plusDays(1), "CONFIRMED"),
+            new Reservation(2L, "Bob", "bob@example.com", room, today.minusDays(3), today, "CONFIRMED"),
+            new Reservation(3L, "Ann", "ann@example.com", room, today, today.plusDays(2), "CANCELLED")));
+
+        Map<String, Object> snapshot = stats.snapshot();
+
+        assertEquals(4, snapshot.get("totalRooms"));
+        assertEquals(2, snapshot.get("occupiedTonight"));
+        assertEquals(0.5, snapshot.get("occupancyRate"));
+        assertEquals(1, snapshot.get("arrivalsToday"));
+        assertEquals(1, snapshot.get("departuresToday"));
+        assertEquals(Map.of("CONFIRMED", 2, "CANCELLED", 1), snapshot.get("reservationsByStatus"));
+        assertEquals(2, snapshot.get("distinctGuests"));
+    }
+
+    @Test
+    void testIncrementalUpdatesAndDayRollover() {
+        stats.roomAdded();
+        stats.roomAdded();
+        stats.reservationAdded("ann@example.com", today, today.plusDays(2), "CONFIRMED");
+        stats.reservationAdded("bob@example.com", today.plusDays(1), today.plusDays(3), "CONFIRMED");
+        stats.reservationRemoved("bob@example.com", today.plusDays(1), today.plusDays(3), "CONFIRMED");
+        stats.reservationAdded("bob@example.com", today.plusDays(1), today.plusDays(4), "CONFIRMED");
+
+        assertEquals(1, stats.snapshot().get("occupiedTonight"));
+        assertEquals(1, stats.snapshot().get("arrivalsToday"));
+
+        // past midnight the same counters answer for the new day
+        clock.advanceHours(6);
+        Map<String, Object> tomorrow = stats.snapshot();
+        assertEquals(today.plusDays(1).toString(), tomorrow.get("date"));
+        assertEquals(2, tomorrow.get("occupiedTonight"));
+        assertEquals(1.0, tomorrow.get("occupancyRate"));
+        assertEquals(1, tomorrow.get("arrivalsToday"));
+        assertEquals(0, tomorrow.get("departuresToday"));
+        assertEquals(2, tomorrow.get("totalReservations"));
+
+        stats.roomRemoved();
+        assertEquals(1, stats.snapshot().get("totalRooms"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceHours(long hours) {
+            now = now.plusSeconds(hours * 3600);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
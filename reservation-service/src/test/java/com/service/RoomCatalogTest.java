@@ -0,0 +1,98 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.model.Room;
+
+public class RoomCatalogTest {
+
+    private RoomCatalog roomCatalog;
+
+    @BeforeEach
+    void setUp() {
+        roomCatalog = new RoomCatalog();
+        roomCatalog.onRebuild(List.of(
+            new Room(3L, "201", "Suite", 250.0, true),
+            new Room(1L, "101", "Double", 120.0, true)));
+    }
+
+    @Test
+    void testLookupsByIdAndNumber() {
+        assertEquals("Suite", roomCatalog.get(3L).orElseThrow().type());
+        assertEquals(1L, roomCatalog.findByNumber("101").orElseThrow().id());
+        assertTrue(roomCatalog.get(2L).isEmpty());
+        assertEquals(List.of(1L, 3L), roomCatalog.all().stream().map(RoomCatalog.Entry::id).toList());
+    }
+
+    @Test
+    void testEveryChangeMovesToTheNextVersion() {
+        long loaded = roomCatalog.version();
+
+        roomCatalog.onRoomSaved(new Room(1L, "102", "Double", 130.0, true));
+        assertEquals(loaded + 1, roomCatalog.version());
+        assertTrue(roomCatalog.findByNumber("101").isEmpty());
+        assertEquals(130.0, roomCatalog.findByNumber("102").orElseThrow().price());
+
+        roomCatalog.availabilityChanged(1L, false);
+        assertEquals(loaded + 2, roomCatalog.version());
+        assertFalse(roomCatalog.get(1L).orElseThrow().available());
+
+        // nothing to change, so no new version
+        roomCatalog.availabilityChanged(1L, false);
+        roomCatalog.availabilityChanged(9L, true);
+        assertEquals(loaded + 2, roomCatalog.version());
+
+        roomCatalog.onRoomRemoved(3L);
+        assertEquals(loaded + 3, roomCatalog.version());
+        assertTrue(roomCatalog.findByNumber("201").isEmpty());
+    }
+
+    @Test
+    void testReadersKeepTheSnapshotTheyHold() {
+        Collection<RoomCatalog.Entry> before = roomCatalog.all();
+
+        roomCatalog.onRoomSaved(new Room(5L, "301", "Suite", 300.0, true));
+        roomCatalog.onRoomRemoved(1L);
+
+        assertEquals(2, before.size());
+        assertEquals(List.of(3L, 5L), new ArrayList<>(roomCatalog.all()).stream().map(RoomCatalog.Entry::id).toList());
+        assertThrows(UnsupportedOperationException.class, () -> before.clear());
+    }
+
+    @Test
+    void testBookedFlagChangeKeepsOrderAndBothLookups() {
+        roomCatalog.availabilityChanged(3L, false);
+
+        assertEquals(List.of(1L, 3L), roomCatalog.all().stream().map(RoomCatalog.Entry::id).toList());
+        assertFalse(roomCatalog.get(3L).orElseThrow().available());
+        assertFalse(roomCatalog.findByNumber("201").orElseThrow().available());
+        assertTrue(roomCatalog.get(1L).orElseThrow().available());
+    }
+
+    @Test
+    void testConcurrentFlagChangesEachMoveToTheNextVersion() throws Exception {
+        long loaded = roomCatalog.version();
+        Thread booking = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                roomCatalog.availabilityChanged(1L, i % 2 != 0);
+            }
+        });
+        booking.start();
+        for (int i = 0; i < 1000; i++) {
+            roomCatalog.availabilityChanged(3L, i % 2 != 0);
+        }
+        booking.join();
+
+        // every call flipped its room, and none of the flips was lost to the other room's
+        assertEquals(loaded + 2000, roomCatalog.version());
+        assertTrue(roomCatalog.get(1L).orElseThrow().available());
+        assertTrue(roomCatalog.get(3L).orElseThrow().available());
+    }
+}
@@ -0,0 +1,175 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.dto.HoldRequest;
+import com.dto.ReservationRequest;
+import com.dto.RoomHold;
+import com.exception.AppExceptions;
+import com.model.Reservation;
+import com.model.Room;
+import com.repository.ReservationRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomHoldServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationService reservationService;
+
+    private RoomOccupancyIndex occupancyIndex;
+    private AtomicLong now;
+    private RoomHoldService holdService;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+        occupancyIndex.rebuild(List.of(new Room(1L, "101", "Double", 90.0, true)), List.of());
+        now = new AtomicLong(1_000_000);
+        holdService = new RoomHoldService(roomCatalog, occupancyIndex, new RoomLockStripes(16), reservationRepository,
+            reservationService, 600, 1800, 1000, 64, now::get);
+        checkIn = LocalDate.of(2025, 9, 1);
+        checkOut = LocalDate.of(2025, 9, 4);
+    }
+
+    @Test
+    void testHoldBlocksNightsUntilItExpires() {
+        RoomHold hold = holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, 60));
+
+        assertFalse(occupancyIndex.isFree(1L, checkIn.plusDays(1), checkIn.plusDays(2)));
+        assertThrows(AppExceptions.RoomAlreadyBookedException.class,
+            () -> holdService.placeHold(new HoldRequest(1L, checkIn.plusDays(2), checkOut.plusDays(2), null)));
+
+        now.addAndGet(59_000);
+        holdService.expireDue();
+        assertEquals(hold.getHoldId(), holdService.getHold(hold.getHoldId()).getHoldId());
+
+        now.addAndGet(1_000);
+        holdService.expireDue();
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkOut));
+        assertEquals(0, holdService.activeHolds());
+        assertThrows(AppExceptions.HoldNotFoundException.class, () -> holdService.getHold(hold.getHoldId()));
+    }
+
+    @Test
+    void testHoldIsRejectedWhenDatabaseHasOverlap() {
+        when(reservationRepository.existsOverlappingReservation(anyLong(), any(LocalDate.class), any(LocalDate.class))).thenReturn(true);
+
+        assertThrows(AppExceptions.RoomAlreadyBookedException.class,
+            () -> holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, null)));
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkOut));
+    }
+
+    @Test
+    void testInvalidHoldsAreRejected() {
+        assertThrows(AppExceptions.InvalidBookingException.class,
+            () -> holdService.placeHold(new HoldRequest(1L, checkOut, checkIn, null)));
+        assertThrows(AppExceptions.InvalidBookingException.class,
+            () -> holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, 3600)));
+        assertThrows(AppExceptions.RoomNotFoundException.class,
+            () -> holdService.placeHold(new HoldRequest(9L, checkIn, checkOut, null)));
+    }
+
+    @Test
+    void testBookHoldUsesHeldRoomAndDates() {
+        RoomHold hold = holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, null));
+        Reservation booked = new Reservation();
+        when(reservationService.createBooking(any(ReservationRequest.class), eq("desk@example.com"))).thenAnswer(invocation -> {
+            // the hold's nights are handed over to the booking
+            assertTrue(occupancyIndex.isFree(1L, checkIn, checkOut));
+            return booked;
+        });
+
+        Reservation reservation = holdService.bookHold(hold.getHoldId(),
+            new ReservationRequest(null, "Ann", "ann@example.com", 99L, null, null), "desk@example.com");
+
+        ArgumentCaptor<ReservationRequest> request = ArgumentCaptor.forClass(ReservationRequest.class);
+        verify(reservationService).createBooking(request.capture(), eq("desk@example.com"));
+        assertSame(booked, reservation);
+        assertEquals(1L, request.getValue().getRoomId());
+        assertEquals(checkIn, request.getValue().getCheckInDate());
+        assertEquals("Ann", request.getValue().getGuestName());
+        assertEquals(0, holdService.activeHolds());
+    }
+
+    @Test
+    void testHoldPutBackAfterItsDeadlineStillExpires() {
+        RoomHold hold = holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, 60));
+        when(reservationService.createBooking(any(ReservationRequest.class), eq("desk@example.com"))).thenAnswer(invocation -> {
+            // the conversion outlives the hold and fails, so the hold goes back already due
+            now.addAndGet(120_000);
+            throw new IllegalStateException("database unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, () -> holdService.bookHold(hold.getHoldId(),
+            new ReservationRequest(null, "Ann", "ann@example.com", null, null, null), "desk@example.com"));
+        assertEquals(1, holdService.activeHolds());
+
+        now.addAndGet(1_000);
+        holdService.expireDue();
+        assertEquals(0, holdService.activeHolds());
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkOut));
+    }
+
+    @Test
+    void testSequencerTakesHeldNightsOverWithoutFreeingThem() {
+        RoomHold hold = holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, null));
+        Reservation booked = new Reservation();
+        when(reservationService.isSequencerEnabled()).thenReturn(true);
+        when(reservationService.createBookingFromHold(any(ReservationRequest.class), eq("desk@example.com"))).thenAnswer(invocation -> {
+            assertFalse(occupancyIndex.isFree(1L, checkIn, checkOut));
+            return booked;
+        });
+
+        Reservation reservation = holdService.bookHold(hold.getHoldId(),
+            new ReservationRequest(null, "Ann", "ann@example.com", null, null, null), "desk@example.com");
+
+        assertSame(booked, reservation);
+        verify(reservationService, never()).createBooking(any(), any());
+        assertEquals(0, holdService.activeHolds());
+        assertFalse(occupancyIndex.isFree(1L, checkIn, checkOut));
+    }
+
+    @Test
+    void testFailedBookingKeepsTheHold() {
+        RoomHold hold = holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, null));
+        when(reservationService.createBooking(any(ReservationRequest.class), any()))
+            .thenThrow(new AppExceptions.RoomAlreadyBookedException("Room is already booked for these dates"));
+
+        assertThrows(AppExceptions.RoomAlreadyBookedException.class, () -> holdService.bookHold(hold.getHoldId(),
+            new ReservationRequest(null, "Ann", "ann@example.com", null, null, null), "desk@example.com"));
+
+        assertEquals(1, holdService.activeHolds());
+        assertFalse(occupancyIndex.isFree(1L, checkIn, checkOut));
+    }
+
+    @Test
+    void testReleaseHoldFreesNights() {
+        RoomHold hold = holdService.placeHold(new HoldRequest(1L, checkIn, checkOut, null));
+
+        holdService.releaseHold(hold.getHoldId());
+
+        assertTrue(occupancyIndex.isFree(1L, checkIn, checkOut));
+        assertThrows(AppExceptions.HoldNotFoundException.class, () -> holdService.releaseHold(hold.getHoldId()));
+    }
+}
@@ -0,0 +1,202 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.model.Reservation;
+import com.model.Room;
+
+public class RoomOccupancyIndexTest {
+
+    private RoomOccupancyIndex occupancyIndex;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        occupancyIndex = new RoomOccupancyIndex();
+        today = LocalDate.of(2025, 5, 1);
+    }
+
+    @Test
+    void testUnknownRoomIsFree() {
+        assertTrue(occupancyIndex.isFree(42L, today, today.plusDays(3)));
+    }
+
+    @Test
+    void testCheckOutDayIsFreeForNextGuest() {
+        occupancyIndex.occupy(1L, today, today.plusDays(2));
+
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(1), today.plusDays(4)));
+        assertTrue(occupancyIndex.isFree(1L, today.plusDays(2), today.plusDays(4)));
+        assertTrue(occupancyIndex.isFree(1L, today.minusDays(3), today));
+        assertTrue(occupancyIndex.isFree(2L, today, today.plusDays(2)));
+    }
+
+    @Test
+    void testLongStaysAcrossWordBoundaries() {
+        // 200 nights spans several 64-night words
+        occupancyIndex.occupy(1L, today, today.plusDays(200));
+
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(63), today.plusDays(65)));
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(199), today.plusDays(250)));
+        assertTrue(occupancyIndex.isFree(1L, today.plusDays(200), today.plusDays(400)));
+
+        // an earlier booking grows the calendar backwards
+        occupancyIndex.occupy(1L, today.minusDays(500), today.minusDays(499));
+        assertFalse(occupancyIndex.isFree(1L, today.minusDays(500), today.minusDays(499)));
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(100), today.plusDays(101)));
+        assertTrue(occupancyIndex.isFree(1L, today.minusDays(499), today));
+    }
+
+    @Test
+    void testReleaseFreesOnlyThatStay() {
+        occupancyIndex.occupy(1L, today, today.plusDays(3));
+        occupancyIndex.occupy(1L, today.plusDays(5), today.plusDays(7));
+
+        occupancyIndex.release(1L, today, today.plusDays(3));
+
+        assertTrue(occupancyIndex.isFree(1L, today, today.plusDays(5)));
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(4), today.plusDays(6)));
+    }
+
+    @Test
+    void testRebuildReplacesExistingState() {
+        Room room = new Room(7L, "701", "Suite", 150.0, true);
+        Reservation reservation = new Reservation(1L, "Jane", "jane@example.com", room,
+            today, today.plusDays(2), "CONFIRMED");
+        occupancyIndex.occupy(9L, today, today.plusDays(1));
+
+        occupancyIndex.rebuild(List.of(room), List.of(reservation));
+
+        assertFalse(occupancyIndex.isFree(7L, today, today.plusDays(1)));
+        assertTrue(occupancyIndex.isFree(9L, today, today.plusDays(1)));
+    }
+
+    @Test
+    void testAvailableByTypeTakesBusiestNightOfStay() {
+        Room first = new Room(1L, "101", "Double", 90.0, true);
+        Room second = new Room(2L, "102", "Double", 90.0, true);
+        Room suite = new Room(3L, "301", "Suite", 250.0, true);
+        Reservation booked = new Reservation(1L, "Ann", "ann@example.com", first, today, today.plusDays(3), "CONFIRMED");
+        occupancyIndex.rebuild(List.of(first, second, suite), List.of(booked));
+
+        occupancyIndex.occupy(2L, today.plusDays(2), today.plusDays(4));
+
+        assertEquals(Map.of("Double", 1, "Suite", 1), occupancyIndex.availableByType(today, today.plusDays(2)));
+        assertEquals(Map.of("Double", 0, "Suite", 1), occupancyIndex.availableByType(today, today.plusDays(5)));
+        assertEquals(Map.of("Double", 1, "Suite", 1), occupancyIndex.availableByType(today.plusDays(3), today.plusDays(6)));
+
+        occupancyIndex.release(1L, today, today.plusDays(3));
+        assertEquals(Map.of("Double", 1, "Suite", 1), occupancyIndex.availableByType(today, today.plusDays(5)));
+    }
+
+    @Test
+    void testTypeCountsOnlyFollowNightsThatChanged() {
+        Room first = new Room(1L, "101", "Double", 90.0, true);
+        Room second = new Room(2L, "102", "Double", 90.0, true);
+        occupancyIndex.rebuild(List.of(first, second), List.of());
+
+        occupancyIndex.occupy(1L, today, today.plusDays(3));
+        // taking nights already taken, or freeing nights already free, changes nothing
+        occupancyIndex.occupy(1L, today.plusDays(1), today.plusDays(4));
+        occupancyIndex.release(1L, today.plusDays(5), today.plusDays(7));
+        assertEquals(Map.of("Double", 1), occupancyIndex.availableByType(today, today.plusDays(4)));
+        assertEquals(Map.of("Double", 2), occupancyIndex.availableByType(today.plusDays(4), today.plusDays(7)));
+
+        occupancyIndex.release(1L, today, today.plusDays(4));
+        occupancyIndex.release(1L, today, today.plusDays(4));
+        assertEquals(Map.of("Double", 2), occupancyIndex.availableByType(today, today.plusDays(4)));
+
+        // a move within the room that overlaps the old stay
+        occupancyIndex.occupy(2L, today, today.plusDays(70));
+        assertTrue(occupancyIndex.tryMove(2L, today, today.plusDays(70), 2L, today.plusDays(60), today.plusDays(130)));
+        assertEquals(Map.of("Double", 2), occupancyIndex.availableByType(today, today.plusDays(60)));
+        assertEquals(Map.of("Double", 1), occupancyIndex.availableByType(today.plusDays(60), today.plusDays(130)));
+    }
+
+    @Test
+    void testRoomTypeChangeMovesSoldNights() {
+        Room room = new Room(1L, "101", "Double", 90.0, true);
+        occupancyIndex.markRoomChanged(room);
+        occupancyIndex.markRoomChanged(new Room(2L, "301", "Suite", 250.0, true));
+        occupancyIndex.occupy(1L, today, today.plusDays(2));
+
+        room.setType("Suite");
+        occupancyIndex.markRoomChanged(room);
+
+        assertEquals(Map.of("Suite", 1), occupancyIndex.availableByType(today, today.plusDays(1)));
+
+        occupancyIndex.removeRoom(1L);
+        assertEquals(Map.of("Suite", 1), occupancyIndex.availableByType(today, today.plusDays(1)));
+    }
+
+    @Test
+    void testEarliestFreeWindowSkipsShortGaps() {
+        // gaps of 2 nights (days 3-4) and 3 nights (days 70-72), the second one spanning a word boundary
+        occupancyIndex.occupy(1L, today, today.plusDays(3));
+        occupancyIndex.occupy(1L, today.plusDays(5), today.plusDays(70));
+        occupancyIndex.occupy(1L, today.plusDays(73), today.plusDays(200));
+        LocalDate until = today.plusDays(300);
+
+        assertEquals(Optional.of(today.plusDays(3)), occupancyIndex.earliestFreeWindow(1L, today, until, 2));
+        assertEquals(Optional.of(today.plusDays(70)), occupancyIndex.earliestFreeWindow(1L, today, until, 3));
+        assertEquals(Optional.of(today.plusDays(200)), occupancyIndex.earliestFreeWindow(1L, today, until, 4));
+        assertEquals(Optional.of(today.plusDays(71)), occupancyIndex.earliestFreeWindow(1L, today.plusDays(71), until, 2));
+        assertEquals(Optional.empty(), occupancyIndex.earliestFreeWindow(1L, today, today.plusDays(203), 4));
+        assertEquals(Optional.of(today.minusDays(5)), occupancyIndex.earliestFreeWindow(1L, today.minusDays(5), until, 5));
+        assertEquals(Optional.of(today), occupancyIndex.earliestFreeWindow(2L, today, until, 30));
+    }
+
+    @Test
+    void testTryOccupyTakesOnlyFreeNights() {
+        occupancyIndex.rebuild(List.of(new Room(1L, "101", "Double", 90.0, true)), List.of());
+
+        assertTrue(occupancyIndex.tryOccupy(1L, today, today.plusDays(3)));
+        assertFalse(occupancyIndex.tryOccupy(1L, today.plusDays(2), today.plusDays(4)));
+        assertTrue(occupancyIndex.isFree(1L, today.plusDays(3), today.plusDays(4)));
+        assertEquals(Map.of("Double", 0), occupancyIndex.availableByType(today, today.plusDays(1)));
+    }
+
+    @Test
+    void testTryMoveKeepsOldNightsOnConflict() {
+        Room first = new Room(1L, "101", "Double", 90.0, true);
+        Room suite = new Room(2L, "301", "Suite", 250.0, true);
+        occupancyIndex.rebuild(List.of(first, suite), List.of());
+        occupancyIndex.occupy(1L, today, today.plusDays(3));
+        occupancyIndex.occupy(1L, today.plusDays(5), today.plusDays(6));
+
+        // shifting within the room may overlap the stay's own nights
+        assertTrue(occupancyIndex.tryMove(1L, today, today.plusDays(3), 1L, today.plusDays(1), today.plusDays(4)));
+        assertTrue(occupancyIndex.isFree(1L, today, today.plusDays(1)));
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(3), today.plusDays(4)));
+
+        assertFalse(occupancyIndex.tryMove(1L, today.plusDays(1), today.plusDays(4), 1L, today.plusDays(2), today.plusDays(6)));
+        assertFalse(occupancyIndex.isFree(1L, today.plusDays(1), today.plusDays(2)));
+
+        assertTrue(occupancyIndex.tryMove(1L, today.plusDays(1), today.plusDays(4), 2L, today, today.plusDays(2)));
+        assertTrue(occupancyIndex.isFree(1L, today, today.plusDays(5)));
+        assertEquals(Map.of("Double", 1, "Suite", 0), occupancyIndex.availableByType(today, today.plusDays(1)));
+    }
+
+    @Test
+    void testVersionMovesWithEveryChangeOnly() {
+        long start = occupancyIndex.version();
+
+        occupancyIndex.isFree(1L, today, today.plusDays(2));
+        assertEquals(start, occupancyIndex.version());
+
+        occupancyIndex.occupy(1L, today, today.plusDays(2));
+        assertFalse(occupancyIndex.tryOccupy(1L, today, today.plusDays(1)));
+        assertEquals(start + 1, occupancyIndex.version());
+
+        occupancyIndex.release(1L, today, today.plusDays(2));
+        assertEquals(start + 2, occupancyIndex.version());
+    }
+}
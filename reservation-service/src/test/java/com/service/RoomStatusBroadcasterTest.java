@@ -0,0 +1,121 @@
+package com.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.dto.RoomStatusEvent;
+import com.model.Room;
+
+public class RoomStatusBroadcasterTest {
+
+    private RoomOccupancyIndex occupancyIndex;
+    private LocalDate today;
+    private List<Runnable> queuedSends;
+    private RoomStatusBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        RoomCatalog roomCatalog = new RoomCatalog();
+        occupancyIndex = new RoomOccupancyIndex(List.of(roomCatalog));
+        today = LocalDate.of(2025, 5, 1);
+        queuedSends = new ArrayList<>();
+        // sends only happen when the test runs them, like a subscriber that has not caught up yet
+        broadcaster = new RoomStatusBroadcaster(roomCatalog, occupancyIndex, 2, 0, 10, queuedSends::add,
+            Clock.fixed(today.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC));
+        occupancyIndex.rebuild(List.of(
+            new Room(1L, "101", "Double", 90.0, true),
+            new Room(2L, "102", "Double", 90.0, true),
+            new Room(3L, "201", "Suite", 250.0, true)), List.of());
+    }
+
+    @Test
+    void testSnapshotThenDeltas() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+        runQueuedSends();
+
+        occupancyIndex.occupy(1L, today, today.plusDays(2));
+        broadcaster.roomBooked(1L, today, today.plusDays(2));
+        broadcaster.roomDeleted(3L);
+        runQueuedSends();
+
+        assertEquals(List.of("snapshot", "booked", "room-deleted"), emitter.names);
+        assertEquals(3, ((List<?>) emitter.data.get(0)).size());
+        RoomStatusEvent booked = (RoomStatusEvent) emitter.data.get(1);
+        assertEquals("101", booked.getRoomNumber());
+        assertTrue(booked.getOccupiedTonight());
+    }
+
+    @Test
+    void testSlowSubscriberGetsLatestEventPerRoom() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+        runQueuedSends();
+
+        broadcaster.roomBooked(1L, today, today.plusDays(2));
+        broadcaster.roomReleased(1L, today, today.plusDays(2));
+        broadcaster.roomUpdated(2L);
+        runQueuedSends();
+
+        assertEquals(List.of("snapshot", "released", "room-updated"), emitter.names);
+    }
+
+    @Test
+    void testOverflowedSubscriberIsResyncedWithSnapshot() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+        runQueuedSends();
+
+        broadcaster.roomUpdated(1L);
+        broadcaster.roomUpdated(2L);
+        broadcaster.roomUpdated(3L);
+        runQueuedSends();
+
+        assertEquals(List.of("snapshot", "snapshot"), emitter.names);
+    }
+
+    @Test
+    void testFailedSubscriberIsDropped() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.failing = true;
+        broadcaster.subscribe(emitter);
+        assertEquals(1, broadcaster.subscriberCount());
+
+        runQueuedSends();
+
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+
+    private void runQueuedSends() {
+        while (!queuedSends.isEmpty()) {
+            queuedSends.remove(0).run();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            List<Object> parts = builder.build().stream().map(part -> part.getData()).toList();
+            // parts are "event:<name>\ndata:", the payload, then the terminating newlines
+            names.add(parts.get(0).toString().substring("event:".length(), parts.get(0).toString().indexOf('\n')));
+            data.add(parts.get(1));
+        }
+    }
+}